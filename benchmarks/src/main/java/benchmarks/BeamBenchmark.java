@@ -0,0 +1,52 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the gloss/blur beam construction by each of the samplers
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeamBenchmark {
+    @Param({"9", "81"})
+    public int rays;
+
+    @Param({"random", "seeded", "halton", "sobol"})
+    public String sampler;
+
+    private Sampler _sampler;
+    private Ray _ray = new Ray(new Point3D(1, 2, 3), new Vector(0.2, -0.3, 1));
+    private Vector _normal = new Vector(0, 0, 1);
+
+    @Setup
+    public void setup() {
+        switch (sampler) {
+            case "random":
+                _sampler = new RandomSampler();
+                break;
+            case "seeded":
+                _sampler = new RandomSampler(1);
+                break;
+            case "halton":
+                _sampler = new HaltonSampler(1);
+                break;
+            default:
+                _sampler = new SobolSampler(1);
+        }
+    }
+
+    @Benchmark
+    public List<Ray> createBeamOfRays() {
+        return _ray.createBeamOfRays(_normal, 100, rays, 2, _sampler);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import geometries.Geometries;
+import geometries.Intersectables.GeoPoint;
+import geometries.Sphere;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the intersections of a collection of N random spheres - a batch
+ * of random rays from the origin
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometriesBenchmark {
+    private static final int RAYS = 100;
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int size;
+
+    private Geometries _geometries;
+    private Ray[] _rays;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        _geometries = new Geometries();
+        for (int i = 0; i < size; ++i)
+            _geometries.add(new Sphere(new Point3D(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 100 + 100), random.nextDouble() * 5 + 1));
+        _rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i)
+            _rays[i] = new Ray(Point3D.ZERO, new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+        // the hierarchy is built lazily - not a part of the measurement
+        _geometries.findClosestIntersection(_rays[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public int findIntersections() {
+        int count = 0;
+        for (Ray ray : _rays) {
+            List<GeoPoint> points = _geometries.findIntersections(ray);
+            if (points != null)
+                count += points.size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public int findClosestIntersection() {
+        int count = 0;
+        for (Ray ray : _rays)
+            if (_geometries.findClosestIntersection(ray) != null)
+                ++count;
+        return count;
+    }
+}
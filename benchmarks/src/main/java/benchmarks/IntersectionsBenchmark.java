@@ -0,0 +1,64 @@
+package benchmarks;
+
+import geometries.Intersectables.GeoPoint;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the ray intersections of the basic geometries - a hitting ray
+ * and a missing ray for each one
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntersectionsBenchmark {
+    private Sphere _sphere = new Sphere(new Point3D(0, 0, 10), 2);
+    private Plane _plane = new Plane(new Point3D(0, 0, 10), new Vector(0, 1, 1));
+    private Polygon _polygon = new Polygon(new Point3D(-2, -2, 10), new Point3D(2, -2, 10),
+            new Point3D(2, 2, 10), new Point3D(-2, 2, 10));
+    private Ray _hit = new Ray(new Point3D(0.5, 0.5, 0), new Vector(0, 0.01, 1));
+    private Ray _miss = new Ray(new Point3D(5, 5, 0), new Vector(0, 0.01, 1));
+
+    @Benchmark
+    public List<GeoPoint> sphereHit() {
+        return _sphere.findIntersections(_hit);
+    }
+
+    @Benchmark
+    public List<GeoPoint> sphereMiss() {
+        return _sphere.findIntersections(_miss);
+    }
+
+    @Benchmark
+    public List<GeoPoint> planeHit() {
+        return _plane.findIntersections(_hit);
+    }
+
+    @Benchmark
+    public List<GeoPoint> planeMiss() {
+        return _plane.findIntersections(new Ray(_hit.getPoint(), new Vector(0, 1, -1)));
+    }
+
+    @Benchmark
+    public List<GeoPoint> polygonHit() {
+        return _polygon.findIntersections(_hit);
+    }
+
+    @Benchmark
+    public List<GeoPoint> polygonMiss() {
+        return _polygon.findIntersections(_miss);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point3D;
+import primitives.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Vector and Point3D operations
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitivesBenchmark {
+    private Vector _v1 = new Vector(1, 2, 3);
+    private Vector _v2 = new Vector(-2, 0.5, 4);
+    private Point3D _p1 = new Point3D(10, -3, 7);
+    private Point3D _p2 = new Point3D(-1, 4, 2);
+
+    @Benchmark
+    public Vector vectorAdd() {
+        return _v1.add(_v2);
+    }
+
+    @Benchmark
+    public Vector vectorScale() {
+        return _v1.scale(2.5);
+    }
+
+    @Benchmark
+    public double vectorDotProduct() {
+        return _v1.dotProduct(_v2);
+    }
+
+    @Benchmark
+    public Vector vectorCrossProduct() {
+        return _v1.crossProduct(_v2);
+    }
+
+    @Benchmark
+    public Vector vectorNormalized() {
+        return _v1.normalized();
+    }
+
+    @Benchmark
+    public Vector pointSubtract() {
+        return _p1.subtract(_p2);
+    }
+
+    @Benchmark
+    public Point3D pointAdd() {
+        return _p1.add(_v1);
+    }
+
+    @Benchmark
+    public double pointDistance() {
+        return _p1.distance(_p2);
+    }
+}
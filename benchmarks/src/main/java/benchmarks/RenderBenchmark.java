@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import renderer.ImageWriter;
+import renderer.Render;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmark of Render.renderImage for the scenes of
+ * ReflectionRefractionTests at several thread counts. The image is not
+ * written to a file.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+    @Param
+    public Scenes scene;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Render _render;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        ImageWriter imageWriter = scene.createImageWriter();
+        _render = new Render(scene.createScene(), imageWriter).setMultithreading(threads);
+    }
+
+    @Benchmark
+    public void renderImage() {
+        _render.renderImage();
+    }
+}
@@ -1,10 +1,13 @@
 package elements;
 
+import primitives.MutableVector;
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Sampler;
 import primitives.Util;
 import primitives.Vector;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -107,18 +110,47 @@ public class Camera {
         double yi = ((i - nY / 2d) * ry + ry / 2d);
         double xj = ((j - nX / 2d) * rx + rx / 2d);
 
-        Point3D pij = _p0.add(_vectorTowards.scale(screenDistance));
+        // direction from the camera to the pixel center pij
+        MutableVector vij = new MutableVector(_vectorTowards).scale(screenDistance);
 
         if (!isZero(xj))
-            pij = pij.add(_vectorRight.scale(xj));
+            vij.addScaled(_vectorRight, xj);
 
         if (!isZero(yi))
-            pij = pij.add(_vectorUp.scale(-yi));
+            vij.addScaled(_vectorUp, -yi);
 
-        return new Ray(_p0, pij.subtract(_p0));
+        return new Ray(_p0, vij.toVector());
 
     }
 
+    /**
+     * Constructs Ray through any point of the screen, given in pixel units
+     *
+     * @param nX             Number of pixels in X axis
+     * @param nY             Number of pixels in Y axis
+     * @param x              Horizontal position from the left edge of the screen in pixels
+     *                       (the center of pixel j is at j + 0.5)
+     * @param y              Vertical position from the top edge of the screen in pixels
+     *                       (the center of pixel i is at i + 0.5)
+     * @param screenDistance Distance from camera to screen
+     * @param screenWidth    Screen width
+     * @param screenHeight   Screen height
+     * @return the generated ray
+     */
+    public Ray constructRayThroughPoint(int nX, int nY, double x, double y, double screenDistance,
+                                        double screenWidth, double screenHeight) {
+        double xj = (x - nX / 2d) * (screenWidth / nX);
+        double yi = (y - nY / 2d) * (screenHeight / nY);
+
+        // direction from the camera to the point on the screen
+        MutableVector v = new MutableVector(_vectorTowards).scale(screenDistance);
+        if (!isZero(xj))
+            v.addScaled(_vectorRight, xj);
+        if (!isZero(yi))
+            v.addScaled(_vectorUp, -yi);
+        return new Ray(_p0, v.toVector());
+    }
+
     /**
      * Constract ray beam through a pixel
      *
@@ -147,6 +179,38 @@ public class Camera {
         return sample_rays;
     }
 
+    /**
+     * Constract jittered ray beam through a pixel - a ray through a sample point
+     * inside each cell of the grid
+     *
+     * @param nX             x resolution
+     * @param nY             y resolution
+     * @param j              pixel x index
+     * @param i              pixel y index
+     * @param screenDistance the distance from screen
+     * @param screenWidth    the width of the screen
+     * @param screenHeight   the height of the screen
+     * @param numOfRays      the number of rays in each direction of the grid
+     * @param sampler        source of the sample points in the cells
+     * @return the list of rays
+     */
+    public List<Ray> constructRaysThroughPixel(int nX, int nY, int j, int i, double screenDistance,
+                                               double screenWidth, double screenHeight, int numOfRays,
+                                               Sampler sampler) {
+        if (numOfRays <= 1)
+            return List.of(constructRayThroughPixel(nX, nY, j, i, screenDistance, screenWidth, screenHeight));
+        List<Ray> sample_rays = new ArrayList<>(numOfRays * numOfRays);
+        long pixel = Util.hash((long) i * nX + j);
+        for (int row = 0; row < numOfRays; ++row)
+            for (int column = 0; column < numOfRays; ++column) {
+                long cell = (long) row * numOfRays + column;
+                double x = j + (column + sampler.get(pixel, cell, 0)) / numOfRays;
+                double y = i + (row + sampler.get(pixel, cell, 1)) / numOfRays;
+                sample_rays.add(constructRayThroughPoint(nX, nY, x, y, screenDistance, screenWidth, screenHeight));
+            }
+        return sample_rays;
+    }
+
     /**
      * Construct a ray through center of a pixel
      *
@@ -163,16 +227,16 @@ public class Camera {
      */
     private Ray constructRaysThroughPixel(int nX, int nY, double yi, double xj, int j, int i, double screenDistance,
                                           double pixelWidth, double pixelHeight) {
-        Point3D pC = _p0.add(_vectorTowards.scale(screenDistance));
         double rY = pixelHeight / nY;
         double rX = pixelWidth / nX;
         double ySampleI = (i * rY + rY / 2d) + yi;
         double xSampleJ = (j * rX + rX / 2d) + xj;
-        Point3D pIJ = pC;
+        // direction from the camera to the sample point pIJ
+        MutableVector vIJ = new MutableVector(_vectorTowards).scale(screenDistance);
         if (!Util.isZero(xSampleJ))
-            pIJ = pIJ.add(_vectorRight.scale(xSampleJ));
+            vIJ.addScaled(_vectorRight, xSampleJ);
         if (!Util.isZero(ySampleI))
-            pIJ = pIJ.add(_vectorUp.scale(-ySampleI));
-        return new Ray(_p0, pIJ.subtract(_p0));
+            vIJ.addScaled(_vectorUp, -ySampleI);
+        return new Ray(_p0, vIJ.toVector());
     }
 }
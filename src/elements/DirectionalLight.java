@@ -21,6 +21,15 @@ public class DirectionalLight extends Light implements LightSource {
         this._direction = direction.normalized();
     }
 
+    /**
+     * Gets the direction of the light
+     *
+     * @return the direction
+     */
+    public Vector getDirection() {
+        return _direction;
+    }
+
     /**
      * Get intensity of the color in a given point
      *
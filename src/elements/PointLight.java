@@ -24,6 +24,42 @@ public class PointLight extends Light implements LightSource {
         this._kQ = kQ;
     }
 
+    /**
+     * Gets the position of the light
+     *
+     * @return the position
+     */
+    public Point3D getPosition() {
+        return _position;
+    }
+
+    /**
+     * Gets the constant attenuation factor
+     *
+     * @return kC
+     */
+    public double getKC() {
+        return _kC;
+    }
+
+    /**
+     * Gets the linear attenuation factor
+     *
+     * @return kL
+     */
+    public double getKL() {
+        return _kL;
+    }
+
+    /**
+     * Gets the quadratic attenuation factor
+     *
+     * @return kQ
+     */
+    public double getKQ() {
+        return _kQ;
+    }
+
     /**
      * Get intensity of the color in a given point
      *
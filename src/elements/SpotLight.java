@@ -23,6 +23,15 @@ public class SpotLight extends PointLight {
         this._direction = direction.normalized();
     }
 
+    /**
+     * Gets the direction of the spot light
+     *
+     * @return the direction
+     */
+    public Vector getDirection() {
+        return _direction;
+    }
+
     /**
      * Get intensity of the color in a given point
      *
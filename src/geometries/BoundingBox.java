@@ -0,0 +1,109 @@
+package geometries;
+
+import primitives.Point3D;
+
+/**
+ * Axis aligned bounding box of a finite geometry in 3D space
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class BoundingBox {
+    final double _minX, _minY, _minZ;
+    final double _maxX, _maxY, _maxZ;
+
+    /****** CONSTRUCTORS *******/
+
+    /**
+     * Constructor based on the minimal and maximal values of each axis
+     *
+     * @param minX minimal x value
+     * @param minY minimal y value
+     * @param minZ minimal z value
+     * @param maxX maximal x value
+     * @param maxY maximal y value
+     * @param maxZ maximal z value
+     * @throws IllegalArgumentException if a minimal value is bigger than the maximal one
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("Minimal values of a bounding box must not exceed the maximal values");
+        _minX = minX;
+        _minY = minY;
+        _minZ = minZ;
+        _maxX = maxX;
+        _maxY = maxY;
+        _maxZ = maxZ;
+    }
+
+    /**
+     * Constructor of the smallest box containing all the given points
+     *
+     * @param points one or more points
+     */
+    public BoundingBox(Point3D... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A bounding box needs at least one point");
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point3D p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        _minX = minX;
+        _minY = minY;
+        _minZ = minZ;
+        _maxX = maxX;
+        _maxY = maxY;
+        _maxZ = maxZ;
+    }
+
+    /****** GETTERS *******/
+
+    /**
+     * @return the corner with the minimal values
+     */
+    public Point3D getMin() {
+        return new Point3D(_minX, _minY, _minZ);
+    }
+
+    /**
+     * @return the corner with the maximal values
+     */
+    public Point3D getMax() {
+        return new Point3D(_maxX, _maxY, _maxZ);
+    }
+
+    /****** FUNCTIONS *******/
+
+    /**
+     * Smallest box containing both this box and the other one
+     *
+     * @param other another box
+     * @return new BoundingBox of the union
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(_minX, other._minX), Math.min(_minY, other._minY), Math.min(_minZ, other._minZ),
+                Math.max(_maxX, other._maxX), Math.max(_maxY, other._maxY), Math.max(_maxZ, other._maxZ));
+    }
+
+    /**
+     * Surface area of the box, used by the surface area heuristic
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double dx = _maxX - _minX;
+        double dy = _maxY - _minY;
+        double dz = _maxZ - _minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox:\n - " + getMin() + "\n - " + getMax();
+    }
+}
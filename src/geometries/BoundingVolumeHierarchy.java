@@ -0,0 +1,511 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy over a set of bounded primitives. The tree is built
+ * once with the surface area heuristic (SAH) and stored flattened in arrays, the
+ * left child of an inner node is always the next node and the right child is
+ * referenced by index. Subclasses define what a primitive is and how a ray
+ * intersects it.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public abstract class BoundingVolumeHierarchy implements Intersectables {
+    /**
+     * Amount of primitives that are never split further
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * Amount of primitives that can be put in a leaf when no split is cheaper
+     */
+    private static final int MAX_SAH_LEAF_SIZE = 16;
+    /**
+     * Amount of candidate split positions checked in each node
+     */
+    private static final int BUCKETS = 12;
+    /**
+     * Cost of a box test relatively to a primitive intersection
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+    /**
+     * Enlargement of the box exit distance against rounding errors
+     */
+    private static final double ROBUST_FACTOR = 1 + 1e-9;
+
+    private final int _size;
+    private double[] _bounds;   // six values per node: min x,y,z and max x,y,z
+    private int[] _offsets;     // leaf - first primitive in _order, inner node - right child
+    private int[] _counts;      // leaf - amount of primitives, inner node - 0
+    private byte[] _axes;       // inner node - the axis it was split by
+    /**
+     * Primitive indices ordered so that every leaf holds a continuous range
+     */
+    protected final int[] _order;
+
+    // build time data
+    private double[] _primitiveBounds;
+    private double[] _centroids;
+    private int _nodes;
+
+    /****** CONSTRUCTORS *******/
+
+    /**
+     * Builds the hierarchy over primitives 0..size-1 given their bounds
+     *
+     * @param primitiveBounds six values per primitive: min x,y,z and max x,y,z
+     * @param size            amount of primitives
+     */
+    protected BoundingVolumeHierarchy(double[] primitiveBounds, int size) {
+        _size = size;
+        _order = new int[size];
+        int maxNodes = Math.max(1, 2 * size - 1);
+        _bounds = new double[6 * maxNodes];
+        _offsets = new int[maxNodes];
+        _counts = new int[maxNodes];
+        _axes = new byte[maxNodes];
+        if (size == 0) return;
+
+        _primitiveBounds = primitiveBounds;
+        _centroids = new double[3 * size];
+        for (int i = 0; i < size; ++i) {
+            _order[i] = i;
+            for (int axis = 0; axis < 3; ++axis)
+                _centroids[3 * i + axis] = (primitiveBounds[6 * i + axis] + primitiveBounds[6 * i + axis + 3]) / 2;
+        }
+        build(0, size);
+        _primitiveBounds = null;
+        _centroids = null;
+        // leaves hold several primitives, so far fewer nodes than the maximum are used
+        if (_nodes < maxNodes) {
+            _bounds = Arrays.copyOf(_bounds, 6 * _nodes);
+            _offsets = Arrays.copyOf(_offsets, _nodes);
+            _counts = Arrays.copyOf(_counts, _nodes);
+            _axes = Arrays.copyOf(_axes, _nodes);
+        }
+    }
+
+    /**
+     * Restores a hierarchy that was built before from its flattened tree,
+     * without building it again
+     *
+     * @param tree the tree of the hierarchy
+     * @param size amount of primitives
+     * @throws IllegalArgumentException if the tree is not of the size
+     */
+    protected BoundingVolumeHierarchy(Tree tree, int size) {
+        if (tree.order.length != size)
+            throw new IllegalArgumentException("The tree is of another amount of primitives");
+        _size = size;
+        _bounds = tree.bounds;
+        _offsets = tree.offsets;
+        _counts = tree.counts;
+        _axes = tree.axes;
+        _order = tree.order;
+    }
+
+    /****** GETTERS *******/
+
+    /**
+     * @return the flattened tree of the hierarchy - its arrays are shared with
+     * the hierarchy, so they must not be changed
+     */
+    public Tree getTree() {
+        return new Tree(_bounds, _offsets, _counts, _axes, _order);
+    }
+
+    /**
+     * @return amount of primitives in the hierarchy
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * @return box of the whole hierarchy, null if it is empty
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (_size == 0) return null;
+        return new BoundingBox(_bounds[0], _bounds[1], _bounds[2], _bounds[3], _bounds[4], _bounds[5]);
+    }
+
+    /****** FUNCTIONS *******/
+
+    /**
+     * Find intersections of a Ray with a single primitive
+     *
+     * @param primitive   index of the primitive
+     * @param ray         The Ray to intersect
+     * @param maxDistance Maximum distance for intersection
+     * @return List of intersection points, null if there are none
+     */
+    protected abstract List<GeoPoint> findIntersections(int primitive, Ray ray, double maxDistance);
+
+    /**
+     * Find the closest intersection of a Ray with a single primitive
+     *
+     * @param primitive   index of the primitive
+     * @param ray         The Ray to intersect
+     * @param maxDistance Maximum distance for intersection
+     * @return the closest intersection point, null if there is none
+     */
+    protected abstract GeoPoint findClosestIntersection(int primitive, Ray ray, double maxDistance);
+
+    /**
+     * Find the part of light that passes along a Ray through a single primitive
+     *
+     * @param primitive   index of the primitive
+     * @param ray         The Ray to intersect
+     * @param maxDistance distance of the light source
+     * @param minK        threshold below which the light is considered blocked
+     * @return the transparency factor, 0 if it is below the threshold
+     */
+    protected abstract double findTransparency(int primitive, Ray ray, double maxDistance, double minK);
+
+    @Override
+    public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
+        if (_size == 0) return null;
+        return findIntersections(0, new Slabs(ray), ray, maxDistance, null);
+    }
+
+    /**
+     * Recursive collection of the intersections in a sub tree
+     *
+     * @param node          root of the sub tree
+     * @param slabs         the ray prepared for the box tests
+     * @param ray           The Ray to intersect
+     * @param maxDistance   Maximum distance for intersection
+     * @param intersections intersections found so far, may be null
+     * @return the intersections found so far including the sub tree ones, may be null
+     */
+    private List<GeoPoint> findIntersections(int node, Slabs slabs, Ray ray, double maxDistance, List<GeoPoint> intersections) {
+        if (!slabs.hits(_bounds, node, maxDistance))
+            return intersections;
+        int count = _counts[node];
+        if (count == 0) {
+            intersections = findIntersections(node + 1, slabs, ray, maxDistance, intersections);
+            return findIntersections(_offsets[node], slabs, ray, maxDistance, intersections);
+        }
+        for (int i = _offsets[node], end = i + count; i < end; ++i) {
+            List<GeoPoint> primitiveIntersections = findIntersections(_order[i], ray, maxDistance);
+            if (primitiveIntersections != null) {
+                if (intersections == null)
+                    intersections = new ArrayList<>();
+                intersections.addAll(primitiveIntersections);
+            }
+        }
+        return intersections;
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        if (_size == 0) return null;
+        return findClosestIntersection(0, new Slabs(ray), ray, maxDistance, null);
+    }
+
+    /**
+     * Recursive search of the closest intersection in a sub tree. The child that
+     * is nearer along the split axis is visited first, and the closest intersection
+     * found so far limits the distance of the rest of the search.
+     *
+     * @param node        root of the sub tree
+     * @param slabs       the ray prepared for the box tests
+     * @param ray         The Ray to intersect
+     * @param maxDistance Maximum distance for intersection
+     * @param closest     closest intersection found so far, may be null
+     * @return the closest intersection found so far including the sub tree, may be null
+     */
+    private GeoPoint findClosestIntersection(int node, Slabs slabs, Ray ray, double maxDistance, GeoPoint closest) {
+        if (closest != null)
+            maxDistance = closest.t;
+        if (!slabs.hits(_bounds, node, maxDistance))
+            return closest;
+        int count = _counts[node];
+        if (count == 0) {
+            int first = node + 1, second = _offsets[node];
+            if (slabs.isNegative(_axes[node])) {
+                first = second;
+                second = node + 1;
+            }
+            closest = findClosestIntersection(first, slabs, ray, maxDistance, closest);
+            return findClosestIntersection(second, slabs, ray, maxDistance, closest);
+        }
+        for (int i = _offsets[node], end = i + count; i < end; ++i) {
+            GeoPoint geoPoint = findClosestIntersection(_order[i], ray, maxDistance);
+            if (geoPoint != null && (closest == null || geoPoint.t < closest.t)) {
+                closest = geoPoint;
+                maxDistance = geoPoint.t;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        if (_size == 0) return 1d;
+        return findTransparency(0, new Slabs(ray), ray, maxDistance, minK, 1d);
+    }
+
+    /**
+     * Recursive calculation of the transparency along a ray through a sub tree,
+     * stopping as soon as the light is blocked
+     *
+     * @param node        root of the sub tree
+     * @param slabs       the ray prepared for the box tests
+     * @param ray         The Ray to intersect
+     * @param maxDistance distance of the light source
+     * @param minK        threshold below which the light is considered blocked
+     * @param ktr         transparency factor accumulated so far
+     * @return the accumulated transparency factor including the sub tree, 0 if it is below the threshold
+     */
+    private double findTransparency(int node, Slabs slabs, Ray ray, double maxDistance, double minK, double ktr) {
+        if (!slabs.hits(_bounds, node, maxDistance))
+            return ktr;
+        int count = _counts[node];
+        if (count == 0) {
+            ktr = findTransparency(node + 1, slabs, ray, maxDistance, minK, ktr);
+            if (ktr == 0d) return 0d;
+            return findTransparency(_offsets[node], slabs, ray, maxDistance, minK, ktr);
+        }
+        for (int i = _offsets[node], end = i + count; i < end; ++i) {
+            ktr *= findTransparency(_order[i], ray, maxDistance, minK / ktr);
+            if (ktr < minK) return 0d;
+        }
+        return ktr;
+    }
+
+    /**
+     * Recursive build of the sub tree of primitives _order[start..end)
+     *
+     * @param start first primitive position
+     * @param end   position after the last primitive
+     * @return index of the sub tree root node
+     */
+    private int build(int start, int end) {
+        int node = _nodes++;
+        int b = 6 * node;
+        double[] centroidBounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int axis = 0; axis < 3; ++axis) {
+            _bounds[b + axis] = Double.POSITIVE_INFINITY;
+            _bounds[b + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = start; i < end; ++i) {
+            int p = _order[i];
+            for (int axis = 0; axis < 3; ++axis) {
+                _bounds[b + axis] = Math.min(_bounds[b + axis], _primitiveBounds[6 * p + axis]);
+                _bounds[b + axis + 3] = Math.max(_bounds[b + axis + 3], _primitiveBounds[6 * p + axis + 3]);
+                double c = _centroids[3 * p + axis];
+                centroidBounds[axis] = Math.min(centroidBounds[axis], c);
+                centroidBounds[axis + 3] = Math.max(centroidBounds[axis + 3], c);
+            }
+        }
+
+        int count = end - start;
+        int axis = 0;
+        for (int i = 1; i < 3; ++i)
+            if (centroidBounds[i + 3] - centroidBounds[i] > centroidBounds[axis + 3] - centroidBounds[axis])
+                axis = i;
+        double min = centroidBounds[axis];
+        double extent = centroidBounds[axis + 3] - min;
+        // all the centroids are in the same point - no split can separate them
+        if (count <= MAX_LEAF_SIZE || extent <= 0)
+            return leaf(node, start, count);
+
+        // Surface area heuristic: put the centroids in buckets along the axis and
+        // check the cost of splitting between each pair of consequent buckets
+        int[] bucketCounts = new int[BUCKETS];
+        double[][] bucketBounds = new double[BUCKETS][];
+        for (int i = start; i < end; ++i) {
+            int p = _order[i];
+            int bucket = bucket(p, axis, min, extent);
+            ++bucketCounts[bucket];
+            bucketBounds[bucket] = union(bucketBounds[bucket], _primitiveBounds, 6 * p);
+        }
+        double[] leftAreas = new double[BUCKETS];
+        int[] leftCounts = new int[BUCKETS];
+        double[] box = null;
+        int leftCount = 0;
+        for (int i = 0; i < BUCKETS - 1; ++i) {
+            if (bucketBounds[i] != null)
+                box = union(box, bucketBounds[i], 0);
+            leftCount += bucketCounts[i];
+            leftCounts[i] = leftCount;
+            leftAreas[i] = box == null ? 0 : area(box, 0);
+        }
+        double nodeArea = area(_bounds, b);
+        int split = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        box = null;
+        for (int i = BUCKETS - 1; i > 0; --i) {
+            if (bucketBounds[i] != null)
+                box = union(box, bucketBounds[i], 0);
+            int rightCount = count - leftCounts[i - 1];
+            if (leftCounts[i - 1] == 0 || rightCount == 0) continue;
+            double cost = nodeArea == 0 ? count
+                    : TRAVERSAL_COST + (leftCounts[i - 1] * leftAreas[i - 1] + rightCount * area(box, 0)) / nodeArea;
+            if (cost < bestCost) {
+                bestCost = cost;
+                split = i - 1;
+            }
+        }
+        if (split < 0 || (bestCost >= count && count <= MAX_SAH_LEAF_SIZE))
+            return leaf(node, start, count);
+
+        // partition the primitives of the node by the chosen split
+        int mid = start;
+        for (int i = start; i < end; ++i) {
+            int p = _order[i];
+            if (bucket(p, axis, min, extent) <= split) {
+                _order[i] = _order[mid];
+                _order[mid++] = p;
+            }
+        }
+
+        _counts[node] = 0;
+        _axes[node] = (byte) axis;
+        build(start, mid);
+        _offsets[node] = build(mid, end);
+        return node;
+    }
+
+    private int leaf(int node, int start, int count) {
+        _offsets[node] = start;
+        _counts[node] = count;
+        return node;
+    }
+
+    private int bucket(int primitive, int axis, double min, double extent) {
+        int bucket = (int) (BUCKETS * (_centroids[3 * primitive + axis] - min) / extent);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static double[] union(double[] box, double[] bounds, int offset) {
+        if (box == null) {
+            box = new double[6];
+            System.arraycopy(bounds, offset, box, 0, 6);
+            return box;
+        }
+        for (int axis = 0; axis < 3; ++axis) {
+            box[axis] = Math.min(box[axis], bounds[offset + axis]);
+            box[axis + 3] = Math.max(box[axis + 3], bounds[offset + axis + 3]);
+        }
+        return box;
+    }
+
+    private static double area(double[] bounds, int offset) {
+        double dx = bounds[offset + 3] - bounds[offset];
+        double dy = bounds[offset + 4] - bounds[offset + 1];
+        double dz = bounds[offset + 5] - bounds[offset + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Flattened tree of a hierarchy - for storing a built hierarchy and restoring
+     * it later without building it again
+     */
+    public static final class Tree {
+        public final double[] bounds;   // six values per node: min x,y,z and max x,y,z
+        public final int[] offsets;     // leaf - first primitive in order, inner node - right child
+        public final int[] counts;      // leaf - amount of primitives, inner node - 0
+        public final byte[] axes;       // inner node - the axis it was split by
+        public final int[] order;       // primitive indices ordered so that every leaf holds a continuous range
+
+        /**
+         * Constructor - the arrays are kept, not copied
+         *
+         * @param bounds  six values per node: min x,y,z and max x,y,z
+         * @param offsets per node: leaf - first primitive in order, inner node - right child
+         * @param counts  per node: leaf - amount of primitives, inner node - 0
+         * @param axes    per node: inner node - the axis it was split by
+         * @param order   primitive indices ordered so that every leaf holds a continuous range
+         * @throws IllegalArgumentException if the arrays do not make a tree
+         */
+        public Tree(double[] bounds, int[] offsets, int[] counts, byte[] axes, int[] order) {
+            int nodes = offsets.length;
+            if (bounds.length != 6 * nodes || counts.length != nodes || axes.length != nodes
+                    || nodes == 0 && order.length > 0)
+                throw new IllegalArgumentException("The tree arrays are of different sizes");
+            for (int node = 0; node < nodes && order.length > 0; ++node) {
+                boolean valid = counts[node] == 0 // inner node - the right child is after the left one
+                        ? offsets[node] > node + 1 && offsets[node] < nodes && axes[node] >= 0 && axes[node] < 3
+                        : counts[node] > 0 && offsets[node] >= 0 && offsets[node] <= order.length - counts[node];
+                if (!valid)
+                    throw new IllegalArgumentException("Node " + node + " of the tree is out of range");
+            }
+            for (int primitive : order)
+                if (primitive < 0 || primitive >= order.length)
+                    throw new IllegalArgumentException("A primitive of the tree is out of range");
+            this.bounds = bounds;
+            this.offsets = offsets;
+            this.counts = counts;
+            this.axes = axes;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A ray prepared for fast ray-box (slab) tests: the inverted direction is
+     * calculated once for the whole traversal
+     */
+    private static final class Slabs {
+        final double _ox, _oy, _oz;
+        final double _ix, _iy, _iz;
+
+        Slabs(Ray ray) {
+            Point3D p0 = ray.getPoint();
+            Vector v = ray.getVector();
+            _ox = p0.getX();
+            _oy = p0.getY();
+            _oz = p0.getZ();
+            _ix = 1 / v.getX();
+            _iy = 1 / v.getY();
+            _iz = 1 / v.getZ();
+        }
+
+        /**
+         * @param axis 0, 1 or 2 for x, y or z
+         * @return true if the ray goes to the negative direction of the axis
+         */
+        boolean isNegative(int axis) {
+            return (axis == 0 ? _ix : axis == 1 ? _iy : _iz) < 0;
+        }
+
+        /**
+         * Slab test of the ray against a box. A ray parallel to a slab gives NaN
+         * (0 * infinity) when it starts on its border - the comparisons below are
+         * written so that NaN leaves the interval untouched.
+         *
+         * @param bounds      boxes array
+         * @param box         index of the box
+         * @param maxDistance Maximum distance for intersection
+         * @return true if the ray passes through the box before the max distance
+         */
+        boolean hits(double[] bounds, int box, double maxDistance) {
+            int b = 6 * box;
+            double tNear = 0, tFar = maxDistance;
+            double t1 = (bounds[b] - _ox) * _ix, t2 = (bounds[b + 3] - _ox) * _ix;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            t1 = (bounds[b + 1] - _oy) * _iy;
+            t2 = (bounds[b + 4] - _oy) * _iy;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            t1 = (bounds[b + 2] - _oz) * _iz;
+            t2 = (bounds[b + 5] - _oz) * _iz;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            return tNear <= tFar * ROBUST_FACTOR;
+        }
+    }
+}
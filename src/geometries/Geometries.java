@@ -3,7 +3,9 @@ package geometries;
 import primitives.Ray;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Class that represents every Geometry in 3D space
@@ -11,9 +13,18 @@ import java.util.List;
  * @author David Zimberknopf and Daniel Grunberger
  */
 public class Geometries implements Intersectables {
+    /**
+     * Minimal amount of bounded geometries for which a hierarchy is built
+     */
+    private static final int MIN_HIERARCHY_SIZE = 8;
 
     private List<Intersectables> _geometries;
 
+    /**
+     * Acceleration structure over the bounded geometries, built on first use
+     */
+    private volatile Hierarchy _hierarchy;
+
     /**
      * Default constructor
      */
@@ -39,15 +50,164 @@ public class Geometries implements Intersectables {
         for (Intersectables geometry : geometries) {
             _geometries.add(geometry);
         }
+        _hierarchy = null;
+    }
+
+    /**
+     * @return the geometries (unmodifiable)
+     */
+    public List<Intersectables> getGeometries() {
+        return Collections.unmodifiableList(_geometries);
+    }
+
+    /**
+     * Get the tree of the hierarchy over the bounded geometries, building the
+     * hierarchy if needed
+     *
+     * @return the tree, null if there are too few bounded geometries for a
+     * hierarchy
+     */
+    public BoundingVolumeHierarchy.Tree getTree() {
+        Hierarchy hierarchy = getHierarchy();
+        return hierarchy == null ? null : hierarchy.getTree();
+    }
+
+    /**
+     * Set the tree of the hierarchy over the bounded geometries - a tree that
+     * was built before over the same geometries, so it is not built again
+     *
+     * @param tree the tree
+     * @throws IllegalArgumentException if the tree is of another amount of
+     *                                  bounded geometries
+     */
+    public void setTree(BoundingVolumeHierarchy.Tree tree) {
+        _hierarchy = new Hierarchy(_geometries, tree);
+    }
+
+    /**
+     * Copy the geometries, replacing each geometry by a function of it. Nested
+     * Geometries are copied the same way, so the function gets only the
+     * geometries themselves. The copy shares the tree of the hierarchy, which
+     * is not built again, so the function must keep the bounding boxes of the
+     * geometries.
+     *
+     * @param function the function, e.g. a decorator of the geometries
+     * @return the copy
+     */
+    public Geometries map(UnaryOperator<Intersectables> function) {
+        Geometries copy = new Geometries();
+        for (Intersectables geometry : _geometries)
+            copy._geometries.add(geometry instanceof Geometries
+                    ? ((Geometries) geometry).map(function) : function.apply(geometry));
+        BoundingVolumeHierarchy.Tree tree = getTree();
+        if (tree != null)
+            copy.setTree(tree);
+        return copy;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        BoundingBox box = null;
+        for (Intersectables geometry : _geometries) {
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            if (geometryBox == null) return null;
+            box = box == null ? geometryBox : box.union(geometryBox);
+        }
+        return box;
     }
 
     @Override
     public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
         if (_geometries.isEmpty()) return null;
 
-        List<GeoPoint> intersections = null;
+        Hierarchy hierarchy = getHierarchy();
+        if (hierarchy == null)
+            return findIntersections(_geometries, ray, maxDistance, null);
 
-        for (Intersectables geometry : _geometries) {
+        List<GeoPoint> intersections = hierarchy.findIntersections(ray, maxDistance);
+        return findIntersections(hierarchy._unbounded, ray, maxDistance, intersections);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        if (_geometries.isEmpty()) return null;
+
+        Hierarchy hierarchy = getHierarchy();
+        if (hierarchy == null)
+            return findClosestIntersection(_geometries, ray, maxDistance, null);
+
+        GeoPoint closest = hierarchy.findClosestIntersection(ray, maxDistance);
+        return findClosestIntersection(hierarchy._unbounded, ray, maxDistance, closest);
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        if (_geometries.isEmpty()) return 1d;
+
+        Hierarchy hierarchy = getHierarchy();
+        if (hierarchy == null)
+            return findTransparency(_geometries, ray, maxDistance, minK, 1d);
+
+        double ktr = hierarchy.findTransparency(ray, maxDistance, minK);
+        if (ktr == 0d) return 0d;
+        return findTransparency(hierarchy._unbounded, ray, maxDistance, minK, ktr);
+    }
+
+    /**
+     * Find the part of light that passes along a Ray through a list of geometries
+     *
+     * @param geometries  the geometries to intersect
+     * @param ray         The Ray to intersect
+     * @param maxDistance distance of the light source
+     * @param minK        threshold below which the light is considered blocked
+     * @param ktr         transparency factor accumulated so far
+     * @return the accumulated transparency factor, 0 if it is below the threshold
+     */
+    private static double findTransparency(List<Intersectables> geometries, Ray ray, double maxDistance, double minK,
+                                           double ktr) {
+        for (Intersectables geometry : geometries) {
+            ktr *= geometry.findTransparency(ray, maxDistance, minK / ktr);
+            if (ktr < minK) return 0d;
+        }
+        return ktr;
+    }
+
+    /**
+     * Find the closest intersection of a Ray with a list of geometries, each
+     * intersection found limits the distance for the following geometries
+     *
+     * @param geometries  the geometries to intersect
+     * @param ray         The Ray to intersect
+     * @param maxDistance Maximum distance for intersection
+     * @param closest     closest intersection found so far, may be null
+     * @return the closest intersection including these geometries, may be null
+     */
+    private static GeoPoint findClosestIntersection(List<Intersectables> geometries, Ray ray, double maxDistance,
+                                                    GeoPoint closest) {
+        if (closest != null)
+            maxDistance = closest.t;
+        for (Intersectables geometry : geometries) {
+            GeoPoint geoPoint = geometry.findClosestIntersection(ray, maxDistance);
+            if (geoPoint != null && (closest == null || geoPoint.t < closest.t)) {
+                closest = geoPoint;
+                maxDistance = geoPoint.t;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Find intersections of a Ray with each one of a list of geometries
+     *
+     * @param geometries    the geometries to intersect
+     * @param ray           The Ray to intersect
+     * @param maxDistance   Maximum distance for intersection
+     * @param intersections intersections found so far, may be null
+     * @return the intersections found so far including these geometries ones, may be null
+     */
+    private static List<GeoPoint> findIntersections(List<Intersectables> geometries, Ray ray, double maxDistance,
+                                                    List<GeoPoint> intersections) {
+        for (Intersectables geometry : geometries) {
             List<GeoPoint> geometryIntersections = geometry.findIntersections(ray, maxDistance);
 
             if (geometryIntersections != null) {
@@ -59,4 +219,119 @@ public class Geometries implements Intersectables {
 
         return intersections;
     }
+
+    /**
+     * Get the hierarchy over the bounded geometries, building it if the
+     * geometries were changed since it was last built
+     *
+     * @return the hierarchy, null if there are too few bounded geometries for it
+     */
+    private Hierarchy getHierarchy() {
+        Hierarchy hierarchy = _hierarchy;
+        if (hierarchy != null)
+            return hierarchy.size() == 0 ? null : hierarchy;
+        synchronized (this) {
+            if (_hierarchy == null)
+                _hierarchy = new Hierarchy(_geometries);
+            return _hierarchy.size() == 0 ? null : _hierarchy;
+        }
+    }
+
+    /**
+     * Bounding volume hierarchy over the bounded geometries. Unbounded geometries
+     * (i.e. planes) are kept aside and intersected with each ray.
+     */
+    private static class Hierarchy extends BoundingVolumeHierarchy {
+        private final Intersectables[] _bounded;
+        private final List<Intersectables> _unbounded;
+
+        Hierarchy(List<Intersectables> geometries) {
+            this(new Split(geometries));
+        }
+
+        private Hierarchy(Split split) {
+            super(split.bounds(), split.size());
+            _bounded = split.bounded.toArray(new Intersectables[0]);
+            _unbounded = split.unbounded;
+        }
+
+        Hierarchy(List<Intersectables> geometries, Tree tree) {
+            this(new Split(geometries), tree);
+        }
+
+        private Hierarchy(Split split, Tree tree) {
+            super(tree, split.size());
+            _bounded = split.bounded.toArray(new Intersectables[0]);
+            _unbounded = split.unbounded;
+        }
+
+        /**
+         * The geometries separated to the bounded ones, with their bounding
+         * boxes, and the unbounded ones
+         */
+        private static class Split {
+            final List<Intersectables> bounded = new ArrayList<>();
+            final List<Intersectables> unbounded = new ArrayList<>();
+            final List<BoundingBox> boxes = new ArrayList<>();
+
+            /**
+             * Separate the bounded geometries from the unbounded ones
+             *
+             * @param geometries all the geometries
+             */
+            Split(List<Intersectables> geometries) {
+                for (Intersectables geometry : geometries) {
+                    BoundingBox box = geometry.getBoundingBox();
+                    if (box == null)
+                        unbounded.add(geometry);
+                    else {
+                        bounded.add(geometry);
+                        boxes.add(box);
+                    }
+                }
+            }
+
+            /**
+             * @return amount of primitives of the hierarchy, 0 if there are too few
+             * bounded geometries for a hierarchy
+             */
+            int size() {
+                return bounded.size() < MIN_HIERARCHY_SIZE ? 0 : bounded.size();
+            }
+
+            /**
+             * Flatten the bounding boxes for building the hierarchy
+             *
+             * @return six values per bounded geometry: min x,y,z and max x,y,z
+             */
+            double[] bounds() {
+                double[] bounds = new double[6 * boxes.size()];
+                int b = 0;
+                for (BoundingBox box : boxes) {
+                    bounds[b++] = box._minX;
+                    bounds[b++] = box._minY;
+                    bounds[b++] = box._minZ;
+                    bounds[b++] = box._maxX;
+                    bounds[b++] = box._maxY;
+                    bounds[b++] = box._maxZ;
+                }
+                return bounds;
+            }
+        }
+
+        @Override
+        protected List<GeoPoint> findIntersections(int primitive, Ray ray, double maxDistance) {
+            return _bounded[primitive].findIntersections(ray, maxDistance);
+        }
+
+        @Override
+        protected GeoPoint findClosestIntersection(int primitive, Ray ray, double maxDistance) {
+            return _bounded[primitive].findClosestIntersection(ray, maxDistance);
+        }
+
+        @Override
+        protected double findTransparency(int primitive, Ray ray, double maxDistance, double minK) {
+            return _bounded[primitive].findTransparency(ray, maxDistance, minK);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package geometries;
 import primitives.Color;
 import primitives.Material;
 import primitives.Point3D;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -65,4 +66,20 @@ public abstract class Geometry implements Intersectables {
         return _material;
     }
 
+    /**
+     * Find the part of light that passes along a (shadow) Ray through the geometry.
+     * An opaque geometry blocks the light at its first intersection.
+     *
+     * @param ray         The Ray to intersect, starting at the lighted point
+     * @param maxDistance distance of the light source
+     * @param minK        threshold below which the light is considered blocked
+     * @return the transparency factor, 0 if it is below the threshold
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        if (_material.getKT() < minK)
+            return findClosestIntersection(ray, maxDistance) == null ? 1d : 0d;
+        return Intersectables.super.findTransparency(ray, maxDistance, minK);
+    }
+
 }
\ No newline at end of file
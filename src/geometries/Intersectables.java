@@ -2,6 +2,7 @@ package geometries;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vector;
 
 import java.util.List;
 
@@ -31,12 +32,86 @@ public interface Intersectables {
      */
     List<GeoPoint> findIntersections(Ray ray, double maxDistance);
 
+    /**
+     * Find the intersection of a Ray with the Object(s) that is closest to the ray head
+     *
+     * @param ray The Ray to intersect
+     * @return the closest intersection point, null if there are no intersections
+     */
+    default GeoPoint findClosestIntersection(Ray ray) {
+        return findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the intersection of a Ray with the Object(s) that is closest to the ray
+     * head, passing the maximum distance. Objects that can do better than sorting
+     * out all their intersections should override this.
+     *
+     * @param ray         The Ray to intersect
+     * @param maxDistance Maximum distance for intersection
+     * @return the closest intersection point, null if there are no intersections
+     */
+    default GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findIntersections(ray, maxDistance);
+        if (intersections == null)
+            return null;
+        GeoPoint closestPoint = null;
+        for (GeoPoint geoPoint : intersections) {
+            if (Double.isNaN(geoPoint.t))
+                geoPoint.t = ray.getPoint().distance(geoPoint.point);
+            if (closestPoint == null || geoPoint.t < closestPoint.t)
+                closestPoint = geoPoint;
+        }
+        return closestPoint;
+    }
+
+    /**
+     * Find the part of light that passes along a (shadow) Ray through the Object(s),
+     * which is the product of the transparency coefficients of all the intersected
+     * geometries. The search stops as soon as the product drops below the threshold.
+     *
+     * @param ray         The Ray to intersect, starting at the lighted point
+     * @param maxDistance distance of the light source
+     * @param minK        threshold below which the light is considered blocked
+     * @return the transparency factor, 0 if it is below the threshold
+     */
+    default double findTransparency(Ray ray, double maxDistance, double minK) {
+        List<GeoPoint> intersections = findIntersections(ray, maxDistance);
+        if (intersections == null)
+            return 1d;
+        double ktr = 1d;
+        for (GeoPoint geoPoint : intersections) {
+            ktr *= geoPoint.geometry.getMaterial().getKT();
+            if (ktr < minK)
+                return 0d;
+        }
+        return ktr;
+    }
+
+    /**
+     * Get the axis aligned box that contains the Object(s)
+     *
+     * @return the bounding box, null if the Object(s) are unbounded
+     */
+    default BoundingBox getBoundingBox() {
+        return null;
+    }
+
     /**
      * This class represents a point in an Intersectable Object
      */
     class GeoPoint {
         public Geometry geometry;
         public Point3D point;
+        /**
+         * Distance of the point from the head of the intersecting ray, NaN if unknown
+         */
+        public double t;
+        /**
+         * Normal to the geometry at the point, if the intersection found it (e.g. the
+         * face normal of a mesh), null otherwise
+         */
+        public Vector normal;
 
         /**
          * Instantiates a new GeoPoint with a Geometry and a Point
@@ -45,8 +120,21 @@ public interface Intersectables {
          * @param point    the point in the geometry
          */
         public GeoPoint(Geometry geometry, Point3D point) {
+            this(geometry, point, Double.NaN);
+        }
+
+        /**
+         * Instantiates a new GeoPoint with a Geometry, a Point and its distance
+         * from the intersecting ray head
+         *
+         * @param geometry the geometry of the point
+         * @param point    the point in the geometry
+         * @param t        the distance along the ray
+         */
+        public GeoPoint(Geometry geometry, Point3D point, double t) {
             this.geometry = geometry;
             this.point = point;
+            this.t = t;
         }
 
         @Override
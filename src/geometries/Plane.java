@@ -94,13 +94,22 @@ public class Plane extends Geometry {
      * @return List of the intersections - 3D points
      */
     public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
+        GeoPoint intersection = findClosestIntersection(ray, maxDistance);
+        return intersection == null ? null : List.of(intersection);
+    }
+
+    /**
+     * Finds the intersection of a Ray with the current Object - a plane has one at most
+     *
+     * @param ray The ray to intersect
+     * @return the intersection, null if there is none
+     */
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
 
-        Point3D p0 = ray.getPoint();
         Vector v = ray.getVector();
-        Vector q0p0;
-        try {
-            q0p0 = _point.subtract(p0);
-        } catch (IllegalArgumentException e) {
+        MutableVector q0p0 = new MutableVector(_point).subtract(ray.getPoint());
+        if (q0p0.isZero()) {
             // Ray starts from inside plane, therefore there are no intersections
             return null;
         }
@@ -112,12 +121,12 @@ public class Plane extends Geometry {
             return null;
         }
 
-        double tNumerator = _normal.dotProduct(q0p0);
+        double tNumerator = q0p0.dotProduct(_normal);
 
         double t = alignZero(tNumerator / tDenominator);
 
         if (t <= 0 || (alignZero(t - maxDistance) > 0)) return null;
-        return List.of(new GeoPoint(this, ray.getPoint(t)));
+        return new GeoPoint(this, ray.getPoint(t), t);
     }
 
     @Override
@@ -94,6 +94,13 @@ public class Polygon extends Geometry {
         }
     }
 
+    /**
+     * @return the vertices of the polygon (unmodifiable)
+     */
+    public List<Point3D> getVertices() {
+        return _vertices;
+    }
+
     /**
      * Finds the intersections of a Ray with the current Object
      *
@@ -102,32 +109,50 @@ public class Polygon extends Geometry {
      */
     @Override
     public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
-        List<GeoPoint> planeIntersections = _plane.findIntersections(ray, maxDistance);
-        if (planeIntersections == null)
+        GeoPoint intersection = findClosestIntersection(ray, maxDistance);
+        return intersection == null ? null : List.of(intersection);
+    }
+
+    /**
+     * Finds the intersection of a Ray with the current Object - a polygon has one at most
+     *
+     * @param ray The ray to intersect
+     * @return the intersection, null if there is none
+     */
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        GeoPoint planeIntersection = _plane.findClosestIntersection(ray, maxDistance);
+        if (planeIntersection == null)
             return null;
 
         Point3D p0 = ray.getPoint();
         Vector v = ray.getVector();
 
-        Vector v1 = _vertices.get(1).subtract(p0);
-        Vector v2 = _vertices.get(0).subtract(p0);
-        double sign = v.dotProduct(v1.crossProduct(v2));
+        MutableVector v1 = new MutableVector(_vertices.get(1)).subtract(p0);
+        MutableVector v2 = new MutableVector(_vertices.get(0)).subtract(p0);
+        MutableVector n = new MutableVector(v1).crossProduct(v2);
+        double sign = n.dotProduct(v);
         if (isZero(sign))
             return null;
 
         boolean positive = sign > 0;
 
         for (int i = _vertices.size() - 1; i > 0; --i) {
-            v1 = v2;
-            v2 = _vertices.get(i).subtract(p0);
-            sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+            v1.set(v2);
+            v2.set(_vertices.get(i)).subtract(p0);
+            sign = alignZero(n.set(v1).crossProduct(v2).dotProduct(v));
             if (isZero(sign)) return null;
             if (positive != (sign > 0)) return null;
         }
 
-        planeIntersections.get(0).geometry = this;
+        planeIntersection.geometry = this;
 
-        return planeIntersections;
+        return planeIntersection;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(_vertices.toArray(new Point3D[0]));
     }
 
     @Override
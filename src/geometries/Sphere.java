@@ -2,7 +2,6 @@ package geometries;
 
 import primitives.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -47,6 +46,12 @@ public class Sphere extends RadialGeometry {
 
     /****** FUNCTIONS *******/
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(_center.getX() - _radius, _center.getY() - _radius, _center.getZ() - _radius,
+                _center.getX() + _radius, _center.getY() + _radius, _center.getZ() + _radius);
+    }
+
     /**
      * @param point
      * @return normal
@@ -62,15 +67,11 @@ public class Sphere extends RadialGeometry {
      * @return List of the intersections - 3D points
      */
     public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
-        Point3D p0 = ray.getPoint();
         Vector v = ray.getVector();
-        Vector u;
-        try {
-            u = _center.subtract(p0);   // p0 == _center
-        } catch (IllegalArgumentException e) {
-            return List.of(new GeoPoint(this, ray.getPoint(_radius)));
-        }
-        double tm = alignZero(v.dotProduct(u));
+        MutableVector u = new MutableVector(_center).subtract(ray.getPoint());
+        if (u.isZero()) // p0 == _center
+            return List.of(new GeoPoint(this, ray.getPoint(_radius), _radius));
+        double tm = alignZero(u.dotProduct(v));
         double dSquared = (tm == 0) ? u.lengthSquared() : u.lengthSquared() - tm * tm;
         double thSquared = alignZero(_radius * _radius - dSquared);
 
@@ -81,36 +82,50 @@ public class Sphere extends RadialGeometry {
 
         double t1 = alignZero(tm - th);
         double t2 = alignZero(tm + th);
-        List<GeoPoint> intersections = new ArrayList<GeoPoint>();
-        double t1dist = alignZero(maxDistance - t1);
-        double t2dist = alignZero(maxDistance - t2);
-
-        if (t1 <= 0 && t2 <= 0) {
-            return null;
-        }
-
-        if (t1 > 0 && t2 > 0) {
-            if (t1dist > 0 && t2dist > 0) {
-                return List.of(
-                        new GeoPoint(this, (ray.getPoint(t1))),
-                        new GeoPoint(this, (ray.getPoint(t2)))); //P1 , P2
-            } else if (t1dist > 0) {
-                return List.of(
-                        new GeoPoint(this, (ray.getPoint(t1))));
-            } else if (t2dist > 0) {
-                return List.of(
-                        new GeoPoint(this, (ray.getPoint(t2))));
-            }
-        }
-
-        if ((t1 > 0) && (t1dist > 0))
-            return List.of(new GeoPoint(this, (ray.getPoint(t1))));
-        else if ((t2 > 0) && (t2dist > 0))
-            return List.of(new GeoPoint(this, (ray.getPoint(t2))));
+        boolean t1Valid = t1 > 0 && alignZero(maxDistance - t1) > 0;
+        boolean t2Valid = t2 > 0 && alignZero(maxDistance - t2) > 0;
+
+        if (t1Valid && t2Valid)
+            return List.of(
+                    new GeoPoint(this, ray.getPoint(t1), t1),
+                    new GeoPoint(this, ray.getPoint(t2), t2)); //P1 , P2
+        if (t1Valid)
+            return List.of(new GeoPoint(this, ray.getPoint(t1), t1));
+        if (t2Valid)
+            return List.of(new GeoPoint(this, ray.getPoint(t2), t2));
         return null;
     }
 
+    /**
+     * Finds the closest intersection of a Ray with the current Object
+     *
+     * @param ray The ray to intersect
+     * @return the closest intersection, null if there is none
+     */
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        Vector v = ray.getVector();
+        MutableVector u = new MutableVector(_center).subtract(ray.getPoint());
+        if (u.isZero()) // p0 == _center
+            return new GeoPoint(this, ray.getPoint(_radius), _radius);
+        double tm = alignZero(u.dotProduct(v));
+        double dSquared = (tm == 0) ? u.lengthSquared() : u.lengthSquared() - tm * tm;
+        double thSquared = alignZero(_radius * _radius - dSquared);
+
+        if (thSquared <= 0) return null;
+
+        double th = alignZero(Math.sqrt(thSquared));
+        if (th == 0) return null;
 
+        // t1 < t2 - the first one in range is the closest
+        double t1 = alignZero(tm - th);
+        if (t1 > 0 && alignZero(maxDistance - t1) > 0)
+            return new GeoPoint(this, ray.getPoint(t1), t1);
+        double t2 = alignZero(tm + th);
+        if (t2 > 0 && alignZero(maxDistance - t2) > 0)
+            return new GeoPoint(this, ray.getPoint(t2), t2);
+        return null;
+    }
 
     @Override
     public String toString() {
@@ -1,19 +1,27 @@
 package geometries;
 
-import primitives.Color;
-import primitives.Material;
-import primitives.Point3D;
-import primitives.Ray;
+import primitives.*;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
- * Triangle class. Is a polygon with 3 points only
+ * Triangle class. Is a polygon with 3 points only. The intersections are found
+ * by the Möller–Trumbore algorithm over the edges, which are calculated once.
  *
  * @author David Zimberknopf and Daniel Grunberger
  */
 public class Triangle extends Polygon {
 
+    /**
+     * The first vertex and the edges from it to the second and the third vertices
+     */
+    private final double _ax, _ay, _az;
+    private final double _e1x, _e1y, _e1z;
+    private final double _e2x, _e2y, _e2z;
+
     /****** CONSTRUCTORS *******/
 
     /**
@@ -26,6 +34,15 @@ public class Triangle extends Polygon {
      */
     public Triangle(Color color, Material material, Point3D firstPoint, Point3D secondPoint, Point3D thirdPoint) {
         super(color, material, firstPoint, secondPoint, thirdPoint);
+        _ax = firstPoint.getX();
+        _ay = firstPoint.getY();
+        _az = firstPoint.getZ();
+        _e1x = secondPoint.getX() - _ax;
+        _e1y = secondPoint.getY() - _ay;
+        _e1z = secondPoint.getZ() - _az;
+        _e2x = thirdPoint.getX() - _ax;
+        _e2y = thirdPoint.getY() - _ay;
+        _e2z = thirdPoint.getZ() - _az;
     }
 
     /**
@@ -47,8 +64,54 @@ public class Triangle extends Polygon {
      * @param ray The ray to intersect
      * @return List of the intersections - 3D points
      */
+    @Override
     public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
-        return super.findIntersections(ray, maxDistance);
+        GeoPoint intersection = findClosestIntersection(ray, maxDistance);
+        return intersection == null ? null : List.of(intersection);
+    }
+
+    /**
+     * Finds the intersection of a Ray with the current Object by the
+     * Möller–Trumbore algorithm. The edges and the vertices of the triangle are
+     * not intersections, like in a polygon - the barycentric coordinates (times
+     * the determinant, which makes them the edge signs of a polygon) are aligned
+     * to zero, so a hit on an edge up to a floating point error is not an
+     * intersection either. Nothing is allocated unless the ray hits the triangle.
+     *
+     * @param ray The ray to intersect
+     * @return the intersection, null if there is none
+     */
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        Point3D p0 = ray.getPoint();
+        Vector dir = ray.getVector();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        // p = dir x e2
+        double px = dy * _e2z - dz * _e2y, py = dz * _e2x - dx * _e2z, pz = dx * _e2y - dy * _e2x;
+        double det = _e1x * px + _e1y * py + _e1z * pz;
+        if (isZero(det)) // the ray is parallel to the triangle
+            return null;
+        boolean positive = det > 0;
+
+        // the barycentric coordinates times det - the edge signs of a polygon,
+        // aligned to zero the same way
+        double sx = p0.getX() - _ax, sy = p0.getY() - _ay, sz = p0.getZ() - _az;
+        double u = alignZero(sx * px + sy * py + sz * pz);
+        if (u == 0 || positive != (u > 0))
+            return null;
+        // q = s x e1
+        double qx = sy * _e1z - sz * _e1y, qy = sz * _e1x - sx * _e1z, qz = sx * _e1y - sy * _e1x;
+        double w = alignZero(dx * qx + dy * qy + dz * qz);
+        if (w == 0 || positive != (w > 0))
+            return null;
+        double rest = alignZero(det - u - w);
+        if (rest == 0 || positive != (rest > 0))
+            return null;
+
+        double t = alignZero((_e2x * qx + _e2y * qy + _e2z * qz) / det);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return null;
+        return new GeoPoint(this, ray.getPoint(t), t);
     }
 
     @Override
@@ -0,0 +1,276 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Triangle mesh - many triangles that share their vertices, their emission
+ * color and their material. The vertex coordinates are kept in a single array
+ * and the faces are kept as vertex indices, so a triangle costs a few bytes
+ * instead of a whole {@link Triangle} object. The faces are intersected through
+ * an internal bounding volume hierarchy with the Möller–Trumbore algorithm.<br/>
+ * Unlike a single {@link Triangle}, a ray through an edge or a vertex does
+ * intersect the mesh, so there are no cracks between neighbouring faces. The
+ * intersection points carry the normal of their face.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * Vertex coordinates - x, y, z of each vertex
+     */
+    private final double[] _vertices;
+    /**
+     * Faces - three vertex indices of each face
+     */
+    private final int[] _faces;
+    private final FaceHierarchy _hierarchy;
+
+    /****** CONSTRUCTORS *******/
+
+    /**
+     * Constructor of a mesh. The arrays are kept by the mesh (not copied), so
+     * they must not be changed afterwards.
+     *
+     * @param color    the emission color of the mesh
+     * @param material the material of the mesh
+     * @param vertices x, y, z of each vertex
+     * @param faces    three vertex indices of each face
+     * @throws IllegalArgumentException if the array sizes are not multiples of 3
+     *                                  or a face refers a missing vertex
+     */
+    public TriangleMesh(Color color, Material material, double[] vertices, int[] faces) {
+        this(color, material, vertices, faces, null);
+    }
+
+    /**
+     * Constructor of a mesh with the tree of its hierarchy that was built
+     * before, so it is not built again. The arrays are kept by the mesh (not
+     * copied), so they must not be changed afterwards.
+     *
+     * @param color    the emission color of the mesh
+     * @param material the material of the mesh
+     * @param vertices x, y, z of each vertex
+     * @param faces    three vertex indices of each face
+     * @param tree     the tree of the hierarchy of the faces, null to build it
+     * @throws IllegalArgumentException if the array sizes are not multiples of 3,
+     *                                  a face refers a missing vertex or the tree
+     *                                  is of another amount of faces
+     */
+    public TriangleMesh(Color color, Material material, double[] vertices, int[] faces,
+                        BoundingVolumeHierarchy.Tree tree) {
+        super(color, material);
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("Vertex coordinates must come in triples");
+        if (faces.length % 3 != 0)
+            throw new IllegalArgumentException("A face must have three vertices");
+        int vertexCount = vertices.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A face refers a missing vertex");
+        _vertices = vertices;
+        _faces = faces;
+        _hierarchy = tree == null ? new FaceHierarchy(faceBounds(vertices, faces), faces.length / 3)
+                : new FaceHierarchy(tree, faces.length / 3);
+    }
+
+    /**
+     * Constructor of a mesh, passing black as default color
+     *
+     * @param vertices x, y, z of each vertex
+     * @param faces    three vertex indices of each face
+     */
+    public TriangleMesh(double[] vertices, int[] faces) {
+        this(Color.BLACK, Material.DEFAULT, vertices, faces);
+    }
+
+    /****** GETTERS *******/
+
+    /**
+     * @return amount of vertices
+     */
+    public int getVertexCount() {
+        return _vertices.length / 3;
+    }
+
+    /**
+     * @return amount of faces
+     */
+    public int getFaceCount() {
+        return _faces.length / 3;
+    }
+
+    /**
+     * @return x, y, z of each vertex - the array of the mesh, which must not be
+     * changed
+     */
+    public double[] getVertices() {
+        return _vertices;
+    }
+
+    /**
+     * @return three vertex indices of each face - the array of the mesh, which
+     * must not be changed
+     */
+    public int[] getFaces() {
+        return _faces;
+    }
+
+    /**
+     * @return the tree of the hierarchy of the faces
+     */
+    public BoundingVolumeHierarchy.Tree getTree() {
+        return _hierarchy.getTree();
+    }
+
+    /****** FUNCTIONS *******/
+
+    @Override
+    public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
+        return _hierarchy.findIntersections(ray, maxDistance);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return _hierarchy.findClosestIntersection(ray, maxDistance);
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        return _hierarchy.findTransparency(ray, maxDistance, minK);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _hierarchy.getBoundingBox();
+    }
+
+    /**
+     * Get the normal at a point of the mesh - the normal of the first face that
+     * contains the point. The faces are searched one by one, so the normal of an
+     * intersection point should be taken from the point itself.
+     *
+     * @param point the point
+     * @return the normal, null if no face contains the point
+     */
+    @Override
+    public Vector getNormal(Point3D point) {
+        for (int face = 0; face < getFaceCount(); ++face) {
+            int a = 3 * _faces[3 * face], b = 3 * _faces[3 * face + 1], c = 3 * _faces[3 * face + 2];
+            MutableVector n = new MutableVector(_vertices[b] - _vertices[a], _vertices[b + 1] - _vertices[a + 1],
+                    _vertices[b + 2] - _vertices[a + 2]).crossProduct(new MutableVector(_vertices[c] - _vertices[a],
+                    _vertices[c + 1] - _vertices[a + 1], _vertices[c + 2] - _vertices[a + 2]));
+            if (n.isZero())
+                continue;
+            n.normalize();
+            MutableVector ap = new MutableVector(point).subtract(new Point3D(_vertices[a], _vertices[a + 1],
+                    _vertices[a + 2]));
+            if (!isZero(ap.dotProduct(n)))
+                continue;
+            // the point is in the face plane - check it is inside the face by its
+            // barycentric coordinates
+            Ray ray = new Ray(point.add(n.toVector()), n.toVector().scale(-1));
+            if (intersect(face, ray, Double.POSITIVE_INFINITY) != null)
+                return n.toVector();
+        }
+        return null;
+    }
+
+    /**
+     * Intersect a ray with a face by the Möller–Trumbore algorithm
+     *
+     * @param face        the face index
+     * @param ray         the ray
+     * @param maxDistance maximum distance for intersection
+     * @return the intersection point with the face normal, null if there is none
+     */
+    private GeoPoint intersect(int face, Ray ray, double maxDistance) {
+        double[] v = _vertices;
+        int a = 3 * _faces[3 * face], b = 3 * _faces[3 * face + 1], c = 3 * _faces[3 * face + 2];
+        double e1x = v[b] - v[a], e1y = v[b + 1] - v[a + 1], e1z = v[b + 2] - v[a + 2];
+        double e2x = v[c] - v[a], e2y = v[c + 1] - v[a + 1], e2z = v[c + 2] - v[a + 2];
+
+        Point3D p0 = ray.getPoint();
+        Vector dir = ray.getVector();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        // p = dir x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) // the ray is parallel to the face (or the face is degenerate)
+            return null;
+        double inverse = 1 / det;
+
+        double sx = p0.getX() - v[a], sy = p0.getY() - v[a + 1], sz = p0.getZ() - v[a + 2];
+        double u = (sx * px + sy * py + sz * pz) * inverse;
+        if (u < 0 || u > 1)
+            return null;
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double w = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (w < 0 || u + w > 1)
+            return null;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return null;
+        GeoPoint geoPoint = new GeoPoint(this, ray.getPoint(t), t);
+        geoPoint.normal = new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+        return geoPoint;
+    }
+
+    /**
+     * Calculate the bounds of the faces for the hierarchy
+     *
+     * @param vertices x, y, z of each vertex
+     * @param faces    three vertex indices of each face
+     * @return six values per face: min x,y,z and max x,y,z
+     */
+    private static double[] faceBounds(double[] vertices, int[] faces) {
+        double[] bounds = new double[2 * faces.length];
+        for (int face = 0; face < faces.length / 3; ++face)
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[3 * faces[3 * face] + axis];
+                double b = vertices[3 * faces[3 * face + 1] + axis];
+                double c = vertices[3 * faces[3 * face + 2] + axis];
+                bounds[6 * face + axis] = Math.min(a, Math.min(b, c));
+                bounds[6 * face + axis + 3] = Math.max(a, Math.max(b, c));
+            }
+        return bounds;
+    }
+
+    /**
+     * Bounding volume hierarchy over the faces of the mesh
+     */
+    private class FaceHierarchy extends BoundingVolumeHierarchy {
+        FaceHierarchy(double[] bounds, int size) {
+            super(bounds, size);
+        }
+
+        FaceHierarchy(Tree tree, int size) {
+            super(tree, size);
+        }
+
+        @Override
+        protected List<GeoPoint> findIntersections(int primitive, Ray ray, double maxDistance) {
+            GeoPoint geoPoint = intersect(primitive, ray, maxDistance);
+            return geoPoint == null ? null : List.of(geoPoint);
+        }
+
+        @Override
+        protected GeoPoint findClosestIntersection(int primitive, Ray ray, double maxDistance) {
+            return intersect(primitive, ray, maxDistance);
+        }
+
+        @Override
+        protected double findTransparency(int primitive, Ray ray, double maxDistance, double minK) {
+            if (intersect(primitive, ray, maxDistance) == null)
+                return 1d;
+            double kt = _material.getKT();
+            return kt < minK ? 0d : kt;
+        }
+    }
+}
@@ -0,0 +1,642 @@
+package loaders;
+
+import elements.*;
+import geometries.*;
+import geometries.BoundingVolumeHierarchy.Tree;
+import primitives.*;
+import scene.Scene;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled scene - a binary file of a scene with the built hierarchies of its
+ * geometries and meshes, so loading it again needs neither parsing nor
+ * building. The file is read through memory mappings, and the big arrays (the
+ * meshes and the hierarchy trees) are copied from the mapping in bulk, so the
+ * load time is mostly the time of reading the pages of the file.<br/>
+ * File layout (little endian): magic, version, scene name, background, screen
+ * distance, ambient light, camera, lights, and the geometries of the scene as a
+ * tree of records - a Geometries record holds its children and the tree of its
+ * hierarchy. A material is written in full where it is first used and by its
+ * index afterwards, so shared materials stay shared. Arrays start at offsets
+ * that are aligned to 8 bytes.<br/>
+ * The geometries that can be compiled are Geometries, Sphere, Plane, Triangle,
+ * Polygon, Tube and TriangleMesh.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public final class CompiledScene {
+    private static final int MAGIC = 0x43535452; // "RTSC" in little endian
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int WINDOW_SIZE = 1 << 30;
+    // geometry types
+    private static final byte GEOMETRIES = 0;
+    private static final byte SPHERE = 1;
+    private static final byte PLANE = 2;
+    private static final byte TRIANGLE = 3;
+    private static final byte POLYGON = 4;
+    private static final byte TUBE = 5;
+    private static final byte MESH = 6;
+    // light types
+    private static final byte DIRECTIONAL_LIGHT = 0;
+    private static final byte POINT_LIGHT = 1;
+    private static final byte SPOT_LIGHT = 2;
+
+    private CompiledScene() {
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Write a compiled scene. The hierarchies of the geometries are built if
+     * they were not built yet. It is written to a temporary file which then
+     * replaces the file, so a crash while writing leaves the previous file. The
+     * temporary file is deleted if the scene can't be written.
+     *
+     * @param scene the scene
+     * @param file  the file
+     * @throws IOException              on a write error
+     * @throws IllegalArgumentException if a geometry or a light can't be
+     *                                  compiled
+     */
+    public static void write(Scene scene, Path file) throws IOException {
+        Path temp = Paths.get(file + ".tmp");
+        try (Output out = new Output(FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putString(scene.getName());
+            out.putByte(scene.getBackground() == null ? 0 : 1);
+            if (scene.getBackground() != null)
+                out.putColor(scene.getBackground());
+            out.putDouble(scene.getDistance());
+            out.putByte(scene.getAmbientLight() == null ? 0 : 1);
+            if (scene.getAmbientLight() != null)
+                out.putColor(scene.getAmbientLight().getIntensity());
+            Camera camera = scene.getCamera();
+            out.putByte(camera == null ? 0 : 1);
+            if (camera != null) {
+                out.putPoint(camera.getP0());
+                out.putVector(camera.getVectorTowards());
+                out.putVector(camera.getVectorUp());
+            }
+            out.putInt(scene.getLights().size());
+            for (LightSource light : scene.getLights())
+                writeLight(out, light);
+            writeGeometry(out, scene.getGeometries(), new IdentityHashMap<>());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a compiled scene
+     *
+     * @param file the file
+     * @return the scene
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the file is not a compiled scene or
+     *                                  it is malformed
+     */
+    public static Scene read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Input in = new Input(channel);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION)
+                throw new IllegalArgumentException("Not a compiled scene file");
+            Scene scene = new Scene(in.getString());
+            if (in.getByte() != 0)
+                scene.setBackground(in.getColor());
+            scene.setDistance(in.getDouble());
+            if (in.getByte() != 0)
+                scene.setAmbientLight(new AmbientLight(in.getColor(), 1));
+            if (in.getByte() != 0)
+                scene.setCamera(new Camera(in.getPoint(), in.getVector(), in.getVector()));
+            for (int lights = in.getInt(); lights > 0; --lights)
+                scene.addLights(readLight(in));
+
+            if (in.getByte() != GEOMETRIES)
+                throw new IllegalArgumentException("The scene geometries are missing");
+            List<Material> materials = new ArrayList<>();
+            Intersectables[] geometries = new Intersectables[in.getCount(1)];
+            for (int i = 0; i < geometries.length; ++i)
+                geometries[i] = readGeometry(in, materials);
+            scene.addGeometries(geometries);
+            Tree tree = readTree(in);
+            if (tree != null)
+                scene.getGeometries().setTree(tree);
+            return scene;
+        }
+    }
+
+    /**
+     * Write a light
+     *
+     * @param out   the output
+     * @param light the light
+     * @throws IOException              on a write error
+     * @throws IllegalArgumentException if the light can't be compiled
+     */
+    private static void writeLight(Output out, LightSource light) throws IOException {
+        if (light.getClass() == DirectionalLight.class) {
+            DirectionalLight directional = (DirectionalLight) light;
+            out.putByte(DIRECTIONAL_LIGHT);
+            out.putColor(directional.getIntensity());
+            out.putVector(directional.getDirection());
+            return;
+        }
+        if (light.getClass() != PointLight.class && light.getClass() != SpotLight.class)
+            throw new IllegalArgumentException("A light of " + light.getClass().getName() + " can't be compiled");
+        PointLight point = (PointLight) light;
+        out.putByte(light instanceof SpotLight ? SPOT_LIGHT : POINT_LIGHT);
+        out.putColor(point.getIntensity());
+        out.putPoint(point.getPosition());
+        out.putDouble(point.getKC());
+        out.putDouble(point.getKL());
+        out.putDouble(point.getKQ());
+        if (light instanceof SpotLight)
+            out.putVector(((SpotLight) light).getDirection());
+    }
+
+    /**
+     * Read a light
+     *
+     * @param in the input
+     * @return the light
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the light is malformed
+     */
+    private static LightSource readLight(Input in) throws IOException {
+        byte type = in.getByte();
+        Color color = in.getColor();
+        if (type == DIRECTIONAL_LIGHT)
+            return new DirectionalLight(color, in.getVector());
+        if (type != POINT_LIGHT && type != SPOT_LIGHT)
+            throw new IllegalArgumentException("Unknown light type " + type);
+        Point3D position = in.getPoint();
+        double kC = in.getDouble(), kL = in.getDouble(), kQ = in.getDouble();
+        return type == POINT_LIGHT ? new PointLight(color, position, kC, kL, kQ)
+                : new SpotLight(color, in.getVector(), position, kC, kL, kQ);
+    }
+
+    /**
+     * Write a geometry
+     *
+     * @param out       the output
+     * @param geometry  the geometry
+     * @param materials indices of the materials that were written
+     * @throws IOException              on a write error
+     * @throws IllegalArgumentException if the geometry can't be compiled
+     */
+    private static void writeGeometry(Output out, Intersectables geometry, Map<Material, Integer> materials)
+            throws IOException {
+        if (geometry.getClass() == Geometries.class) {
+            Geometries geometries = (Geometries) geometry;
+            out.putByte(GEOMETRIES);
+            out.putInt(geometries.getGeometries().size());
+            for (Intersectables child : geometries.getGeometries())
+                writeGeometry(out, child, materials);
+            writeTree(out, geometries.getTree());
+            return;
+        }
+
+        Class<?> type = geometry.getClass();
+        if (type != Sphere.class && type != Plane.class && type != Triangle.class && type != Polygon.class
+                && type != Tube.class && type != TriangleMesh.class)
+            throw new IllegalArgumentException("A geometry of " + type.getName() + " can't be compiled");
+        out.putByte(type == Sphere.class ? SPHERE : type == Plane.class ? PLANE : type == Triangle.class ? TRIANGLE
+                : type == Polygon.class ? POLYGON : type == Tube.class ? TUBE : MESH);
+        out.putColor(((Geometry) geometry).getEmission());
+        writeMaterial(out, ((Geometry) geometry).getMaterial(), materials);
+
+        if (type == Sphere.class) {
+            out.putPoint(((Sphere) geometry).getCenter());
+            out.putDouble(((Sphere) geometry).getRadius());
+        } else if (type == Plane.class) {
+            out.putPoint(((Plane) geometry).getPoint());
+            out.putVector(((Plane) geometry).getNormal(null));
+        } else if (type == Triangle.class || type == Polygon.class) {
+            List<Point3D> vertices = ((Polygon) geometry).getVertices();
+            if (type == Polygon.class)
+                out.putInt(vertices.size());
+            for (Point3D vertex : vertices)
+                out.putPoint(vertex);
+        } else if (type == Tube.class) {
+            out.putPoint(((Tube) geometry).geAxisRay().getPoint());
+            out.putVector(((Tube) geometry).geAxisRay().getVector());
+            out.putDouble(((Tube) geometry).getRadius());
+        } else {
+            TriangleMesh mesh = (TriangleMesh) geometry;
+            out.putInt(mesh.getVertices().length);
+            out.putInt(mesh.getFaces().length);
+            out.putDoubles(mesh.getVertices());
+            out.putInts(mesh.getFaces());
+            writeTree(out, mesh.getTree());
+        }
+    }
+
+    /**
+     * Read a geometry
+     *
+     * @param in        the input
+     * @param materials the materials that were read
+     * @return the geometry
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the geometry is malformed
+     */
+    private static Intersectables readGeometry(Input in, List<Material> materials) throws IOException {
+        byte type = in.getByte();
+        if (type == GEOMETRIES) {
+            Intersectables[] children = new Intersectables[in.getCount(1)];
+            for (int i = 0; i < children.length; ++i)
+                children[i] = readGeometry(in, materials);
+            Geometries geometries = new Geometries(children);
+            Tree tree = readTree(in);
+            if (tree != null)
+                geometries.setTree(tree);
+            return geometries;
+        }
+
+        Color emission = in.getColor();
+        Material material = readMaterial(in, materials);
+        switch (type) {
+            case SPHERE:
+                return new Sphere(emission, material, in.getPoint(), in.getDouble());
+            case PLANE:
+                return new Plane(emission, material, in.getPoint(), in.getVector());
+            case TRIANGLE:
+                return new Triangle(emission, material, in.getPoint(), in.getPoint(), in.getPoint());
+            case POLYGON:
+                Point3D[] vertices = new Point3D[in.getCount(24)];
+                for (int i = 0; i < vertices.length; ++i)
+                    vertices[i] = in.getPoint();
+                return new Polygon(emission, material, vertices);
+            case TUBE:
+                return new Tube(emission, material, new Ray(in.getPoint(), in.getVector()), in.getDouble());
+            case MESH:
+                double[] coordinates = new double[in.getCount(8)];
+                int[] faces = new int[in.getCount(4)];
+                in.getDoubles(coordinates);
+                in.getInts(faces);
+                return new TriangleMesh(emission, material, coordinates, faces, readTree(in));
+            default:
+                throw new IllegalArgumentException("Unknown geometry type " + type);
+        }
+    }
+
+    /**
+     * Write a material - in full if it was not written yet, and by its index
+     * otherwise
+     *
+     * @param out       the output
+     * @param material  the material
+     * @param materials indices of the materials that were written
+     * @throws IOException on a write error
+     */
+    private static void writeMaterial(Output out, Material material, Map<Material, Integer> materials)
+            throws IOException {
+        Integer index = materials.get(material);
+        if (index != null) {
+            out.putInt(index);
+            return;
+        }
+        materials.put(material, materials.size());
+        out.putInt(-1);
+        out.putDouble(material.getKD());
+        out.putDouble(material.getKS());
+        out.putInt(material.getNShininess());
+        out.putDouble(material.getKT());
+        out.putDouble(material.getkR());
+        out.putDouble(material.getGlossBlur());
+    }
+
+    /**
+     * Read a material that was written by
+     * {@link #writeMaterial(Output, Material, Map)}
+     *
+     * @param in        the input
+     * @param materials the materials that were read
+     * @return the material
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    private static Material readMaterial(Input in, List<Material> materials) throws IOException {
+        int index = in.getInt();
+        if (index >= materials.size() || index < -1)
+            throw new IllegalArgumentException("Material index out of range");
+        if (index >= 0)
+            return materials.get(index);
+        Material material = new Material(in.getDouble(), in.getDouble(), in.getInt(), in.getDouble(),
+                in.getDouble());
+        double glossBlur = in.getDouble();
+        if (glossBlur != 0)
+            material.setGlossBlur(glossBlur);
+        materials.add(material);
+        return material;
+    }
+
+    /**
+     * Write the tree of a hierarchy
+     *
+     * @param out  the output
+     * @param tree the tree, may be null
+     * @throws IOException on a write error
+     */
+    private static void writeTree(Output out, Tree tree) throws IOException {
+        out.putByte(tree == null ? 0 : 1);
+        if (tree == null)
+            return;
+        out.putInt(tree.offsets.length);
+        out.putInt(tree.order.length);
+        out.putDoubles(tree.bounds);
+        out.putInts(tree.offsets);
+        out.putInts(tree.counts);
+        out.putBytes(tree.axes);
+        out.putInts(tree.order);
+    }
+
+    /**
+     * Read the tree of a hierarchy
+     *
+     * @param in the input
+     * @return the tree, null if there is none
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the tree is malformed
+     */
+    private static Tree readTree(Input in) throws IOException {
+        if (in.getByte() == 0)
+            return null;
+        int nodes = in.getCount(6 * 8 + 4 + 4 + 1);
+        int size = in.getCount(4);
+        double[] bounds = new double[6 * nodes];
+        int[] offsets = new int[nodes];
+        int[] counts = new int[nodes];
+        byte[] axes = new byte[nodes];
+        int[] order = new int[size];
+        in.getDoubles(bounds);
+        in.getInts(offsets);
+        in.getInts(counts);
+        in.getBytes(axes);
+        in.getInts(order);
+        return new Tree(bounds, offsets, counts, axes, order);
+    }
+
+    /**
+     * Buffered output to a file channel
+     */
+    private static final class Output implements Closeable {
+        private final FileChannel _channel;
+        private final ByteBuffer _buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long _written = 0; // bytes that were written to the channel
+
+        Output(FileChannel channel) {
+            _channel = channel;
+        }
+
+        /**
+         * Make room in the buffer
+         *
+         * @param bytes the room
+         * @throws IOException on a write error
+         */
+        private void room(int bytes) throws IOException {
+            if (_buffer.remaining() < bytes)
+                flush();
+        }
+
+        private void flush() throws IOException {
+            _buffer.flip();
+            while (_buffer.hasRemaining())
+                _written += _channel.write(_buffer);
+            _buffer.clear();
+        }
+
+        /**
+         * Pad the output to an offset that is aligned to 8 bytes
+         *
+         * @throws IOException on a write error
+         */
+        private void align() throws IOException {
+            room(8);
+            while ((_written + _buffer.position()) % 8 != 0)
+                _buffer.put((byte) 0);
+        }
+
+        void putByte(int value) throws IOException {
+            room(1);
+            _buffer.put((byte) value);
+        }
+
+        void putInt(int value) throws IOException {
+            room(4);
+            _buffer.putInt(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            room(8);
+            _buffer.putDouble(value);
+        }
+
+        void putPoint(Point3D point) throws IOException {
+            putDouble(point.getX());
+            putDouble(point.getY());
+            putDouble(point.getZ());
+        }
+
+        void putVector(Vector vector) throws IOException {
+            putDouble(vector.getX());
+            putDouble(vector.getY());
+            putDouble(vector.getZ());
+        }
+
+        void putColor(Color color) throws IOException {
+            putDouble(color.getRed());
+            putDouble(color.getGreen());
+            putDouble(color.getBlue());
+        }
+
+        void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes);
+        }
+
+        void putBytes(byte[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                room(1);
+                int count = Math.min(values.length - i, _buffer.remaining());
+                _buffer.put(values, i, count);
+                i += count;
+            }
+        }
+
+        void putInts(int[] values) throws IOException {
+            align();
+            for (int i = 0; i < values.length; ) {
+                room(4);
+                int count = Math.min(values.length - i, _buffer.remaining() / 4);
+                _buffer.asIntBuffer().put(values, i, count);
+                _buffer.position(_buffer.position() + 4 * count);
+                i += count;
+            }
+        }
+
+        void putDoubles(double[] values) throws IOException {
+            align();
+            for (int i = 0; i < values.length; ) {
+                room(8);
+                int count = Math.min(values.length - i, _buffer.remaining() / 8);
+                _buffer.asDoubleBuffer().put(values, i, count);
+                _buffer.position(_buffer.position() + 8 * count);
+                i += count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                _channel.close();
+            }
+        }
+    }
+
+    /**
+     * Input from a file channel through a window of memory mapping, which
+     * moves along the file as it is read
+     */
+    private static final class Input {
+        private final FileChannel _channel;
+        private final long _size;
+        private MappedByteBuffer _window;
+        private long _windowStart = 0;
+        private long _position = 0;
+
+        Input(FileChannel channel) throws IOException {
+            _channel = channel;
+            _size = channel.size();
+            map(0);
+        }
+
+        private void map(long start) throws IOException {
+            _windowStart = start;
+            _window = _channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, _size - start));
+            _window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Move the position over a value
+         *
+         * @param bytes the size of the value
+         * @return the offset of the value in the window
+         * @throws IOException              on a mapping error
+         * @throws IllegalArgumentException if the file is truncated
+         */
+        private int take(long bytes) throws IOException {
+            if (_position + bytes > _size)
+                throw new IllegalArgumentException("The compiled scene is truncated");
+            if (_position + bytes > _windowStart + _window.capacity())
+                map(_position);
+            int offset = (int) (_position - _windowStart);
+            _position += bytes;
+            return offset;
+        }
+
+        private void align() {
+            _position = (_position + 7) / 8 * 8;
+        }
+
+        byte getByte() throws IOException {
+            return _window.get(take(1));
+        }
+
+        int getInt() throws IOException {
+            return _window.getInt(take(4));
+        }
+
+        /**
+         * Read an amount of items, checking that the items may be in the rest of
+         * the file before any array of them is allocated
+         *
+         * @param itemSize the minimal size of an item
+         * @return the amount
+         * @throws IOException              on a read error
+         * @throws IllegalArgumentException if the amount is negative or too big
+         */
+        int getCount(int itemSize) throws IOException {
+            int count = getInt();
+            if (count < 0 || (long) count * itemSize > _size - _position)
+                throw new IllegalArgumentException("Amount out of range");
+            return count;
+        }
+
+        double getDouble() throws IOException {
+            return _window.getDouble(take(8));
+        }
+
+        Point3D getPoint() throws IOException {
+            return new Point3D(getDouble(), getDouble(), getDouble());
+        }
+
+        Vector getVector() throws IOException {
+            return new Vector(getDouble(), getDouble(), getDouble());
+        }
+
+        Color getColor() throws IOException {
+            return new Color(getDouble(), getDouble(), getDouble());
+        }
+
+        String getString() throws IOException {
+            byte[] bytes = new byte[getCount(1)];
+            getBytes(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void getBytes(byte[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                int count = Math.min(values.length - i, WINDOW_SIZE / 2);
+                _window.position(take(count));
+                _window.get(values, i, count);
+                i += count;
+            }
+        }
+
+        void getInts(int[] values) throws IOException {
+            align();
+            for (int i = 0; i < values.length; ) {
+                int count = Math.min(values.length - i, WINDOW_SIZE / 8);
+                _window.position(take(4L * count));
+                _window.asIntBuffer().get(values, i, count);
+                i += count;
+            }
+        }
+
+        void getDoubles(double[] values) throws IOException {
+            align();
+            for (int i = 0; i < values.length; ) {
+                int count = Math.min(values.length - i, WINDOW_SIZE / 16);
+                _window.position(take(8L * count));
+                _window.asDoubleBuffer().get(values, i, count);
+                i += count;
+            }
+        }
+    }
+}
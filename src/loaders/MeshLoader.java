@@ -0,0 +1,211 @@
+package loaders;
+
+import geometries.TriangleMesh;
+import primitives.Color;
+import primitives.Material;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Loader of a mesh file to a {@link TriangleMesh}. The file is read through
+ * memory mappings, and big files are split to chunks of whole lines (or whole
+ * records) that are parsed in parallel. The vertex coordinates are parsed
+ * straight to the coordinate array of the mesh, without a point object per
+ * vertex.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public abstract class MeshLoader {
+    static final int MIN_CHUNK_SIZE = 1 << 20; // smaller files are parsed by a single thread
+    static final int MAX_CHUNK_SIZE = 1 << 30; // a chunk must fit a single mapping
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    protected final Path _file;
+    private Color _emission = Color.BLACK;
+    private Material _material = Material.DEFAULT;
+
+    // ***************** Constructors ********************** //
+
+    /**
+     * Constructor
+     *
+     * @param file the mesh file
+     */
+    protected MeshLoader(Path file) {
+        _file = file;
+    }
+
+    /**
+     * Create the loader of a file by its extension - .obj or .ply
+     *
+     * @param file the mesh file
+     * @return the loader
+     * @throws IllegalArgumentException if the extension is not known
+     */
+    public static MeshLoader of(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".obj"))
+            return new ObjLoader(file);
+        if (name.endsWith(".ply"))
+            return new PlyLoader(file);
+        throw new IllegalArgumentException("Unknown mesh file type: " + file);
+    }
+
+    // ***************** Setters ********************** //
+
+    /**
+     * Set the emission color of the mesh
+     *
+     * @param emission the emission color
+     * @return the loader itself
+     */
+    public MeshLoader setEmission(Color emission) {
+        _emission = emission;
+        return this;
+    }
+
+    /**
+     * Set the material of the mesh
+     *
+     * @param material the material
+     * @return the loader itself
+     */
+    public MeshLoader setMaterial(Material material) {
+        _material = material;
+        return this;
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Load the mesh
+     *
+     * @return the mesh
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public abstract TriangleMesh load() throws IOException;
+
+    /**
+     * Load the mesh and add it to a scene
+     *
+     * @param scene the scene
+     * @return the mesh
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public TriangleMesh load(Scene scene) throws IOException {
+        TriangleMesh mesh = load();
+        scene.addGeometries(mesh);
+        return mesh;
+    }
+
+    /**
+     * Create the mesh of the loaded arrays with the emission and the material
+     *
+     * @param vertices x, y, z of each vertex
+     * @param faces    three vertex indices of each face
+     * @return the mesh
+     */
+    protected TriangleMesh createMesh(double[] vertices, int[] faces) {
+        return new TriangleMesh(_emission, _material, vertices, faces);
+    }
+
+    /**
+     * Split a region of a file to chunks of whole lines for parallel parsing -
+     * a few chunks for each processor, of at least {@link #MIN_CHUNK_SIZE} bytes
+     * and of at most {@link #MAX_CHUNK_SIZE} bytes (but for a longer line)
+     *
+     * @param channel the file channel
+     * @param start   the first byte of the region
+     * @param end     the end of the region
+     * @return the boundaries of the chunks - chunk i is from boundary i to
+     * boundary i+1
+     * @throws IOException on a read error
+     */
+    static long[] splitLines(FileChannel channel, long start, long end) throws IOException {
+        long size = end - start;
+        int chunks = (int) Math.max((size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE,
+                Math.min(size / MIN_CHUNK_SIZE, 4 * PROCESSORS));
+        chunks = Math.max(chunks, 1);
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = start;
+        bounds[chunks] = end;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        for (int i = 1; i < chunks; ++i) {
+            long position = Math.max(start + size * i / chunks, bounds[i - 1]);
+            // move the boundary after the end of the line
+            search:
+            while (position < end) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0)
+                    break;
+                for (int j = 0; j < read; ++j)
+                    if (buffer.get(j) == '\n') {
+                        position += j + 1;
+                        break search;
+                    }
+                position += read;
+            }
+            bounds[i] = Math.min(position, end);
+        }
+        return bounds;
+    }
+
+    /**
+     * Map a chunk of a file to the memory
+     *
+     * @param channel the file channel
+     * @param start   the first byte of the chunk
+     * @param end     the end of the chunk
+     * @return the mapped chunk
+     * @throws IOException on a mapping error
+     */
+    static ByteBuffer map(FileChannel channel, long start, long end) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    /**
+     * Growable array of ints
+     */
+    static final class Ints {
+        int[] array = new int[1 << 10];
+        int size = 0;
+
+        /**
+         * Add a value to the end of the array
+         *
+         * @param value the value
+         */
+        void add(int value) {
+            if (size == array.length)
+                array = Arrays.copyOf(array, 2 * size);
+            array[size++] = value;
+        }
+    }
+
+    /**
+     * Growable array of doubles
+     */
+    static final class Doubles {
+        double[] array = new double[3 << 10];
+        int size = 0;
+
+        /**
+         * Add a value to the end of the array
+         *
+         * @param value the value
+         */
+        void add(double value) {
+            if (size == array.length)
+                array = Arrays.copyOf(array, 2 * size);
+            array[size++] = value;
+        }
+    }
+}
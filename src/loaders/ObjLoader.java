@@ -0,0 +1,146 @@
+package loaders;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Loader of a Wavefront OBJ file. Only the vertices (v) and the faces (f) are
+ * loaded - the other lines are ignored. A face may have texture and normal
+ * indices (v/vt/vn), which are ignored, and negative indices, which are
+ * relative to the end of the vertices so far. A polygon is split to triangles
+ * as a fan around its first vertex.<br/>
+ * The chunks of the file are parsed in parallel; a negative index is kept
+ * relative to the first vertex of its chunk until the amount of vertices of
+ * the former chunks is known.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class ObjLoader extends MeshLoader {
+
+    /**
+     * Constructor
+     *
+     * @param file the OBJ file
+     */
+    public ObjLoader(Path file) {
+        super(file);
+    }
+
+    @Override
+    public TriangleMesh load() throws IOException {
+        Chunk[] chunks;
+        try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.READ)) {
+            long[] bounds = splitLines(channel, 0, channel.size());
+            ByteBuffer[] buffers = new ByteBuffer[bounds.length - 1];
+            for (int i = 0; i < buffers.length; ++i)
+                buffers[i] = map(channel, bounds[i], bounds[i + 1]);
+            chunks = new Chunk[buffers.length];
+            IntStream.range(0, chunks.length).parallel().forEach(i -> chunks[i] = parse(buffers[i]));
+        }
+
+        // the first vertex and the first face index of each chunk
+        int[] firstVertex = new int[chunks.length + 1];
+        int[] firstIndex = new int[chunks.length + 1];
+        for (int i = 0; i < chunks.length; ++i) {
+            if ((long) firstVertex[i] + chunks[i].vertices.size / 3 > Integer.MAX_VALUE / 3
+                    || (long) firstIndex[i] + chunks[i].faces.size > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("The mesh is too big");
+            firstVertex[i + 1] = firstVertex[i] + chunks[i].vertices.size / 3;
+            firstIndex[i + 1] = firstIndex[i] + chunks[i].faces.size;
+        }
+
+        double[] vertices = new double[3 * firstVertex[chunks.length]];
+        int[] faces = new int[firstIndex[chunks.length]];
+        IntStream.range(0, chunks.length).parallel().forEach(i -> {
+            Chunk chunk = chunks[i];
+            System.arraycopy(chunk.vertices.array, 0, vertices, 3 * firstVertex[i], chunk.vertices.size);
+            for (int j = 0; j < chunk.faces.size; ++j)
+                faces[firstIndex[i] + j] = chunk.faces.array[j] + (chunk.relative.get(j) ? firstVertex[i] : 0);
+        });
+        return createMesh(vertices, faces);
+    }
+
+    /**
+     * Parse the lines of a chunk
+     *
+     * @param buffer the chunk
+     * @return the vertices and the faces of the chunk
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    private static Chunk parse(ByteBuffer buffer) {
+        TextChunk text = new TextChunk(buffer);
+        Chunk chunk = new Chunk();
+        for (; text.hasLine(); text.nextLine()) {
+            if (text.skipKeyword("v")) {
+                chunk.vertices.add(text.nextDouble());
+                chunk.vertices.add(text.nextDouble());
+                chunk.vertices.add(text.nextDouble());
+            } else if (text.skipKeyword("f")) {
+                int vertices = 0;
+                long first = 0, previous = 0;
+                while (text.hasToken()) {
+                    long index = chunk.index(text.nextLong());
+                    if (text.skip('/')) // texture and normal indices
+                        text.skipToken();
+                    if (vertices >= 2) {
+                        chunk.addIndex(first);
+                        chunk.addIndex(previous);
+                        chunk.addIndex(index);
+                    } else if (vertices == 0)
+                        first = index;
+                    previous = index;
+                    ++vertices;
+                }
+                if (vertices < 3)
+                    throw new IllegalArgumentException("A face must have at least three vertices");
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * The vertices and the faces of a chunk
+     */
+    private static class Chunk {
+        final Doubles vertices = new Doubles();
+        final Ints faces = new Ints();
+        final BitSet relative = new BitSet(); // face indices relative to the first vertex of the chunk
+
+        /**
+         * Convert an OBJ index to a zero based index. A negative index is
+         * converted to an index relative to the first vertex of the chunk,
+         * which is marked by the highest bit of the result.
+         *
+         * @param index the OBJ index
+         * @return the converted index
+         * @throws IllegalArgumentException if the index is 0
+         */
+        long index(long index) {
+            if (index > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Vertex index out of range");
+            if (index > 0)
+                return index - 1;
+            if (index == 0)
+                throw new IllegalArgumentException("OBJ vertex indices start at 1");
+            return Long.MIN_VALUE | (vertices.size / 3 + index) & 0xFFFFFFFFL;
+        }
+
+        /**
+         * Add an index that was converted by {@link #index(long)}
+         *
+         * @param index the converted index
+         */
+        void addIndex(long index) {
+            if (index < 0)
+                relative.set(faces.size);
+            faces.add((int) index);
+        }
+    }
+}
@@ -0,0 +1,685 @@
+package loaders;
+
+import geometries.TriangleMesh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Loader of a PLY (polygon file format) file - ascii, binary little endian or
+ * binary big endian. The x, y, z properties of the vertex element and the
+ * vertex_indices (or vertex_index) list of the face element are loaded; the
+ * other properties and elements are skipped. A polygon is split to triangles
+ * as a fan around its first vertex.<br/>
+ * The vertices of a binary file have a fixed size, so blocks of them are read
+ * in parallel right from their offsets. The faces of a binary file are read in
+ * parallel blocks too: if all the faces have the amount of vertices of the
+ * first one, the offsets of the blocks are known right away, otherwise they
+ * are found by a first pass over the list counts. An ascii file is split to chunks of
+ * lines, and the lines of each chunk are counted in parallel first, so every
+ * chunk knows the element of each of its lines.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class PlyLoader extends MeshLoader {
+    private static final int VERTEX_BLOCK = 1 << 16; // vertices read together from a binary file
+    private static final int FACE_BLOCK = 1 << 16; // faces read together from a binary file
+    private static final int HEADER_BLOCK = 1 << 12;
+    private static final int MAX_HEADER_SIZE = 1 << 20;
+
+    /**
+     * Constructor
+     *
+     * @param file the PLY file
+     */
+    public PlyLoader(Path file) {
+        super(file);
+    }
+
+    @Override
+    public TriangleMesh load() throws IOException {
+        try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            return header.format == null ? loadAscii(channel, header) : loadBinary(channel, header);
+        }
+    }
+
+    /**
+     * Load the body of a binary file
+     *
+     * @param channel the file channel
+     * @param header  the header
+     * @return the mesh
+     * @throws IOException on a read error
+     */
+    private TriangleMesh loadBinary(FileChannel channel, Header header) throws IOException {
+        MappedRegion region = new MappedRegion(channel, header.size, header.format);
+        double[] vertices = null;
+        int[] faces = new int[0];
+        long position = header.size;
+        for (Element element : header.elements) {
+            int recordSize = element.recordSize();
+            if (element == header.vertex) {
+                if (recordSize < 0)
+                    throw new IllegalArgumentException("Vertex list properties are not supported");
+                vertices = readVertices(region, position, element);
+                position += element.count * recordSize;
+            } else if (element == header.face) {
+                Faces read = readUniformFaces(region, position, element, header.indices);
+                if (read == null)
+                    read = readFaces(region, position, element, header.indices);
+                faces = read.indices;
+                position = read.end;
+            } else if (recordSize >= 0)
+                position += element.count * recordSize;
+            else // a record size by its lists
+                for (long record = 0; record < element.count; ++record)
+                    for (Property property : element.properties) {
+                        if (property.countType == null) {
+                            position += property.type.size;
+                            continue;
+                        }
+                        long count = (long) region.read(property.countType, position);
+                        position += property.countType.size + count * property.type.size;
+                    }
+        }
+        return createMesh(vertices, faces);
+    }
+
+    /**
+     * Read the vertices of a binary file - blocks of vertices are read in
+     * parallel
+     *
+     * @param region   the body of the file
+     * @param position the offset of the first vertex
+     * @param element  the vertex element
+     * @return x, y, z of each vertex
+     */
+    private static double[] readVertices(MappedRegion region, long position, Element element) {
+        int recordSize = element.recordSize();
+        region.check(position, element.count * recordSize);
+        Property[] xyz = {element.get("x"), element.get("y"), element.get("z")};
+        int[] offsets = new int[3];
+        for (int axis = 0; axis < 3; ++axis)
+            for (Property property : element.properties) {
+                if (property == xyz[axis])
+                    break;
+                offsets[axis] += property.type.size;
+            }
+
+        int count = (int) element.count;
+        double[] vertices = new double[3 * count];
+        IntStream.range(0, (count + VERTEX_BLOCK - 1) / VERTEX_BLOCK).parallel().forEach(block -> {
+            for (int v = block * VERTEX_BLOCK; v < Math.min(count, (block + 1) * VERTEX_BLOCK); ++v) {
+                long record = position + (long) v * recordSize;
+                for (int axis = 0; axis < 3; ++axis)
+                    vertices[3 * v + axis] = region.read(xyz[axis].type, record + offsets[axis]);
+            }
+        });
+        return vertices;
+    }
+
+    /**
+     * Read the faces of a binary file if all of them have the amount of vertices
+     * of the first face and the indices are the only list of a face - then the
+     * faces have a fixed record size, and blocks of them are read in parallel
+     * right from their offsets
+     *
+     * @param region   the body of the file
+     * @param position the offset of the first face
+     * @param element  the face element
+     * @param indices  the vertex indices property
+     * @return the faces, null if they don't have a fixed record size
+     */
+    private static Faces readUniformFaces(MappedRegion region, long position, Element element, Property indices) {
+        long count = element.count;
+        if (count == 0)
+            return new Faces(new int[0], position);
+        int before = 0, after = 0; // sizes of the properties before and after the indices
+        boolean found = false;
+        for (Property property : element.properties)
+            if (property == indices)
+                found = true;
+            else if (property.countType != null)
+                return null;
+            else if (found)
+                after += property.type.size;
+            else
+                before += property.type.size;
+        if (!region.contains(position + before, indices.countType.size))
+            return null;
+        long vertices = (long) region.read(indices.countType, position + before);
+        if (vertices < 3)
+            throw new IllegalArgumentException("A face must have at least three vertices");
+        long first = position + before; // the list of the first face
+        long recordSize = before + indices.countType.size + vertices * indices.type.size + after;
+        if (!region.contains(position, count * recordSize))
+            return null;
+        long size = 3 * (vertices - 2) * count;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The mesh is too big");
+
+        int[] faces = new int[(int) size];
+        AtomicBoolean uniform = new AtomicBoolean(true);
+        IntStream.range(0, (int) ((count + FACE_BLOCK - 1) / FACE_BLOCK)).parallel().forEach(block -> {
+            for (long face = (long) block * FACE_BLOCK; face < Math.min(count, (block + 1L) * FACE_BLOCK); ++face) {
+                long record = first + face * recordSize;
+                if (region.get(indices.countType, record) != vertices) {
+                    uniform.set(false);
+                    return;
+                }
+                putFan(region, indices.type, record + indices.countType.size, vertices, faces,
+                        (int) (3 * (vertices - 2) * face));
+            }
+        });
+        return uniform.get() ? new Faces(faces, position + count * recordSize) : null;
+    }
+
+    /**
+     * Read the faces of a binary file of any record sizes - a first pass over the
+     * list counts finds the offset of each block of faces and of its indices,
+     * and then the blocks are read in parallel
+     *
+     * @param region   the body of the file
+     * @param position the offset of the first face
+     * @param element  the face element
+     * @param indices  the vertex indices property
+     * @return the faces
+     */
+    private static Faces readFaces(MappedRegion region, long position, Element element, Property indices) {
+        long count = element.count;
+        int blocks = (int) ((count + FACE_BLOCK - 1) / FACE_BLOCK);
+        long[] blockPosition = new long[blocks];
+        long[] blockIndex = new long[blocks];
+        long start = position;
+        long size = 0;
+        for (long face = 0; face < count; ++face) {
+            if (face % FACE_BLOCK == 0) {
+                blockPosition[(int) (face / FACE_BLOCK)] = position;
+                blockIndex[(int) (face / FACE_BLOCK)] = size;
+            }
+            for (Property property : element.properties) {
+                if (property.countType == null) {
+                    position += property.type.size;
+                    continue;
+                }
+                long values = (long) region.read(property.countType, position);
+                if (property == indices) {
+                    if (values < 3)
+                        throw new IllegalArgumentException("A face must have at least three vertices");
+                    size += 3 * (values - 2);
+                }
+                position += property.countType.size + values * property.type.size;
+            }
+        }
+        region.check(start, position - start);
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The mesh is too big");
+
+        int[] faces = new int[(int) size];
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            long record = blockPosition[block];
+            int index = (int) blockIndex[block];
+            for (long face = (long) block * FACE_BLOCK; face < Math.min(count, (block + 1L) * FACE_BLOCK); ++face)
+                for (Property property : element.properties) {
+                    if (property.countType == null) {
+                        record += property.type.size;
+                        continue;
+                    }
+                    long values = (long) region.get(property.countType, record);
+                    record += property.countType.size;
+                    if (property == indices) {
+                        putFan(region, property.type, record, values, faces, index);
+                        index += 3 * (values - 2);
+                    }
+                    record += values * property.type.size;
+                }
+        });
+        return new Faces(faces, position);
+    }
+
+    /**
+     * Split a polygon to triangles as a fan around its first vertex
+     *
+     * @param region   the body of the file, which was checked to contain the polygon
+     * @param type     the type of the vertex indices
+     * @param position the offset of the first vertex index
+     * @param vertices amount of vertices of the polygon
+     * @param faces    the target array of the triangles
+     * @param index    the target index of the first triangle
+     */
+    private static void putFan(MappedRegion region, Type type, long position, long vertices, int[] faces, int index) {
+        int first = (int) region.get(type, position);
+        int previous = (int) region.get(type, position + type.size);
+        for (long i = 2; i < vertices; ++i) {
+            int vertex = (int) region.get(type, position + i * type.size);
+            faces[index++] = first;
+            faces[index++] = previous;
+            faces[index++] = vertex;
+            previous = vertex;
+        }
+    }
+
+    /**
+     * Load the body of an ascii file
+     *
+     * @param channel the file channel
+     * @param header  the header
+     * @return the mesh
+     * @throws IOException on a read error
+     */
+    private TriangleMesh loadAscii(FileChannel channel, Header header) throws IOException {
+        long[] bounds = splitLines(channel, header.size, channel.size());
+        ByteBuffer[] buffers = new ByteBuffer[bounds.length - 1];
+        for (int i = 0; i < buffers.length; ++i)
+            buffers[i] = map(channel, bounds[i], bounds[i + 1]);
+
+        // the first line of each chunk and of each element
+        long[] firstLine = new long[buffers.length + 1];
+        IntStream.range(0, buffers.length).parallel().forEach(i ->
+                firstLine[i + 1] = new TextChunk(buffers[i]).countLines());
+        for (int i = 0; i < buffers.length; ++i)
+            firstLine[i + 1] += firstLine[i];
+        long[] elementLine = new long[header.elements.size() + 1];
+        for (int e = 0; e < header.elements.size(); ++e)
+            elementLine[e + 1] = elementLine[e] + header.elements.get(e).count;
+        if (firstLine[buffers.length] < elementLine[header.elements.size()])
+            throw new IllegalArgumentException("The PLY file is truncated");
+
+        int vertexElement = header.elements.indexOf(header.vertex);
+        double[] vertices = new double[3 * (int) header.vertex.count];
+        int[] xyz = {header.vertex.properties.indexOf(header.vertex.get("x")),
+                header.vertex.properties.indexOf(header.vertex.get("y")),
+                header.vertex.properties.indexOf(header.vertex.get("z"))};
+        Ints[] chunkFaces = new Ints[buffers.length];
+        IntStream.range(0, buffers.length).parallel().forEach(i -> {
+            TextChunk text = new TextChunk(buffers[i]);
+            Ints faces = chunkFaces[i] = new Ints();
+            int e = 0;
+            for (long line = firstLine[i]; text.hasLine(); text.nextLine(), ++line) {
+                while (e < header.elements.size() && line >= elementLine[e + 1])
+                    ++e;
+                if (e == header.elements.size())
+                    break;
+                Element element = header.elements.get(e);
+                int vertex = e == vertexElement ? (int) (line - elementLine[e]) : -1;
+                for (int p = 0; p < element.properties.size(); ++p) {
+                    Property property = element.properties.get(p);
+                    if (property.countType == null) {
+                        int axis = vertex < 0 ? -1 : p == xyz[0] ? 0 : p == xyz[1] ? 1 : p == xyz[2] ? 2 : -1;
+                        if (axis < 0)
+                            text.skipToken();
+                        else
+                            vertices[3 * vertex + axis] = text.nextDouble();
+                        continue;
+                    }
+                    long count = text.nextLong();
+                    if (property != header.indices) {
+                        for (long j = 0; j < count; ++j)
+                            text.skipToken();
+                        continue;
+                    }
+                    if (count < 3)
+                        throw new IllegalArgumentException("A face must have at least three vertices");
+                    int first = (int) text.nextLong();
+                    int previous = (int) text.nextLong();
+                    for (long j = 2; j < count; ++j) {
+                        int index = (int) text.nextLong();
+                        faces.add(first);
+                        faces.add(previous);
+                        faces.add(index);
+                        previous = index;
+                    }
+                }
+            }
+        });
+
+        long size = 0;
+        for (Ints chunk : chunkFaces)
+            size += chunk.size;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The mesh is too big");
+        int[] faces = new int[(int) size];
+        int index = 0;
+        for (Ints chunk : chunkFaces) {
+            System.arraycopy(chunk.array, 0, faces, index, chunk.size);
+            index += chunk.size;
+        }
+        return createMesh(vertices, faces);
+    }
+
+    /**
+     * Read and parse the header of the file
+     *
+     * @param channel the file channel
+     * @return the header
+     * @throws IOException on a read error
+     */
+    private static Header readHeader(FileChannel channel) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BLOCK);
+        String text;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, bytes.size());
+            if (read > 0)
+                bytes.write(buffer.array(), 0, read);
+            text = bytes.toString(StandardCharsets.US_ASCII.name());
+            int keyword = text.indexOf("end_header");
+            if (keyword >= 0) {
+                int end = text.indexOf('\n', keyword);
+                if (end >= 0) {
+                    text = text.substring(0, end + 1);
+                    break;
+                }
+                if (read <= 0) // an empty body
+                    break;
+            } else if (read <= 0 || bytes.size() > MAX_HEADER_SIZE)
+                throw new IllegalArgumentException("Missing PLY end_header");
+        }
+
+        String[] lines = text.split("\r?\n");
+        if (!lines[0].trim().equals("ply"))
+            throw new IllegalArgumentException("Not a PLY file");
+        Header header = new Header(text.length());
+        boolean formatFound = false;
+        for (String line : lines) {
+            String[] words = line.trim().split("\\s+");
+            switch (words[0]) {
+                case "format":
+                    formatFound = true;
+                    if (words.length < 2)
+                        throw new IllegalArgumentException("Malformed PLY format");
+                    if (words[1].equals("binary_little_endian"))
+                        header.format = ByteOrder.LITTLE_ENDIAN;
+                    else if (words[1].equals("binary_big_endian"))
+                        header.format = ByteOrder.BIG_ENDIAN;
+                    else if (!words[1].equals("ascii"))
+                        throw new IllegalArgumentException("Unknown PLY format: " + words[1]);
+                    break;
+                case "element":
+                    if (words.length < 3)
+                        throw new IllegalArgumentException("Malformed PLY element: " + line);
+                    header.elements.add(new Element(words[1], Long.parseLong(words[2])));
+                    break;
+                case "property":
+                    if (header.elements.isEmpty())
+                        throw new IllegalArgumentException("A PLY property out of an element");
+                    List<Property> properties = header.elements.get(header.elements.size() - 1).properties;
+                    if (words.length == 5 && words[1].equals("list"))
+                        properties.add(new Property(words[4], Type.of(words[3]), Type.of(words[2])));
+                    else if (words.length == 3)
+                        properties.add(new Property(words[2], Type.of(words[1]), null));
+                    else
+                        throw new IllegalArgumentException("Malformed PLY property: " + line);
+                    break;
+                default: // ply, comment, obj_info, end_header
+            }
+        }
+        if (!formatFound)
+            throw new IllegalArgumentException("Missing PLY format");
+
+        for (Element element : header.elements)
+            if (element.name.equals("vertex"))
+                header.vertex = element;
+            else if (element.name.equals("face"))
+                header.face = element;
+        if (header.vertex == null)
+            throw new IllegalArgumentException("Missing PLY vertex element");
+        if (header.vertex.count > Integer.MAX_VALUE / 3)
+            throw new IllegalArgumentException("The mesh is too big");
+        for (String axis : new String[]{"x", "y", "z"})
+            if (header.vertex.get(axis) == null || header.vertex.get(axis).countType != null)
+                throw new IllegalArgumentException("Missing PLY vertex property " + axis);
+        if (header.face != null) {
+            header.indices = header.face.get("vertex_indices");
+            if (header.indices == null)
+                header.indices = header.face.get("vertex_index");
+            if (header.indices == null || header.indices.countType == null)
+                throw new IllegalArgumentException("Missing PLY face vertex indices");
+        }
+        return header;
+    }
+
+    /**
+     * The types of the properties
+     */
+    private enum Type {
+        CHAR(1), UCHAR(1), SHORT(2), USHORT(2), INT(4), UINT(4), FLOAT(4), DOUBLE(8);
+
+        final int size;
+
+        Type(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Read a value of the type
+         *
+         * @param buffer the buffer
+         * @param offset the offset of the value in the buffer
+         * @return the value
+         */
+        double read(ByteBuffer buffer, int offset) {
+            switch (this) {
+                case CHAR:
+                    return buffer.get(offset);
+                case UCHAR:
+                    return buffer.get(offset) & 0xFF;
+                case SHORT:
+                    return buffer.getShort(offset);
+                case USHORT:
+                    return buffer.getShort(offset) & 0xFFFF;
+                case INT:
+                    return buffer.getInt(offset);
+                case UINT:
+                    return buffer.getInt(offset) & 0xFFFFFFFFL;
+                case FLOAT:
+                    return buffer.getFloat(offset);
+                default:
+                    return buffer.getDouble(offset);
+            }
+        }
+
+        /**
+         * Get a type by its PLY name
+         *
+         * @param name the name
+         * @return the type
+         * @throws IllegalArgumentException if the name is not known
+         */
+        static Type of(String name) {
+            switch (name) {
+                case "char":
+                case "int8":
+                    return CHAR;
+                case "uchar":
+                case "uint8":
+                    return UCHAR;
+                case "short":
+                case "int16":
+                    return SHORT;
+                case "ushort":
+                case "uint16":
+                    return USHORT;
+                case "int":
+                case "int32":
+                    return INT;
+                case "uint":
+                case "uint32":
+                    return UINT;
+                case "float":
+                case "float32":
+                    return FLOAT;
+                case "double":
+                case "float64":
+                    return DOUBLE;
+                default:
+                    throw new IllegalArgumentException("Unknown PLY type: " + name);
+            }
+        }
+    }
+
+    /**
+     * A property of an element - a value or a list of values
+     */
+    private static class Property {
+        final String name;
+        final Type type;
+        final Type countType; // null if the property is not a list
+
+        Property(String name, Type type, Type countType) {
+            this.name = name;
+            this.type = type;
+            this.countType = countType;
+        }
+    }
+
+    /**
+     * An element - a kind of records in the body of the file
+     */
+    private static class Element {
+        final String name;
+        final long count;
+        final List<Property> properties = new ArrayList<>();
+
+        Element(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        /**
+         * @param name the property name
+         * @return the property, null if there is none
+         */
+        Property get(String name) {
+            for (Property property : properties)
+                if (property.name.equals(name))
+                    return property;
+            return null;
+        }
+
+        /**
+         * @return the size of a binary record, -1 if it has a list
+         */
+        int recordSize() {
+            int size = 0;
+            for (Property property : properties) {
+                if (property.countType != null)
+                    return -1;
+                size += property.type.size;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * The header of the file
+     */
+    private static class Header {
+        final int size; // bytes of the header
+        final List<Element> elements = new ArrayList<>();
+        ByteOrder format; // null if ascii
+        Element vertex;
+        Element face;
+        Property indices;
+
+        Header(int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * The faces of a binary file
+     */
+    private static class Faces {
+        final int[] indices; // three vertex indices of each triangle
+        final long end; // the offset after the faces
+
+        Faces(int[] indices, long end) {
+            this.indices = indices;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The body of a binary file, mapped by segments. The segments overlap by
+     * the size of the biggest value, so every value is in a single segment.
+     */
+    private static class MappedRegion {
+        private static final int SEGMENT_SHIFT = 30;
+        private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+        private static final int OVERLAP = 8;
+
+        private final long _start;
+        private final long _end;
+        private final ByteBuffer[] _segments;
+
+        MappedRegion(FileChannel channel, long start, ByteOrder order) throws IOException {
+            _start = start;
+            _end = channel.size();
+            _segments = new ByteBuffer[(int) ((_end - start + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+            for (int s = 0; s < _segments.length; ++s) {
+                long first = start + ((long) s << SEGMENT_SHIFT);
+                _segments[s] = map(channel, first, Math.min(_end, first + SEGMENT_SIZE + OVERLAP)).order(order);
+            }
+        }
+
+        /**
+         * Check that a range is in the file
+         *
+         * @param position the first byte
+         * @param size     the size of the range
+         * @throws IllegalArgumentException if the file is truncated
+         */
+        void check(long position, long size) {
+            if (!contains(position, size))
+                throw new IllegalArgumentException("The PLY file is truncated");
+        }
+
+        /**
+         * @param position the first byte
+         * @param size     the size of the range
+         * @return true if the range is in the file
+         */
+        boolean contains(long position, long size) {
+            return size >= 0 && position + size <= _end;
+        }
+
+        /**
+         * Read a value
+         *
+         * @param type     the type of the value
+         * @param position the offset of the value in the file
+         * @return the value
+         * @throws IllegalArgumentException if the file is truncated
+         */
+        double read(Type type, long position) {
+            check(position, type.size);
+            return get(type, position);
+        }
+
+        /**
+         * Read a value of a range that was checked
+         *
+         * @param type     the type of the value
+         * @param position the offset of the value in the file
+         * @return the value
+         */
+        double get(Type type, long position) {
+            long offset = position - _start;
+            return type.read(_segments[(int) (offset >>> SEGMENT_SHIFT)], (int) (offset & (SEGMENT_SIZE - 1)));
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package loaders;
+
+import elements.*;
+import geometries.*;
+import primitives.*;
+import scene.Scene;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loader of a scene from an XML file. The file is read in a single pass by a
+ * streaming (StAX) reader, and each element is turned to its object right when
+ * it starts, so no document tree is built. For example:
+ * <pre>
+ * &lt;scene name="Example" background="0 0 0" distance="1000"&gt;
+ *     &lt;camera p0="0 0 -1000" towards="0 0 1" up="0 -1 0"/&gt;
+ *     &lt;ambientLight color="255 255 255" k="0.1"/&gt;
+ *     &lt;material name="glass" kd="0.2" ks="0.2" shininess="30" kt="0.6"/&gt;
+ *     &lt;geometries&gt;
+ *         &lt;sphere center="0 0 50" radius="50" emission="0 0 100" material="glass"/&gt;
+ *         &lt;triangle p1="-150 150 115" p2="150 150 135" p3="75 -75 150" kd="0.5" ks="0.5" shininess="60"/&gt;
+ *         &lt;mesh file="bunny.ply" emission="20 20 20" material="glass"/&gt;
+ *     &lt;/geometries&gt;
+ *     &lt;lights&gt;
+ *         &lt;spotLight color="1000 600 0" position="-100 100 -500" direction="-1 1 2" kl="0.0004" kq="0.0000006"/&gt;
+ *     &lt;/lights&gt;
+ * &lt;/scene&gt;
+ * </pre>
+ * The elements:
+ * <ul>
+ * <li>scene - name, background color, screen distance</li>
+ * <li>camera - p0, towards and up vectors</li>
+ * <li>ambientLight - color and k</li>
+ * <li>material - a named material for the geometries after it: kd, ks,
+ * shininess, kt, kr, gloss</li>
+ * <li>sphere (center, radius), plane (point and normal, or p1, p2, p3),
+ * triangle (p1, p2, p3), polygon (vertices - x y z of each vertex), tube
+ * (origin, direction, radius) and mesh (an OBJ or PLY file relative to the
+ * scene file) - each with an emission color and a material, by name or by the
+ * material attributes</li>
+ * <li>directionalLight (color, direction), pointLight (color, position, kc, kl,
+ * kq) and spotLight (a point light with a direction)</li>
+ * <li>geometries, lights, materials - optional groups of the elements</li>
+ * </ul>
+ * Each element is either in the scene or in its group, and the scene is the
+ * only root element.
+ * Points, vectors and colors are three numbers separated by blanks. All the
+ * numbers are parsed right from the bytes, like the numbers of a mesh file.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class SceneLoader {
+    private static final XMLInputFactory FACTORY = createFactory();
+    private static final String[] MATERIAL_ATTRIBUTES = {"kd", "ks", "shininess", "kt", "kr", "gloss"};
+    // the elements that may contain each kind of element
+    private static final String[] ROOT = {};
+    private static final String[] IN_SCENE = {"scene"};
+    private static final String[] IN_MATERIALS = {"scene", "materials"};
+    private static final String[] IN_GEOMETRIES = {"scene", "geometries"};
+    private static final String[] IN_LIGHTS = {"scene", "lights"};
+
+    private final Path _file;
+    private final Map<String, Material> _materials = new HashMap<>();
+    private XMLStreamReader _reader;
+
+    // ***************** Constructors ********************** //
+
+    /**
+     * Constructor
+     *
+     * @param file the scene file
+     */
+    public SceneLoader(Path file) {
+        _file = file;
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Load the scene
+     *
+     * @return the scene
+     * @throws IOException              on a read error
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public Scene load() throws IOException {
+        _materials.clear();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(_file), 1 << 16)) {
+            _reader = FACTORY.createXMLStreamReader(in);
+            try {
+                return readScene();
+            } finally {
+                _reader.close();
+                _reader = null;
+            }
+        } catch (XMLStreamException e) {
+            String line = e.getLocation() == null ? "" : e.getLocation().getLineNumber() + ":";
+            throw new IllegalArgumentException(_file.getFileName() + ":" + line + " Malformed scene file: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read the scene element and all its content. The elements that are open
+     * are kept on a stack, so each element is checked to be in its place.
+     *
+     * @return the scene
+     * @throws XMLStreamException       on an XML error, e.g. a second root
+     *                                  element
+     * @throws IOException              on a mesh read error
+     * @throws IllegalArgumentException if an element is malformed or misplaced
+     */
+    private Scene readScene() throws XMLStreamException, IOException {
+        _reader.nextTag();
+        Scene scene;
+        try {
+            if (!_reader.getLocalName().equals("scene"))
+                throw new IllegalArgumentException("The root element must be scene");
+            String name = _reader.getAttributeValue(null, "name");
+            scene = new Scene(name != null ? name : _file.getFileName().toString());
+            scene.setBackground(color("background", Color.BLACK));
+            scene.setDistance(number("distance", 0));
+        } catch (IllegalArgumentException e) {
+            throw error(e);
+        }
+
+        Deque<String> elements = new ArrayDeque<>();
+        elements.push("scene");
+        while (!elements.isEmpty()) {
+            int event = _reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = _reader.getLocalName();
+                try {
+                    readElement(scene, name, elements.peek());
+                } catch (IllegalArgumentException e) {
+                    throw error(e);
+                }
+                elements.push(name);
+            } else if (event == XMLStreamConstants.END_ELEMENT)
+                elements.pop();
+        }
+        // the reader rejects any element after the scene
+        while (_reader.hasNext())
+            _reader.next();
+        return scene;
+    }
+
+    /**
+     * Add the object of an element to the scene
+     *
+     * @param scene  the scene
+     * @param name   the element name
+     * @param parent the name of the element that contains it
+     * @throws IOException              on a mesh read error
+     * @throws IllegalArgumentException if the element is malformed, unknown or
+     *                                  not in its place
+     */
+    private void readElement(Scene scene, String name, String parent) throws IOException {
+        if (!Arrays.asList(parents(name)).contains(parent))
+            throw new IllegalArgumentException("Element " + name + " can't be in " + parent);
+        switch (name) {
+            case "geometries":
+            case "lights":
+            case "materials":
+                break;
+            case "camera":
+                scene.setCamera(new Camera(point("p0"), vector("towards"), vector("up")));
+                break;
+            case "ambientLight":
+                scene.setAmbientLight(new AmbientLight(color("color", null), number("k", 1)));
+                break;
+            case "material":
+                String materialName = _reader.getAttributeValue(null, "name");
+                if (materialName == null)
+                    throw new IllegalArgumentException("Missing material name");
+                _materials.put(materialName, createMaterial());
+                break;
+            case "sphere":
+                scene.addGeometries(new Sphere(emission(), material(), point("center"), requiredNumber("radius")));
+                break;
+            case "plane":
+                scene.addGeometries(_reader.getAttributeValue(null, "normal") != null
+                        ? new Plane(emission(), material(), point("point"), vector("normal"))
+                        : new Plane(emission(), material(), point("p1"), point("p2"), point("p3")));
+                break;
+            case "triangle":
+                scene.addGeometries(new Triangle(emission(), material(), point("p1"), point("p2"), point("p3")));
+                break;
+            case "polygon":
+                double[] coordinates = numbers("vertices");
+                if (coordinates.length % 3 != 0)
+                    throw new IllegalArgumentException("Polygon vertices must come in triples");
+                Point3D[] vertices = new Point3D[coordinates.length / 3];
+                for (int i = 0; i < vertices.length; ++i)
+                    vertices[i] = new Point3D(coordinates[3 * i], coordinates[3 * i + 1], coordinates[3 * i + 2]);
+                scene.addGeometries(new Polygon(emission(), material(), vertices));
+                break;
+            case "tube":
+                scene.addGeometries(new Tube(emission(), material(), new Ray(point("origin"), vector("direction")),
+                        requiredNumber("radius")));
+                break;
+            case "mesh":
+                String file = _reader.getAttributeValue(null, "file");
+                if (file == null)
+                    throw new IllegalArgumentException("Missing mesh file");
+                MeshLoader.of(_file.toAbsolutePath().resolveSibling(file)).setEmission(emission())
+                        .setMaterial(material()).load(scene);
+                break;
+            case "directionalLight":
+                scene.addLights(new DirectionalLight(color("color", null), vector("direction")));
+                break;
+            case "pointLight":
+                scene.addLights(new PointLight(color("color", null), point("position"), number("kc", 1),
+                        number("kl", 0), number("kq", 0)));
+                break;
+            case "spotLight":
+                scene.addLights(new SpotLight(color("color", null), vector("direction"), point("position"),
+                        number("kc", 1), number("kl", 0), number("kq", 0)));
+                break;
+        }
+    }
+
+    /**
+     * Get the elements that may contain an element
+     *
+     * @param name the element name
+     * @return the names of the elements that may contain it
+     * @throws IllegalArgumentException if the element is unknown
+     */
+    private static String[] parents(String name) {
+        switch (name) {
+            case "scene":
+                return ROOT;
+            case "camera":
+            case "ambientLight":
+            case "geometries":
+            case "lights":
+            case "materials":
+                return IN_SCENE;
+            case "material":
+                return IN_MATERIALS;
+            case "sphere":
+            case "plane":
+            case "triangle":
+            case "polygon":
+            case "tube":
+            case "mesh":
+                return IN_GEOMETRIES;
+            case "directionalLight":
+            case "pointLight":
+            case "spotLight":
+                return IN_LIGHTS;
+            default:
+                throw new IllegalArgumentException("Unknown element " + name);
+        }
+    }
+
+    /**
+     * @return the emission color of a geometry element, black by default
+     */
+    private Color emission() {
+        return color("emission", Color.BLACK);
+    }
+
+    /**
+     * Get the material of a geometry element - the named material, or the
+     * material of the material attributes
+     *
+     * @return the material, the default material if there is none
+     * @throws IllegalArgumentException if the named material is not known
+     */
+    private Material material() {
+        String name = _reader.getAttributeValue(null, "material");
+        if (name == null)
+            return createMaterial();
+        Material material = _materials.get(name);
+        if (material == null)
+            throw new IllegalArgumentException("Unknown material " + name);
+        return material;
+    }
+
+    /**
+     * @return the material of the material attributes of the element, the
+     * default material if there are none
+     */
+    private Material createMaterial() {
+        boolean found = false;
+        for (String attribute : MATERIAL_ATTRIBUTES)
+            found |= _reader.getAttributeValue(null, attribute) != null;
+        if (!found)
+            return Material.DEFAULT;
+        Material material = new Material(number("kd", 0), number("ks", 0), integer("shininess", 0), number("kt", 0),
+                number("kr", 0));
+        double glossBlur = number("gloss", 0);
+        if (glossBlur != 0)
+            material.setGlossBlur(glossBlur);
+        return material;
+    }
+
+    /**
+     * Get a number attribute
+     *
+     * @param attribute    the attribute name
+     * @param defaultValue the value if there is no attribute
+     * @return the number
+     * @throws IllegalArgumentException if the attribute is malformed
+     */
+    private double number(String attribute, double defaultValue) {
+        TextChunk text = text(attribute);
+        if (text == null)
+            return defaultValue;
+        double number = text.nextDouble();
+        if (text.hasToken())
+            throw new IllegalArgumentException("Attribute " + attribute + " must have one number");
+        return number;
+    }
+
+    /**
+     * Get a number attribute that is required
+     *
+     * @param attribute the attribute name
+     * @return the number
+     * @throws IllegalArgumentException if the attribute is missing or malformed
+     */
+    private double requiredNumber(String attribute) {
+        if (_reader.getAttributeValue(null, attribute) == null)
+            throw new IllegalArgumentException("Missing attribute " + attribute);
+        return number(attribute, 0);
+    }
+
+    /**
+     * Get an integer attribute
+     *
+     * @param attribute    the attribute name
+     * @param defaultValue the value if there is no attribute
+     * @return the integer
+     * @throws IllegalArgumentException if the attribute is malformed
+     */
+    private int integer(String attribute, int defaultValue) {
+        TextChunk text = text(attribute);
+        if (text == null)
+            return defaultValue;
+        long integer = text.nextLong();
+        if (text.hasToken() || integer != (int) integer)
+            throw new IllegalArgumentException("Attribute " + attribute + " must be an integer");
+        return (int) integer;
+    }
+
+    /**
+     * Get the numbers of an attribute - separated by blanks
+     *
+     * @param attribute the attribute name
+     * @return the numbers
+     * @throws IllegalArgumentException if the attribute is missing or malformed
+     */
+    private double[] numbers(String attribute) {
+        TextChunk text = text(attribute);
+        if (text == null)
+            throw new IllegalArgumentException("Missing attribute " + attribute);
+        double[] numbers = new double[3];
+        int count = 0;
+        while (text.hasToken()) {
+            if (count == numbers.length)
+                numbers = Arrays.copyOf(numbers, 2 * count);
+            numbers[count++] = text.nextDouble();
+        }
+        if (count < numbers.length)
+            numbers = Arrays.copyOf(numbers, count);
+        return numbers;
+    }
+
+    /**
+     * Get three numbers of an attribute
+     *
+     * @param attribute the attribute name
+     * @return the numbers
+     * @throws IllegalArgumentException if the attribute is missing or malformed
+     */
+    private double[] triple(String attribute) {
+        double[] numbers = numbers(attribute);
+        if (numbers.length != 3)
+            throw new IllegalArgumentException("Attribute " + attribute + " must have three numbers");
+        return numbers;
+    }
+
+    /**
+     * Get a point attribute
+     *
+     * @param attribute the attribute name
+     * @return the point
+     * @throws IllegalArgumentException if the attribute is missing or malformed
+     */
+    private Point3D point(String attribute) {
+        double[] xyz = triple(attribute);
+        return new Point3D(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Get a vector attribute
+     *
+     * @param attribute the attribute name
+     * @return the vector
+     * @throws IllegalArgumentException if the attribute is missing or malformed
+     */
+    private Vector vector(String attribute) {
+        double[] xyz = triple(attribute);
+        return new Vector(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Get a color attribute
+     *
+     * @param attribute    the attribute name
+     * @param defaultColor the color if there is no attribute, null if the
+     *                     attribute is required
+     * @return the color
+     * @throws IllegalArgumentException if the attribute is missing or malformed
+     */
+    private Color color(String attribute, Color defaultColor) {
+        if (defaultColor != null && _reader.getAttributeValue(null, attribute) == null)
+            return defaultColor;
+        double[] rgb = triple(attribute);
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * Get the text of an attribute for parsing its numbers like the numbers of
+     * a mesh file
+     *
+     * @param attribute the attribute name
+     * @return the text, null if there is no attribute
+     */
+    private TextChunk text(String attribute) {
+        String value = _reader.getAttributeValue(null, attribute);
+        return value == null ? null
+                : new TextChunk(ByteBuffer.wrap(value.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    /**
+     * Add the location in the file to the message of an error
+     *
+     * @param e the error
+     * @return the error with the location
+     */
+    private IllegalArgumentException error(IllegalArgumentException e) {
+        return new IllegalArgumentException(_file.getFileName() + ":" + _reader.getLocation().getLineNumber()
+                + ": " + e.getMessage(), e);
+    }
+
+    /**
+     * Create the factory of the readers - without DTDs and external entities,
+     * which a scene does not need
+     *
+     * @return the factory
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
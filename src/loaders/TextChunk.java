@@ -0,0 +1,218 @@
+package loaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner of the lines of a chunk of a text file. The tokens are parsed right
+ * from the bytes of the buffer, without a string per token. The numbers of the
+ * usual formats are parsed exactly by the fast path of Clinger (an integer
+ * mantissa of at most 53 bits times a power of ten of at most 22), and any
+ * other number by {@link Double#parseDouble(String)}.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+final class TextChunk {
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final long MAX_MANTISSA = 1L << 53;
+
+    private final ByteBuffer _buffer;
+    private final int _end;
+    private int _position;
+
+    /**
+     * Constructor - the chunk is from the position to the limit of the buffer
+     *
+     * @param buffer the buffer
+     */
+    TextChunk(ByteBuffer buffer) {
+        _buffer = buffer;
+        _position = buffer.position();
+        _end = buffer.limit();
+    }
+
+    /**
+     * @return true if there is another line in the chunk
+     */
+    boolean hasLine() {
+        return _position < _end;
+    }
+
+    /**
+     * Move to the start of the next line
+     */
+    void nextLine() {
+        while (_position < _end && _buffer.get(_position++) != '\n') ;
+    }
+
+    /**
+     * Count the lines from the position to the end of the chunk - a last line
+     * without a line end is counted too
+     *
+     * @return amount of lines
+     */
+    long countLines() {
+        long lines = 0;
+        for (int i = _position; i < _end; ++i)
+            if (_buffer.get(i) == '\n')
+                ++lines;
+        if (_position < _end && _buffer.get(_end - 1) != '\n')
+            ++lines;
+        return lines;
+    }
+
+    /**
+     * Skip the blanks and tell whether there is a token in the rest of the line
+     *
+     * @return true if there is a token
+     */
+    boolean hasToken() {
+        while (_position < _end && isBlank(_buffer.get(_position)))
+            ++_position;
+        return _position < _end && _buffer.get(_position) != '\n';
+    }
+
+    /**
+     * Skip a keyword if it is the next token of the line
+     *
+     * @param keyword the keyword (ascii)
+     * @return true if the keyword was skipped
+     */
+    boolean skipKeyword(String keyword) {
+        if (!hasToken() || _end - _position < keyword.length())
+            return false;
+        for (int i = 0; i < keyword.length(); ++i)
+            if (_buffer.get(_position + i) != keyword.charAt(i))
+                return false;
+        int after = _position + keyword.length();
+        if (after < _end && !isBlank(_buffer.get(after)) && _buffer.get(after) != '\n')
+            return false;
+        _position = after;
+        return true;
+    }
+
+    /**
+     * Skip the next token of the line
+     */
+    void skipToken() {
+        hasToken();
+        while (_position < _end && !isDelimiter(_buffer.get(_position)))
+            ++_position;
+    }
+
+    /**
+     * Skip a character if it is the next character of the line
+     *
+     * @param c the character
+     * @return true if the character was skipped
+     */
+    boolean skip(char c) {
+        if (_position < _end && _buffer.get(_position) == c) {
+            ++_position;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parse an integer - the next token of the line or its leading part, up to
+     * the first character that is not a digit
+     *
+     * @return the integer
+     * @throws IllegalArgumentException if there is no integer
+     */
+    long nextLong() {
+        if (!hasToken())
+            throw new IllegalArgumentException("Missing integer");
+        boolean negative = skip('-');
+        if (!negative)
+            skip('+');
+        long value = 0;
+        int digits = 0;
+        for (byte b; _position < _end && isDigit(b = _buffer.get(_position)); ++_position, ++digits) {
+            if (value > (Long.MAX_VALUE - 9) / 10)
+                throw new IllegalArgumentException("Integer out of range");
+            value = 10 * value + (b - '0');
+        }
+        if (digits == 0)
+            throw new IllegalArgumentException("Malformed integer");
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a number - the next token of the line
+     *
+     * @return the number
+     * @throws IllegalArgumentException if the token is not a number
+     */
+    double nextDouble() {
+        if (!hasToken())
+            throw new IllegalArgumentException("Missing number");
+        int start = _position;
+        boolean negative = skip('-');
+        if (!negative)
+            skip('+');
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        byte b;
+        for (; _position < _end && isDigit(b = _buffer.get(_position)); ++_position, ++digits)
+            mantissa = 10 * mantissa + (b - '0');
+        if (skip('.'))
+            for (; _position < _end && isDigit(b = _buffer.get(_position)); ++_position, ++digits, --exponent)
+                mantissa = 10 * mantissa + (b - '0');
+        if (_position < _end && ((b = _buffer.get(_position)) == 'e' || b == 'E')) {
+            ++_position;
+            boolean negativeExponent = skip('-');
+            if (!negativeExponent)
+                skip('+');
+            int value = 0;
+            for (; _position < _end && isDigit(b = _buffer.get(_position)); ++_position)
+                value = Math.min(10 * value + (b - '0'), 1 << 16);
+            exponent += negativeExponent ? -value : value;
+        }
+
+        boolean fast = digits > 0 && digits <= 18 && mantissa <= MAX_MANTISSA
+                && Math.abs(exponent) < POWERS_OF_TEN.length
+                && (_position == _end || isDelimiter(_buffer.get(_position)));
+        if (!fast)
+            return parseToken(start);
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse the token from a position by {@link Double#parseDouble(String)}
+     *
+     * @param start the position of the token
+     * @return the number
+     * @throws IllegalArgumentException if the token is not a number
+     */
+    private double parseToken(int start) {
+        _position = start;
+        while (_position < _end && !isDelimiter(_buffer.get(_position)))
+            ++_position;
+        byte[] bytes = new byte[_position - start];
+        for (int i = 0; i < bytes.length; ++i)
+            bytes[i] = _buffer.get(start + i);
+        String token = new String(bytes, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number: " + token);
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return isBlank(b) || b == '\n';
+    }
+}
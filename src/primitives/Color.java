@@ -13,9 +13,9 @@ public class Color {
     public final static Color WHITE = new Color(255,255,255);
     /**
      * The internal fields tx`o maintain RGB components as double numbers from 0 to
-     * whatever...
+     * whatever... intentionally "package-friendly" due to performance constraints
      */
-    private double _r = 0.0, _g = 0.0, _b = 0.0;
+    double _r = 0.0, _g = 0.0, _b = 0.0;
 
     /**
      * Default constructor - to generate Black Color (privately)
@@ -102,6 +102,33 @@ public class Color {
         return new java.awt.Color(Math.min(r,255), Math.min(g,255), Math.min(b,255));
     }
 
+    /**
+     * Red component getter
+     *
+     * @return red component (0..255 for printed colors, may be more)
+     */
+    public double getRed() {
+        return _r;
+    }
+
+    /**
+     * Green component getter
+     *
+     * @return green component (0..255 for printed colors, may be more)
+     */
+    public double getGreen() {
+        return _g;
+    }
+
+    /**
+     * Blue component getter
+     *
+     * @return blue component (0..255 for printed colors, may be more)
+     */
+    public double getBlue() {
+        return _b;
+    }
+
     /**
      * Color setter to copy RGB components from another color
      *
@@ -174,4 +201,18 @@ public class Color {
         return new Color(r, g, b);
     }
 
+    /**
+     * Check whether another color is close to this one - no component differs by
+     * more than a threshold
+     *
+     * @param other     another color
+     * @param threshold maximal difference of a component
+     * @return true if the colors are close
+     */
+    public boolean isSimilar(Color other, double threshold) {
+        return Math.abs(_r - other._r) <= threshold
+                && Math.abs(_g - other._g) <= threshold
+                && Math.abs(_b - other._b) <= threshold;
+    }
+
 }
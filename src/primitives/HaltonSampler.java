@@ -0,0 +1,65 @@
+package primitives;
+
+import static primitives.Util.hash;
+import static primitives.Util.toUnit;
+
+/**
+ * Halton low discrepancy sampler - dimension d is the radical inverse of the
+ * index in the base of the d-th prime. Each sequence is shifted by a random
+ * offset of the seed and the sequence hash (Cranley-Patterson rotation) so
+ * that neighbouring beams and pixels do not repeat the same pattern.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class HaltonSampler implements Sampler {
+    private static final int[] PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53};
+    private final long _seed;
+
+    //****** CONSTRUCTORS *******/
+
+    /**
+     * Constructor
+     *
+     * @param seed seed of the rotations
+     */
+    public HaltonSampler(long seed) {
+        _seed = seed;
+    }
+
+    //****** GETTERS *******/
+
+    /**
+     * @return the seed
+     */
+    public long getSeed() {
+        return _seed;
+    }
+
+    //****** FUNCTIONS *******/
+
+    @Override
+    public double get(long sequence, long index, int dimension) {
+        double value = radicalInverse(index, PRIMES[dimension % PRIMES.length])
+                + toUnit(hash(hash(_seed ^ sequence) + dimension));
+        return value < 1 ? value : value - 1;
+    }
+
+    /**
+     * Radical inverse - mirror the digits of a number around the decimal point
+     *
+     * @param index the number (non negative)
+     * @param base  the base
+     * @return value in [0, 1)
+     */
+    static double radicalInverse(long index, int base) {
+        double inverseBase = 1d / base;
+        double factor = inverseBase;
+        double result = 0;
+        while (index > 0) {
+            result += (index % base) * factor;
+            index /= base;
+            factor *= inverseBase;
+        }
+        return result;
+    }
+}
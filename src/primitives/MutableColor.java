@@ -0,0 +1,185 @@
+package primitives;
+
+/**
+ * Mutable RGB accumulator for the shading calculations. Unlike Color, the
+ * operations work in place (and return the object itself for chaining calls)
+ * so that summing the contributions of lights, beams and recursion levels does
+ * not create a new Color for every step.<br/>
+ * The objects are not thread safe - each one should be confined to a single
+ * thread, the one calculating a pixel.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public final class MutableColor {
+    private double _r = 0.0, _g = 0.0, _b = 0.0;
+
+    //****** CONSTRUCTORS *******/
+
+    /**
+     * Default constructor - black accumulator
+     */
+    public MutableColor() {
+    }
+
+    /**
+     * Constructor based on a Color
+     *
+     * @param color the initial value
+     */
+    public MutableColor(Color color) {
+        set(color);
+    }
+
+    //****** GETTERS *******/
+
+    /**
+     * Red component getter
+     *
+     * @return accumulated red component
+     */
+    public double getRed() {
+        return _r;
+    }
+
+    /**
+     * Green component getter
+     *
+     * @return accumulated green component
+     */
+    public double getGreen() {
+        return _g;
+    }
+
+    /**
+     * Blue component getter
+     *
+     * @return accumulated blue component
+     */
+    public double getBlue() {
+        return _b;
+    }
+
+    //****** SETTERS *******/
+
+    /**
+     * Reset the accumulator to black
+     *
+     * @return this
+     */
+    public MutableColor setBlack() {
+        _r = 0.0;
+        _g = 0.0;
+        _b = 0.0;
+        return this;
+    }
+
+    /**
+     * Copy the RGB components of a color
+     *
+     * @param color source color
+     * @return this
+     */
+    public MutableColor set(Color color) {
+        _r = color._r;
+        _g = color._g;
+        _b = color._b;
+        return this;
+    }
+
+    //****** FUNCTIONS *******/
+
+    /**
+     * Add a color [this += color]
+     *
+     * @param color color to add
+     * @return this
+     */
+    public MutableColor add(Color color) {
+        _r += color._r;
+        _g += color._g;
+        _b += color._b;
+        return this;
+    }
+
+    /**
+     * Add another accumulator [this += color]
+     *
+     * @param color accumulator to add
+     * @return this
+     */
+    public MutableColor add(MutableColor color) {
+        _r += color._r;
+        _g += color._g;
+        _b += color._b;
+        return this;
+    }
+
+    /**
+     * Add a scaled color [this += k * color]
+     *
+     * @param color color to add
+     * @param k     non-negative scale factor
+     * @return this
+     */
+    public MutableColor addScaled(Color color, double k) {
+        _r += k * color._r;
+        _g += k * color._g;
+        _b += k * color._b;
+        return this;
+    }
+
+    /**
+     * Add a scaled accumulator [this += k * color]
+     *
+     * @param color accumulator to add
+     * @param k     non-negative scale factor
+     * @return this
+     */
+    public MutableColor addScaled(MutableColor color, double k) {
+        _r += k * color._r;
+        _g += k * color._g;
+        _b += k * color._b;
+        return this;
+    }
+
+    /**
+     * Scale the color by a scalar
+     *
+     * @param k non-negative scale factor
+     * @return this
+     */
+    public MutableColor scale(double k) {
+        _r *= k;
+        _g *= k;
+        _b *= k;
+        return this;
+    }
+
+    /**
+     * Scale the color by (1 / reduction factor)
+     *
+     * @param k reduction factor, 1 or more
+     * @return this
+     */
+    public MutableColor reduce(double k) {
+        _r /= k;
+        _g /= k;
+        _b /= k;
+        return this;
+    }
+
+    /**
+     * @return average of the accumulated RGB components
+     */
+    public double getIntensity() {
+        return (_r + _g + _b) / 3;
+    }
+
+    /**
+     * @return new Color of the accumulated RGB components
+     */
+    public Color toColor() {
+        return new Color(_r, _g, _b);
+    }
+
+}
@@ -0,0 +1,295 @@
+package primitives;
+
+/**
+ * A mutable triple of doubles for the render hot path. All the operations work
+ * in place (and return the object itself for chaining calls), so a calculation
+ * can be done on a few local objects without creating a new Vector or Point3D
+ * for each step. Unlike Vector it may be zero, and the coordinates are not
+ * aligned to zero.<br/>
+ * The objects are not thread safe - they are meant to be local to a calculation.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public final class MutableVector {
+    /**
+     * Coordinate values, public due to performance constraints
+     */
+    public double x, y, z;
+
+    //****** CONSTRUCTORS *******/
+
+    /**
+     * Default constructor - zero vector
+     */
+    public MutableVector() {
+    }
+
+    /**
+     * Constructor based on three doubles
+     *
+     * @param x value
+     * @param y value
+     * @param z value
+     */
+    public MutableVector(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructor based on a point
+     *
+     * @param point source point
+     */
+    public MutableVector(Point3D point) {
+        set(point);
+    }
+
+    /**
+     * Constructor based on a vector
+     *
+     * @param vector source vector
+     */
+    public MutableVector(Vector vector) {
+        set(vector);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other source
+     */
+    public MutableVector(MutableVector other) {
+        set(other);
+    }
+
+    //****** SETTERS *******/
+
+    /**
+     * Set the coordinates
+     *
+     * @param x value
+     * @param y value
+     * @param z value
+     * @return this
+     */
+    public MutableVector set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Copy the coordinates of a point
+     *
+     * @param point source point
+     * @return this
+     */
+    public MutableVector set(Point3D point) {
+        x = point._x;
+        y = point._y;
+        z = point._z;
+        return this;
+    }
+
+    /**
+     * Copy the coordinates of a vector
+     *
+     * @param vector source vector
+     * @return this
+     */
+    public MutableVector set(Vector vector) {
+        x = vector._x;
+        y = vector._y;
+        z = vector._z;
+        return this;
+    }
+
+    /**
+     * Copy the coordinates of another mutable vector
+     *
+     * @param other source
+     * @return this
+     */
+    public MutableVector set(MutableVector other) {
+        x = other.x;
+        y = other.y;
+        z = other.z;
+        return this;
+    }
+
+    //****** FUNCTIONS *******/
+
+    /**
+     * Add another mutable vector [this += other]
+     *
+     * @param other vector to add
+     * @return this
+     */
+    public MutableVector add(MutableVector other) {
+        x += other.x;
+        y += other.y;
+        z += other.z;
+        return this;
+    }
+
+    /**
+     * Add a vector [this += other]
+     *
+     * @param other vector to add
+     * @return this
+     */
+    public MutableVector add(Vector other) {
+        x += other._x;
+        y += other._y;
+        z += other._z;
+        return this;
+    }
+
+    /**
+     * Add a scaled vector [this += k * other]
+     *
+     * @param other vector to add
+     * @param k     scale factor
+     * @return this
+     */
+    public MutableVector addScaled(Vector other, double k) {
+        x += k * other._x;
+        y += k * other._y;
+        z += k * other._z;
+        return this;
+    }
+
+    /**
+     * Subtract another mutable vector [this -= other]
+     *
+     * @param other vector to subtract
+     * @return this
+     */
+    public MutableVector subtract(MutableVector other) {
+        x -= other.x;
+        y -= other.y;
+        z -= other.z;
+        return this;
+    }
+
+    /**
+     * Subtract a point [this -= other]
+     *
+     * @param other point to subtract
+     * @return this
+     */
+    public MutableVector subtract(Point3D other) {
+        x -= other._x;
+        y -= other._y;
+        z -= other._z;
+        return this;
+    }
+
+    /**
+     * Multiply by a constant [this *= k]
+     *
+     * @param k number to scale by
+     * @return this
+     */
+    public MutableVector scale(double k) {
+        x *= k;
+        y *= k;
+        z *= k;
+        return this;
+    }
+
+    /**
+     * Dot product with another mutable vector
+     *
+     * @param other another vector
+     * @return [this (.) other]
+     */
+    public double dotProduct(MutableVector other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    /**
+     * Dot product with a vector
+     *
+     * @param other another vector
+     * @return [this (.) other]
+     */
+    public double dotProduct(Vector other) {
+        return x * other._x + y * other._y + z * other._z;
+    }
+
+    /**
+     * Cross product with another mutable vector [this = this x other]
+     *
+     * @param other another vector
+     * @return this
+     */
+    public MutableVector crossProduct(MutableVector other) {
+        return set(y * other.z - z * other.y, z * other.x - x * other.z, x * other.y - y * other.x);
+    }
+
+    /**
+     * Cross product with a vector [this = this x other]
+     *
+     * @param other another vector
+     * @return this
+     */
+    public MutableVector crossProduct(Vector other) {
+        return set(y * other._z - z * other._y, z * other._x - x * other._z, x * other._y - y * other._x);
+    }
+
+    /**
+     * @return squared length of the vector
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * @return length of the vector
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Normalize this vector - divides each component by the vector's length
+     *
+     * @return this
+     */
+    public MutableVector normalize() {
+        return scale(1 / length());
+    }
+
+    /**
+     * Checks whether all the coordinates are [almost] zero
+     *
+     * @return true if it is a zero vector
+     */
+    public boolean isZero() {
+        return Util.isZero(x) && Util.isZero(y) && Util.isZero(z);
+    }
+
+    /**
+     * @return new Point3D of the coordinates
+     */
+    public Point3D toPoint3D() {
+        return new Point3D(x, y, z);
+    }
+
+    /**
+     * @return new Vector of the coordinates
+     * @throws IllegalArgumentException if it is a zero vector
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableVector: (" + x + ", " + y + ", " + z + ")";
+    }
+}
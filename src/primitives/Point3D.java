@@ -1,5 +1,8 @@
 package primitives;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * A class that represents a point in 3d space
  *
@@ -7,9 +10,13 @@ package primitives;
  */
 public class Point3D {
 
-    final Coordinate _x;
-    final Coordinate _y;
-    final Coordinate _z;
+    /**
+     * Coordinate values, kept flat (and not as Coordinate objects) and
+     * "package-friendly" due to performance constraints
+     */
+    final double _x;
+    final double _y;
+    final double _z;
 
     public static Point3D ZERO = new Point3D(0, 0, 0);
 
@@ -23,9 +30,10 @@ public class Point3D {
      * @param z value
      */
     public Point3D(double x, double y, double z) {
-        _x = new Coordinate(x);
-        _y = new Coordinate(y);
-        _z = new Coordinate(z);
+        // if it too close to zero make it zero
+        _x = alignZero(x);
+        _y = alignZero(y);
+        _z = alignZero(z);
     }
 
     /**
@@ -36,9 +44,9 @@ public class Point3D {
      * @param z value
      */
     Point3D(Coordinate x, Coordinate y, Coordinate z) {
-        _x = x;
-        _y = y;
-        _z = z;
+        _x = x._coord;
+        _y = y._coord;
+        _z = z._coord;
     }
 
     //****** GETTERS *******/
@@ -49,7 +57,7 @@ public class Point3D {
      * @return x value
      */
     public double getX() {
-        return _x._coord;
+        return _x;
     }
 
     /**
@@ -58,7 +66,7 @@ public class Point3D {
      * @return y value
      */
     public double getY() {
-        return _y._coord;
+        return _y;
     }
 
     /**
@@ -67,7 +75,7 @@ public class Point3D {
      * @return z value
      */
     public double getZ() {
-        return _z._coord;
+        return _z;
     }
 
     //****** FUNCTIONS *******/
@@ -80,7 +88,7 @@ public class Point3D {
      * @return new Vector created by the subtraction [other - this]
      */
     public Vector subtract(Point3D other) {
-        return new Vector(_x._coord - other._x._coord, _y._coord - other._y._coord, _z._coord - other._z._coord);
+        return new Vector(_x - other._x, _y - other._y, _z - other._z);
     }
 
     /**
@@ -91,10 +99,7 @@ public class Point3D {
      * @return new Vector created by the sum [other + this]
      */
     public Point3D add(Vector other) {
-        double x = _x._coord + other.getPoint()._x._coord;
-        double y = _y._coord + other.getPoint()._y._coord;
-        double z = _z._coord + other.getPoint()._z._coord;
-        return new Point3D(x, y, z);
+        return new Point3D(_x + other._x, _y + other._y, _z + other._z);
     }
 
     /**
@@ -104,9 +109,9 @@ public class Point3D {
      * @return double The distance between [this, other]
      */
     public double distanceSquared(Point3D other) {
-        double newX = _x._coord - other._x._coord;
-        double newY = _y._coord - other._y._coord;
-        double newZ = _z._coord - other._z._coord;
+        double newX = _x - other._x;
+        double newY = _y - other._y;
+        double newZ = _z - other._z;
         return (newX * newX) + (newY * newY) + (newZ * newZ);
     }
 
@@ -122,7 +127,7 @@ public class Point3D {
 
     @Override
     public String toString() {
-        return "Point3D:\nx = " + this._x.toString() + "\ny = " + this._y.toString() + "\nz = " + this._z.toString();
+        return "Point3D:\nx = " + this._x + "\ny = " + this._y + "\nz = " + this._z;
     }
 
     @Override
@@ -133,7 +138,7 @@ public class Point3D {
         if (!(obj instanceof Point3D))
             return false;
         Point3D point = (Point3D) obj;
-        return point._x.equals(_x) && point._y.equals(_y) && point._z.equals(_z);
+        return isZero(point._x - _x) && isZero(point._y - _y) && isZero(point._z - _z);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package primitives;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static primitives.Util.hash;
+import static primitives.Util.toUnit;
+
+/**
+ * Pseudo random sampler. Without a seed it draws from the thread local
+ * generator, so there is no contention between the render threads. With a seed
+ * each sample is a SplitMix64 hash of the seed and the sample address, so the
+ * render is reproducible.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class RandomSampler implements Sampler {
+    private final boolean _seeded;
+    private final long _seed;
+
+    //****** CONSTRUCTORS *******/
+
+    /**
+     * Constructor of a sampler that is not reproducible
+     */
+    public RandomSampler() {
+        _seeded = false;
+        _seed = 0;
+    }
+
+    /**
+     * Constructor of a reproducible sampler
+     *
+     * @param seed the seed
+     */
+    public RandomSampler(long seed) {
+        _seeded = true;
+        _seed = seed;
+    }
+
+    //****** GETTERS *******/
+
+    /**
+     * @return true if the sampler is reproducible
+     */
+    public boolean isSeeded() {
+        return _seeded;
+    }
+
+    /**
+     * @return the seed
+     */
+    public long getSeed() {
+        return _seed;
+    }
+
+    //****** FUNCTIONS *******/
+
+    @Override
+    public double get(long sequence, long index, int dimension) {
+        if (!_seeded)
+            return ThreadLocalRandom.current().nextDouble();
+        return toUnit(hash(hash(hash(_seed ^ sequence) + index) + dimension));
+    }
+}
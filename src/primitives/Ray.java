@@ -1,10 +1,10 @@
 package primitives;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
-import static primitives.Util.randomNumber;
+import static primitives.Util.hash;
 
 /**
  * A class that represents a Ray, or a half-line in
@@ -18,6 +18,7 @@ public class Ray {
     private Point3D _point;
     private Vector _vector;
     private static final double DELTA = 0.1;
+    private static final Sampler RANDOM = new RandomSampler();
 
     //****** CONSTRUCTORS *******/
 
@@ -31,8 +32,7 @@ public class Ray {
     public Ray(Point3D point, Vector direction, Vector normal) {
         _vector = direction.normalized();
         double nv = normal.dotProduct(direction);
-        Vector normalDelta = normal.scale((nv > 0 ? DELTA : -DELTA));
-        _point = point.add(normalDelta);
+        _point = new MutableVector(point).addScaled(normal, nv > 0 ? DELTA : -DELTA).toPoint3D();
     }
 
     /**
@@ -74,7 +74,7 @@ public class Ray {
      * @return point in Ray
      */
     public Point3D getPoint(double length) {
-        return Util.isZero(length) ? _point : _point.add(_vector.scale(length));
+        return Util.isZero(length) ? _point : new MutableVector(_point).addScaled(_vector, length).toPoint3D();
     }
 
     /**
@@ -83,37 +83,65 @@ public class Ray {
      * @param n        normal to the surface where the beam starts
      * @param distance distance of target area
      * @param num      amount of rays
+     * @param r        radius of the target area
      * @return list of rays
      */
     public List<Ray> createBeamOfRays(Vector n, double distance, int num, double r) {
+        return createBeamOfRays(n, distance, num, r, RANDOM);
+    }
+
+    /**
+     * Creates beam of rays through the circle of the target area. The samples of
+     * the unit square are mapped to the circle by polar coordinates, so their
+     * distribution is kept. The sequence of samples of the beam is identified by
+     * the ray itself.
+     *
+     * @param n        normal to the surface where the beam starts
+     * @param distance distance of target area
+     * @param num      amount of rays
+     * @param r        radius of the target area
+     * @param sampler  source of the samples
+     * @return list of rays
+     */
+    public List<Ray> createBeamOfRays(Vector n, double distance, int num, double r, Sampler sampler) {
         if (num <= 1 || distance <= 0 || r <= 0) return List.of(this);
-        List<Ray> beam = new LinkedList<>();
+        List<Ray> beam = new ArrayList<>(num);
         beam.add(this);//the original ray that calls the function - there has to be at least one beam
-        if (num == 1)//if no additional rays were requested here  there is nothing else to do in this function
-            return beam;
         Vector w = this._vector.normalToVector();
         Vector v = this._vector.crossProduct(w).normalize();
 
         Point3D center = this.getPoint(distance);
-        Point3D randomP = Point3D.ZERO;
-        double xRandom, yRandom;
+        long sequence = sequenceHash();
         double nDotDirection = alignZero(n.dotProduct(this._vector));
+        MutableVector t = new MutableVector();
         for (int i = 1; i < num; i++) {
-            xRandom = randomNumber(-r, r);
-            yRandom = randomNumber(-r, r);
-            if (xRandom * xRandom + yRandom * yRandom > r * r) continue;
-            if (xRandom != 0)
-                randomP = center.add(w.scale(xRandom));
-            if (yRandom != 0)
-                randomP = center.add(v.scale(yRandom));
-            Vector t = randomP.subtract(this._point);
-            double normalDotT = alignZero(n.dotProduct(t));
+            double radius = r * Math.sqrt(sampler.get(sequence, i - 1, 0));
+            double angle = 2 * Math.PI * sampler.get(sequence, i - 1, 1);
+            // from the ray head to the sample point in the target circle
+            t.set(center).addScaled(w, radius * Math.cos(angle)).addScaled(v, radius * Math.sin(angle))
+                    .subtract(this._point);
+            double normalDotT = alignZero(t.dotProduct(n));
             if (nDotDirection * normalDotT > 0)
-                beam.add(new Ray(this._point, t));
+                beam.add(new Ray(this._point, t.toVector()));
         }
         return beam;
     }
 
+    /**
+     * Hash of the ray head and direction - identifies the sequence of samples of
+     * a beam around the ray
+     *
+     * @return the hash
+     */
+    private long sequenceHash() {
+        long h = hash(Double.doubleToLongBits(_point._x));
+        h = hash(h ^ Double.doubleToLongBits(_point._y));
+        h = hash(h ^ Double.doubleToLongBits(_point._z));
+        h = hash(h ^ Double.doubleToLongBits(_vector._x));
+        h = hash(h ^ Double.doubleToLongBits(_vector._y));
+        return hash(h ^ Double.doubleToLongBits(_vector._z));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
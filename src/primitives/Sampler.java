@@ -0,0 +1,24 @@
+package primitives;
+
+/**
+ * Source of sample values in [0, 1) for the stochastic parts of the renderer -
+ * gloss/blur beams and super sampling.<br/>
+ * A sample is addressed by a sequence (a beam or a pixel, given by a hash), its
+ * index in the sequence and a dimension (e.g. 0 for x and 1 for y), so a
+ * deterministic sampler gives the same samples no matter which thread traces
+ * them and in which order - the render is reproducible.<br/>
+ * The implementations must be thread safe.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public interface Sampler {
+    /**
+     * Get a sample value
+     *
+     * @param sequence  hash of the sequence the sample belongs to
+     * @param index     index of the sample in the sequence (0 based)
+     * @param dimension dimension of the sample (0 based)
+     * @return value in [0, 1)
+     */
+    double get(long sequence, long index, int dimension);
+}
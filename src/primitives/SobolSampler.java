@@ -0,0 +1,64 @@
+package primitives;
+
+import static primitives.Util.hash;
+import static primitives.Util.toUnit;
+
+/**
+ * Sobol low discrepancy sampler of the first two Sobol dimensions, which make
+ * a (0,2)-sequence - every 2^k samples are stratified over the unit square.
+ * Higher dimensions reuse the two, decorrelated by a different random offset
+ * (Cranley-Patterson rotation) of the seed, the sequence hash and the dimension.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class SobolSampler implements Sampler {
+    private static final int BITS = 32;
+    private static final int[] DIRECTIONS = new int[BITS];
+
+    static {
+        // second dimension direction numbers - primitive polynomial x + 1
+        DIRECTIONS[0] = 1 << 31;
+        for (int k = 1; k < BITS; ++k)
+            DIRECTIONS[k] = DIRECTIONS[k - 1] ^ (DIRECTIONS[k - 1] >>> 1);
+    }
+
+    private final long _seed;
+
+    //****** CONSTRUCTORS *******/
+
+    /**
+     * Constructor
+     *
+     * @param seed seed of the rotations
+     */
+    public SobolSampler(long seed) {
+        _seed = seed;
+    }
+
+    //****** GETTERS *******/
+
+    /**
+     * @return the seed
+     */
+    public long getSeed() {
+        return _seed;
+    }
+
+    //****** FUNCTIONS *******/
+
+    @Override
+    public double get(long sequence, long index, int dimension) {
+        int bits = (int) index;
+        if (dimension % 2 == 0)
+            bits = Integer.reverse(bits); // first dimension is the base 2 radical inverse
+        else {
+            int result = 0;
+            for (int k = 0; bits != 0; ++k, bits >>>= 1)
+                if ((bits & 1) != 0)
+                    result ^= DIRECTIONS[k];
+            bits = result;
+        }
+        double value = (bits & 0xFFFFFFFFL) * 0x1.0p-32 + toUnit(hash(hash(_seed ^ sequence) + dimension));
+        return value < 1 ? value : value - 1;
+    }
+}
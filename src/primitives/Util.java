@@ -1,5 +1,7 @@
 package primitives;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Util class is used for some internal utilities, e.g. controlling accuracy
  * 
@@ -50,7 +52,32 @@ public abstract class Util {
      * @return random number[min, max)
      */
     public static double randomNumber(double min, double max) {
-        double random = Math.random() * (max - min) + min;
+        // thread local generator - no contention between the render threads
+        double random = ThreadLocalRandom.current().nextDouble() * (max - min) + min;
         return random;
     }
+
+    /**
+     * Mixes the bits of a number (SplitMix64 finalizer), so that close numbers
+     * get unrelated hashes
+     *
+     * @param value the number
+     * @return the hash
+     */
+    public static long hash(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Maps the high 53 bits of a number to a double in [0, 1)
+     *
+     * @param bits the number
+     * @return number in [0, 1)
+     */
+    public static double toUnit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
 }
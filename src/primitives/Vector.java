@@ -1,12 +1,19 @@
 package primitives;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * A class that represents a vector in 3d space
  *
  * @author David Zimberknopf and Daniel Grunberger
  */
 public class Vector {
-    private Point3D _point;
+    /**
+     * Coordinate values, kept flat (and not as a Point3D object) and
+     * "package-friendly" due to performance constraints
+     */
+    double _x, _y, _z;
 
     //****** CONSTRUCTORS *******/
 
@@ -19,8 +26,10 @@ public class Vector {
      * @param z value
      */
     public Vector(final double x, final double y, final double z) {
-        _point = new Point3D(x, y, z);
-        if (_point.equals(Point3D.ZERO))
+        _x = alignZero(x);
+        _y = alignZero(y);
+        _z = alignZero(z);
+        if (_x == 0 && _y == 0 && _z == 0)
             throw new IllegalArgumentException("Vector cannot be zero");
     }
 
@@ -30,15 +39,45 @@ public class Vector {
      * @param point head point
      */
     public Vector(final Point3D point) {
-        _point = point;
-        if (_point.equals(Point3D.ZERO))
-            throw new IllegalArgumentException("Vector cannot be zero");
+        this(point._x, point._y, point._z);
     }
 
     //****** GETTERS *******/
 
+    /**
+     * Gets the head point of the vector
+     *
+     * @return new Point3D of the vector coordinates
+     */
     public Point3D getPoint() {
-        return _point;
+        return new Point3D(_x, _y, _z);
+    }
+
+    /**
+     * Gets the x coordinate
+     *
+     * @return x value
+     */
+    public double getX() {
+        return _x;
+    }
+
+    /**
+     * Gets the y coordinate
+     *
+     * @return y value
+     */
+    public double getY() {
+        return _y;
+    }
+
+    /**
+     * Gets the z coordinate
+     *
+     * @return z value
+     */
+    public double getZ() {
+        return _z;
     }
 
     //****** FUNCTIONS *******/
@@ -50,9 +89,7 @@ public class Vector {
      * @return new Vector [other + this]
      */
     public Vector add(Vector other) {
-        return new Vector(_point._x._coord + other._point._x._coord,
-                _point._y._coord + other._point._y._coord,
-                _point._z._coord + other._point._z._coord);
+        return new Vector(_x + other._x, _y + other._y, _z + other._z);
     }
 
     /**
@@ -62,9 +99,7 @@ public class Vector {
      * @return new Vector [this - other]
      */
     public Vector subtract(Vector other) {
-        return new Vector(_point._x._coord - other._point._x._coord,
-                _point._y._coord - other._point._y._coord,
-                _point._z._coord - other._point._z._coord);
+        return new Vector(_x - other._x, _y - other._y, _z - other._z);
     }
 
     /**
@@ -74,8 +109,7 @@ public class Vector {
      * @return new Vector [constant * this]
      */
     public Vector scale(double constant) {
-        return new Vector(_point._x._coord * constant, _point._y._coord * constant,
-                _point._z._coord * constant);
+        return new Vector(_x * constant, _y * constant, _z * constant);
     }
 
     /**
@@ -85,13 +119,7 @@ public class Vector {
      * @return double - dot product of the vectors [this (.) other]
      */
     public double dotProduct(Vector other) {
-        double x1 = _point._x._coord;
-        double y1 = _point._y._coord;
-        double z1 = _point._z._coord;
-        double x2 = other._point._x._coord;
-        double y2 = other._point._y._coord;
-        double z2 = other._point._z._coord;
-        return x1 * x2 + y1 * y2 + z1 * z2;
+        return _x * other._x + _y * other._y + _z * other._z;
     }
 
     /**
@@ -101,12 +129,12 @@ public class Vector {
      * @return new Vector
      */
     public Vector crossProduct(Vector other) {
-        double x1 = _point._x._coord;
-        double y1 = _point._y._coord;
-        double z1 = _point._z._coord;
-        double x2 = other._point._x._coord;
-        double y2 = other._point._y._coord;
-        double z2 = other._point._z._coord;
+        double x1 = _x;
+        double y1 = _y;
+        double z1 = _z;
+        double x2 = other._x;
+        double y2 = other._y;
+        double z2 = other._z;
         double newX = y1 * z2 - z1 * y2;
         double newY = z1 * x2 - x1 * z2;
         double newZ = x1 * y2 - y1 * x2;
@@ -120,7 +148,7 @@ public class Vector {
      * @return Squared length of the vector
      */
     public double lengthSquared() {
-        return _point._x._coord * _point._x._coord + _point._y._coord * _point._y._coord + _point._z._coord * _point._z._coord;
+        return _x * _x + _y * _y + _z * _z;
     }
 
     /**
@@ -139,7 +167,9 @@ public class Vector {
      */
     public Vector normalize() {
         double len = this.length();
-        _point = new Point3D(_point._x._coord / len, _point._y._coord / len, _point._z._coord / len);
+        _x = alignZero(_x / len);
+        _y = alignZero(_y / len);
+        _z = alignZero(_z / len);
         return this;
     }
 
@@ -149,7 +179,7 @@ public class Vector {
      * @return new normalized copy of this Vector
      */
     public Vector normalized() {
-        return new Vector(_point).normalize();
+        return new Vector(_x, _y, _z).normalize();
     }
 
     /**
@@ -159,30 +189,30 @@ public class Vector {
      */
     public Vector normalToVector() {
         double coordinate;
-        if (this._point._x._coord > 0) {
-            coordinate = this._point._x._coord;
+        if (_x > 0) {
+            coordinate = _x;
         } else
-            coordinate = -this._point._x._coord;
-        if (Math.abs(this._point._y._coord) < coordinate) {
-            if (this._point._y._coord > 0)
-                coordinate = this._point._y._coord;
+            coordinate = -_x;
+        if (Math.abs(_y) < coordinate) {
+            if (_y > 0)
+                coordinate = _y;
             else
-                coordinate = -this._point._y._coord;
+                coordinate = -_y;
         }
-        if (Math.abs(this._point._z._coord) < coordinate) {
+        if (Math.abs(_z) < coordinate) {
             coordinate = 2;//last coordinate that we are checking so no need to reassign coordinate
         }
         if (coordinate == 0)//x is the smallest
-            return new Vector(0, -this._point._z._coord, this._point._y._coord).normalize();
+            return new Vector(0, -_z, _y).normalize();
         if (coordinate == 1)//y is the the smallest
-            return new Vector(-this._point._z._coord, 0, this._point._x._coord).normalize();
+            return new Vector(-_z, 0, _x).normalize();
         //z is the smallest
-        return new Vector(this._point._y._coord, -this._point._x._coord, 0).normalize();
+        return new Vector(_y, -_x, 0).normalize();
     }
 
     @Override
     public String toString() {
-        return "Vector:\n - " + this._point.toString();
+        return "Vector:\n - " + getPoint();
     }
 
     @Override
@@ -193,7 +223,7 @@ public class Vector {
         if (!(obj instanceof Vector))
             return false;
         Vector vector = (Vector) obj;
-        return _point.equals(vector._point);
+        return isZero(_x - vector._x) && isZero(_y - vector._y) && isZero(_z - vector._z);
     }
 
 }
\ No newline at end of file
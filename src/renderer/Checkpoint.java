@@ -0,0 +1,281 @@
+package renderer;
+
+import primitives.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Render checkpoint - the render configuration and the pixels of the complete
+ * tiles. The first checkpoint of a render is written to a temporary file which
+ * then replaces the checkpoint file, so a crash while writing leaves the
+ * previous checkpoint. The file is kept open, and each following checkpoint
+ * appends only the tiles that were complete since the last one and then
+ * updates the amount of tiles in the header in place - tiles that were
+ * appended after the amount are ignored, so a crash while appending leaves the
+ * last checkpoint.<br/>
+ * File layout (big endian): magic, version, nX, nY, tile size, super sampling
+ * rays, gloss/blur rays, adaptive super sampling threshold, adaptive gloss/blur
+ * flag, sampler type and seed, amount of complete tiles, and for each tile its
+ * index and the float RGB components of its pixels row after row.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+class Checkpoint {
+    private static final int MAGIC = 0x52544350; // "RTCP"
+    private static final int VERSION = 2;
+    private static final int COUNT_OFFSET = 46; // offset of the amount of tiles in the header
+    private static final int BUFFER_SIZE = 1 << 20;
+    // sampler types
+    private static final byte NO_SAMPLER = 0;
+    private static final byte RANDOM = 1;
+    private static final byte SEEDED_RANDOM = 2;
+    private static final byte HALTON = 3;
+    private static final byte SOBOL = 4;
+
+    final int tileSize;
+    final int numOfSampleRays;
+    final int numOfGlossBlurRays;
+    final double adaptiveThreshold;
+    final boolean adaptiveGlossBlur;
+    final Sampler sampler;
+    final BitSet tiles = new BitSet(); // complete tiles of a checkpoint that was read, or that were written
+
+    private FileChannel _channel = null; // the checkpoint file, open since the first write
+    private long _end = 0; // end of the tiles in the file
+    private ByteBuffer _buffer = null;
+    private float[] _row = null;
+
+    /**
+     * Constructor of the configuration of a render
+     *
+     * @param tileSize           tile width and height in pixels
+     * @param numOfSampleRays    super sampling rays
+     * @param numOfGlossBlurRays gloss/blur rays
+     * @param adaptiveThreshold  adaptive super sampling threshold (0 if off)
+     * @param adaptiveGlossBlur  adaptive gloss/blur flag
+     * @param sampler            the sampler (may be null)
+     */
+    Checkpoint(int tileSize, int numOfSampleRays, int numOfGlossBlurRays, double adaptiveThreshold,
+               boolean adaptiveGlossBlur, Sampler sampler) {
+        this.tileSize = tileSize;
+        this.numOfSampleRays = numOfSampleRays;
+        this.numOfGlossBlurRays = numOfGlossBlurRays;
+        this.adaptiveThreshold = adaptiveThreshold;
+        this.adaptiveGlossBlur = adaptiveGlossBlur;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Write the checkpoint - the whole checkpoint on the first call, and only
+     * the tiles that were complete since the last call afterwards. The pixels
+     * are read from the frame buffer row by row without creating colors. A
+     * failed write may be tried again.
+     *
+     * @param file        the checkpoint file
+     * @param imageWriter the image writer with the pixels
+     * @param done        tells whether a tile is complete
+     * @throws IOException on a write error
+     */
+    void write(Path file, ImageWriter imageWriter, IntPredicate done) throws IOException {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        int tilesInRow = (nX + tileSize - 1) / tileSize;
+        int count = tilesInRow * ((nY + tileSize - 1) / tileSize);
+        BitSet added = new BitSet(count);
+        for (int tile = 0; tile < count; ++tile)
+            if (!tiles.get(tile) && done.test(tile))
+                added.set(tile);
+        if (_channel != null && added.isEmpty())
+            return;
+        if (_buffer == null) {
+            _buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, 4 + 12 * tileSize * tileSize));
+            _row = new float[3 * tileSize];
+        }
+
+        if (_channel == null) {
+            Path temp = Paths.get(file + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                _buffer.clear();
+                _buffer.putInt(MAGIC).putInt(VERSION).putInt(nX).putInt(nY).putInt(tileSize).putInt(numOfSampleRays)
+                        .putInt(numOfGlossBlurRays).putDouble(adaptiveThreshold).put((byte) (adaptiveGlossBlur ? 1 : 0));
+                putSampler(_buffer);
+                _buffer.putInt(added.cardinality());
+                _end = putTiles(channel, 0, added, imageWriter, tilesInRow);
+                channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            _channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        } else {
+            _buffer.clear();
+            long end = putTiles(_channel, _end, added, imageWriter, tilesInRow);
+            _channel.force(false);
+            // the new tiles are part of the checkpoint only after the amount is updated
+            _buffer.clear();
+            _buffer.putInt(tiles.cardinality() + added.cardinality()).flip();
+            while (_buffer.hasRemaining())
+                _channel.write(_buffer, COUNT_OFFSET + _buffer.position());
+            _channel.force(false);
+            _end = end;
+        }
+        tiles.or(added);
+    }
+
+    /**
+     * Write tiles after the content of the buffer
+     *
+     * @param channel     the file
+     * @param position    the position in the file of the start of the buffer
+     * @param added       the tiles to write
+     * @param imageWriter the image writer with the pixels
+     * @param tilesInRow  amount of tiles in a row of tiles
+     * @return the position of the end of the tiles in the file
+     * @throws IOException on a write error
+     */
+    private long putTiles(FileChannel channel, long position, BitSet added, ImageWriter imageWriter, int tilesInRow)
+            throws IOException {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        for (int tile = added.nextSetBit(0); tile >= 0; tile = added.nextSetBit(tile + 1)) {
+            int firstRow = tile / tilesInRow * tileSize;
+            int firstCol = tile % tilesInRow * tileSize;
+            int width = Math.min(firstCol + tileSize, nX) - firstCol;
+            int height = Math.min(firstRow + tileSize, nY) - firstRow;
+            if (_buffer.remaining() < 4 + 12 * width * height)
+                position = flush(channel, position);
+            _buffer.putInt(tile);
+            for (int row = firstRow; row < firstRow + height; ++row) {
+                imageWriter.readPixels(firstCol, row, width, _row);
+                _buffer.asFloatBuffer().put(_row, 0, 3 * width);
+                _buffer.position(_buffer.position() + 12 * width);
+            }
+        }
+        return flush(channel, position);
+    }
+
+    /**
+     * Write the content of the buffer and clear it
+     *
+     * @param channel  the file
+     * @param position the position in the file of the start of the buffer
+     * @return the position in the file after the content
+     * @throws IOException on a write error
+     */
+    private long flush(FileChannel channel, long position) throws IOException {
+        _buffer.flip();
+        while (_buffer.hasRemaining())
+            position += channel.write(_buffer, position);
+        _buffer.clear();
+        return position;
+    }
+
+    /**
+     * Close the checkpoint file. Every checkpoint was forced to the disk when
+     * it was written, so an error on closing loses nothing.
+     */
+    void close() {
+        if (_channel == null)
+            return;
+        try {
+            _channel.close();
+        } catch (IOException e) {
+            // the checkpoint is complete on the disk
+        }
+        _channel = null;
+    }
+
+    /**
+     * Read a checkpoint - the pixels of the complete tiles are written to the
+     * image writer
+     *
+     * @param file        the checkpoint file
+     * @param imageWriter the image writer of the resolution of the checkpoint
+     * @return the checkpoint with the configuration and the complete tiles
+     * @throws IOException on a read error
+     */
+    static Checkpoint read(Path file, ImageWriter imageWriter) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file.toFile()), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IllegalArgumentException("Not a render checkpoint file");
+            int nX = in.readInt();
+            int nY = in.readInt();
+            if (nX != imageWriter.getNx() || nY != imageWriter.getNy())
+                throw new IllegalArgumentException("The checkpoint has a different resolution");
+            Checkpoint checkpoint = new Checkpoint(in.readInt(), in.readInt(), in.readInt(), in.readDouble(),
+                    in.readBoolean(), readSampler(in));
+
+            int tileSize = checkpoint.tileSize;
+            int tilesInRow = (nX + tileSize - 1) / tileSize;
+            for (int count = in.readInt(); count > 0; --count) {
+                int tile = in.readInt();
+                checkpoint.tiles.set(tile);
+                int firstRow = tile / tilesInRow * tileSize;
+                int firstCol = tile % tilesInRow * tileSize;
+                for (int row = firstRow; row < Math.min(firstRow + tileSize, nY); ++row)
+                    for (int col = firstCol; col < Math.min(firstCol + tileSize, nX); ++col)
+                        imageWriter.writePixel(col, row, new Color(in.readFloat(), in.readFloat(), in.readFloat()));
+            }
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Put the type and the seed of the sampler. A sampler of another type is
+     * not kept.
+     *
+     * @param buffer the buffer
+     */
+    private void putSampler(ByteBuffer buffer) {
+        if (sampler instanceof RandomSampler) {
+            RandomSampler random = (RandomSampler) sampler;
+            buffer.put(random.isSeeded() ? SEEDED_RANDOM : RANDOM);
+            buffer.putLong(random.getSeed());
+        } else if (sampler instanceof HaltonSampler) {
+            buffer.put(HALTON);
+            buffer.putLong(((HaltonSampler) sampler).getSeed());
+        } else if (sampler instanceof SobolSampler) {
+            buffer.put(SOBOL);
+            buffer.putLong(((SobolSampler) sampler).getSeed());
+        } else {
+            buffer.put(NO_SAMPLER);
+            buffer.putLong(0);
+        }
+    }
+
+    /**
+     * Read a sampler that was put by {@link #putSampler(ByteBuffer)}
+     *
+     * @param in the stream
+     * @return the sampler, null if there was none
+     * @throws IOException on a read error
+     */
+    private static Sampler readSampler(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        long seed = in.readLong();
+        switch (type) {
+            case RANDOM:
+                return new RandomSampler();
+            case SEEDED_RANDOM:
+                return new RandomSampler(seed);
+            case HALTON:
+                return new HaltonSampler(seed);
+            case SOBOL:
+                return new SobolSampler(seed);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package renderer;
+
+import geometries.BoundingBox;
+import geometries.Intersectables;
+import primitives.Ray;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator of a geometry that counts its intersection tests, for
+ * {@link RenderStats}. The intersection points keep the geometry itself.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+class CountingIntersectables implements Intersectables {
+    private final Intersectables _geometry;
+    private final LongAdder _tests;
+
+    /**
+     * Constructor of the decorator
+     *
+     * @param geometry the geometry
+     * @param stats    the statistics of the render
+     */
+    CountingIntersectables(Intersectables geometry, RenderStats stats) {
+        _geometry = geometry;
+        _tests = stats.getIntersectionCounter(geometry.getClass());
+    }
+
+    @Override
+    public List<GeoPoint> findIntersections(Ray ray, double maxDistance) {
+        _tests.increment();
+        return _geometry.findIntersections(ray, maxDistance);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        _tests.increment();
+        return _geometry.findClosestIntersection(ray, maxDistance);
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        _tests.increment();
+        return _geometry.findTransparency(ray, maxDistance, minK);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _geometry.getBoundingBox();
+    }
+}
@@ -0,0 +1,88 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Storage of the pixel colors of an ImageWriter until they are written to the
+ * image file. The colors are float RGB components without upper limit. Different
+ * pixels may be written by different threads at the same time.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+interface FrameBuffer {
+    /**
+     * Write the color of a pixel
+     *
+     * @param x X axis index of the pixel
+     * @param y Y axis index of the pixel
+     * @param r red component
+     * @param g green component
+     * @param b blue component
+     */
+    void write(int x, int y, float r, float g, float b);
+
+    /**
+     * Read the color of a pixel
+     *
+     * @param x X axis index of the pixel
+     * @param y Y axis index of the pixel
+     * @return the color
+     */
+    Color read(int x, int y);
+
+    /**
+     * Read the float RGB components of consecutive pixels of a row
+     *
+     * @param x      X axis index of the first pixel
+     * @param y      Y axis index of the pixels
+     * @param count  amount of pixels
+     * @param target the array of the components, three for each pixel
+     */
+    default void readRow(int x, int y, int count, float[] target) {
+        for (int i = 0; i < count; ++i) {
+            Color color = read(x + i, y);
+            target[3 * i] = (float) color.getRed();
+            target[3 * i + 1] = (float) color.getGreen();
+            target[3 * i + 2] = (float) color.getBlue();
+        }
+    }
+
+    /**
+     * Write the image to a PNG file
+     *
+     * @param file        the file
+     * @param toneMapping the tone mapping of the colors
+     * @throws IOException on a write error
+     */
+    void writeToImage(File file, ToneMapping toneMapping) throws IOException;
+
+    /**
+     * Tile size of a frame buffer that keeps track of the complete tiles
+     *
+     * @return the tile size, or 0 if the frame buffer does not keep track of tiles
+     */
+    default int getTileSize() {
+        return 0;
+    }
+
+    /**
+     * Check whether a tile is complete
+     *
+     * @param tile tile index, row after row of tiles
+     * @return true if the tile was complete
+     */
+    default boolean isTileDone(int tile) {
+        return false;
+    }
+
+    /**
+     * Mark a tile as complete - after all its pixels were written
+     *
+     * @param tile tile index, row after row of tiles
+     */
+    default void setTileDone(int tile) {
+    }
+}
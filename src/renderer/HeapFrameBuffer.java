@@ -0,0 +1,67 @@
+package renderer;
+
+import primitives.Color;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+/**
+ * Frame buffer of the whole image in a single float array on the heap. The
+ * colors are quantized only when the image is written - in bulk, by parallel
+ * rows.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+class HeapFrameBuffer implements FrameBuffer {
+    private final int _nX;
+    private final int _nY;
+    private final float[] _pixels; // RGB components of pixel (x, y) start at 3 * (y * nX + x)
+
+    /**
+     * Constructor
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    HeapFrameBuffer(int nX, int nY) {
+        _nX = nX;
+        _nY = nY;
+        _pixels = new float[3 * nX * nY];
+    }
+
+    @Override
+    public void write(int x, int y, float r, float g, float b) {
+        int i = 3 * (y * _nX + x);
+        _pixels[i] = r;
+        _pixels[i + 1] = g;
+        _pixels[i + 2] = b;
+    }
+
+    @Override
+    public Color read(int x, int y) {
+        int i = 3 * (y * _nX + x);
+        return new Color(_pixels[i], _pixels[i + 1], _pixels[i + 2]);
+    }
+
+    @Override
+    public void readRow(int x, int y, int count, float[] target) {
+        System.arraycopy(_pixels, 3 * (y * _nX + x), target, 0, 3 * count);
+    }
+
+    @Override
+    public void writeToImage(File file, ToneMapping toneMapping) throws IOException {
+        BufferedImage image = new BufferedImage(_nX, _nY, BufferedImage.TYPE_INT_RGB);
+        int[] rgb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        IntStream.range(0, _nY).parallel().forEach(y -> {
+            for (int p = y * _nX, end = p + _nX; p < end; ++p) {
+                int i = 3 * p;
+                rgb[p] = toneMapping.rgb(_pixels[i], _pixels[i + 1], _pixels[i + 2]);
+            }
+        });
+        ImageIO.write(image, "png", file);
+    }
+}
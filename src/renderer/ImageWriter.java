@@ -1,10 +1,12 @@
 package renderer;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
+import primitives.Color;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -12,7 +14,13 @@ import java.util.logging.Logger;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution<br/>
+ * The pixels are kept as float RGB components without upper limit (high
+ * dynamic range) in a frame buffer, and they are quantized to the image only
+ * when it is written, by the tone mapping. By default the frame buffer is a
+ * single array of the whole image; in streaming mode the rows are written to
+ * the file by bands as soon as they are complete, and a mapped frame buffer
+ * keeps the pixels in a file out of the heap.
  *
  * @author Dan
  */
@@ -22,8 +30,12 @@ public class ImageWriter {
 
     private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
-    private BufferedImage _image;
     private String _imageName;
+    private ToneMapping _toneMapping = ToneMapping.CLAMP;
+    private int _bandHeight = 0; // the whole image is kept in memory when 0
+    private Path _mappedFile = null;
+    private int _mappedTileSize = 0;
+    private volatile FrameBuffer _frameBuffer = null; // created when the first pixel is written
 
     private Logger _logger = Logger.getLogger("ImageWriter");
 
@@ -44,8 +56,6 @@ public class ImageWriter {
         _imageHeight = height;
         _nX = nX;
         _nY = nY;
-
-        _image = new BufferedImage(_nX, _nY, BufferedImage.TYPE_INT_RGB);
     }
 
     // ***************** Getters/Setters ********************** //
@@ -85,6 +95,91 @@ public class ImageWriter {
         return _nX;
     }
 
+    /**
+     * Set the tone mapping of the pixel colors to the image
+     *
+     * @param toneMapping the tone mapping
+     * @return the ImageWriter object itself
+     */
+    public ImageWriter setToneMapping(ToneMapping toneMapping) {
+        _toneMapping = toneMapping;
+        return this;
+    }
+
+    /**
+     * Set streaming mode - the image file is written by bands of rows as soon as
+     * all the pixels of a band (and the bands above it) were written, so only
+     * the bands in progress are kept in memory. Each pixel must be written
+     * exactly once. Must be set (with the tone mapping) before writing pixels.
+     *
+     * @param bandHeight amount of rows in a band, e.g. the render tile size
+     * @return the ImageWriter object itself
+     */
+    public ImageWriter setStreaming(int bandHeight) {
+        if (bandHeight <= 0)
+            throw new IllegalArgumentException("Band height must be positive");
+        if (_frameBuffer != null)
+            throw new IllegalStateException("Streaming must be set before writing pixels");
+        _bandHeight = bandHeight;
+        _mappedFile = null;
+        return this;
+    }
+
+    /**
+     * Keep the pixels in a memory mapped file instead of the heap. The file
+     * records which tiles of the render are complete: if it exists with the
+     * same resolution, it is reopened with its pixels and its own tile size, and
+     * the render skips the complete tiles (resume after a crash). The file is
+     * left in place after the image is written. Must be set before writing
+     * pixels.
+     *
+     * @param fileName the frame buffer file
+     * @param tileSize tile width and height in pixels of a new file
+     * @return the ImageWriter object itself
+     */
+    public ImageWriter setMappedFile(String fileName, int tileSize) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        if (_frameBuffer != null)
+            throw new IllegalStateException("Mapped file must be set before writing pixels");
+        _mappedFile = Paths.get(fileName);
+        _mappedTileSize = tileSize;
+        _bandHeight = 0;
+        return this;
+    }
+
+    /**
+     * Pixel color getter
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the color of the pixel, before tone mapping
+     */
+    public Color getPixel(int xIndex, int yIndex) {
+        return getFrameBuffer().read(xIndex, yIndex);
+    }
+
+    /**
+     * Read the float RGB components of consecutive pixels of a row, before tone
+     * mapping, without creating colors
+     *
+     * @param xIndex X axis index of the first pixel
+     * @param yIndex Y axis index of the pixels
+     * @param count  amount of pixels
+     * @param target the array of the components, three for each pixel
+     */
+    void readPixels(int xIndex, int yIndex, int count, float[] target) {
+        getFrameBuffer().readRow(xIndex, yIndex, count, target);
+    }
+
+    /**
+     * @return true if the image is written in streaming mode, so the pixels of
+     * the complete bands can't be read back
+     */
+    boolean isStreaming() {
+        return _bandHeight != 0;
+    }
+
     // ***************** Operations ******************** //
 
     /**
@@ -93,8 +188,7 @@ public class ImageWriter {
      */
     public void writeToImage() {
         try {
-            File file = new File(FOLDER_PATH + '/' + _imageName + ".png");
-            ImageIO.write(_image, "png", file);
+            getFrameBuffer().writeToImage(getFile(), _toneMapping);
         } catch (IOException e) {
             _logger.log(Level.SEVERE, "I/O error", e);
         }
@@ -108,8 +202,81 @@ public class ImageWriter {
      * @param yIndex Y axis index of the pixel
      * @param color  final color of the pixel
      */
+    public void writePixel(int xIndex, int yIndex, java.awt.Color color) {
+        getFrameBuffer().write(xIndex, yIndex, color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    /**
+     * The function writePixel writes a color of a specific pixel into pixel color
+     * matrix, keeping its full range
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  final color of the pixel
+     */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        _image.setRGB(xIndex, yIndex, color.getRGB());
+        getFrameBuffer().write(xIndex, yIndex, (float) color.getRed(), (float) color.getGreen(), (float) color.getBlue());
+    }
+
+    /**
+     * Tile size of the frame buffer if it keeps track of the complete tiles
+     *
+     * @return the tile size, or 0 if it does not
+     */
+    int getTileSize() {
+        return getFrameBuffer().getTileSize();
+    }
+
+    /**
+     * Check whether a tile is complete in the frame buffer
+     *
+     * @param tile tile index, row after row of tiles
+     * @return true if the tile was complete
+     */
+    boolean isTileDone(int tile) {
+        return getFrameBuffer().isTileDone(tile);
+    }
+
+    /**
+     * Mark a tile as complete in the frame buffer
+     *
+     * @param tile tile index, row after row of tiles
+     */
+    void setTileDone(int tile) {
+        getFrameBuffer().setTileDone(tile);
+    }
+
+    /**
+     * @return the image file
+     */
+    private File getFile() {
+        return new File(FOLDER_PATH + '/' + _imageName + ".png");
+    }
+
+    /**
+     * Get the frame buffer - create it on the first call
+     *
+     * @return the frame buffer
+     */
+    private FrameBuffer getFrameBuffer() {
+        FrameBuffer frameBuffer = _frameBuffer;
+        if (frameBuffer == null)
+            synchronized (this) {
+                frameBuffer = _frameBuffer;
+                if (frameBuffer == null)
+                    try {
+                        if (_mappedFile != null)
+                            frameBuffer = new MappedFrameBuffer(_mappedFile, _nX, _nY, _mappedTileSize);
+                        else if (_bandHeight != 0)
+                            frameBuffer = new StreamingFrameBuffer(getFile(), _nX, _nY, _bandHeight, _toneMapping);
+                        else
+                            frameBuffer = new HeapFrameBuffer(_nX, _nY);
+                        _frameBuffer = frameBuffer;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+            }
+        return frameBuffer;
     }
 
 }
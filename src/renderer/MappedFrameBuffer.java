@@ -0,0 +1,163 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Frame buffer in a memory mapped file - the pixels are out of the Java heap,
+ * and the written pixels survive a crash of the JVM. The file starts with a
+ * header of the resolution and the tile size and a flag of each tile, which is
+ * set when the tile is complete, so a render can be resumed by skipping the
+ * complete tiles.<br/>
+ * File layout (big endian): magic, version, nX, nY, tile size, amount of tiles
+ * (ints), a byte per tile, and from a 64 bytes aligned offset the float RGB
+ * components of the pixels, row after row. Files bigger than a single mapping
+ * are mapped by segments of rows.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+class MappedFrameBuffer implements FrameBuffer {
+    private static final int MAGIC = 0x52544642; // "RTFB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int PIXEL_SIZE = 12; // three floats
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final int BAND_HEIGHT = 64; // rows encoded together when the image is written
+
+    private final int _nX;
+    private final int _nY;
+    private final int _tileSize;
+    private final int _tiles;
+    private final int _rowsInSegment;
+    private final MappedByteBuffer _header;
+    private final MappedByteBuffer[] _segments;
+
+    /**
+     * Constructor - opens the file. If it is a frame buffer file of the same
+     * resolution, it is reused with its tile size and its complete tiles;
+     * otherwise a new frame buffer is created in the file.
+     *
+     * @param file     the file
+     * @param nX       amount of pixels by width
+     * @param nY       amount of pixels by height
+     * @param tileSize the tile size of a new frame buffer
+     * @throws IOException on a file error
+     */
+    MappedFrameBuffer(Path file, int nX, int nY, int tileSize) throws IOException {
+        _nX = nX;
+        _nY = nY;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            boolean reuse = false;
+            if (channel.size() >= HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() == MAGIC && header.getInt() == VERSION) {
+                    if (header.getInt() != nX || header.getInt() != nY)
+                        throw new IllegalArgumentException("The frame buffer file has a different resolution");
+                    tileSize = header.getInt();
+                    reuse = true;
+                }
+            }
+            if (!reuse)
+                channel.truncate(0);
+
+            _tileSize = tileSize;
+            _tiles = ((nX + tileSize - 1) / tileSize) * ((nY + tileSize - 1) / tileSize);
+            long dataOffset = (HEADER_SIZE + _tiles + 63) / 64 * 64;
+            _header = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataOffset);
+
+            _rowsInSegment = Math.max(1, SEGMENT_SIZE / (PIXEL_SIZE * nX));
+            _segments = new MappedByteBuffer[(nY + _rowsInSegment - 1) / _rowsInSegment];
+            for (int s = 0; s < _segments.length; ++s) {
+                long rows = Math.min(_rowsInSegment, nY - (long) s * _rowsInSegment);
+                _segments[s] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        dataOffset + (long) s * _rowsInSegment * nX * PIXEL_SIZE, rows * nX * PIXEL_SIZE);
+            }
+
+            if (!reuse) {
+                _header.putInt(4, VERSION).putInt(8, nX).putInt(12, nY).putInt(16, tileSize).putInt(20, _tiles);
+                _header.putInt(0, MAGIC); // the header is valid only when it is complete
+            }
+        }
+    }
+
+    @Override
+    public void write(int x, int y, float r, float g, float b) {
+        MappedByteBuffer segment = _segments[y / _rowsInSegment];
+        int i = ((y % _rowsInSegment) * _nX + x) * PIXEL_SIZE;
+        segment.putFloat(i, r);
+        segment.putFloat(i + 4, g);
+        segment.putFloat(i + 8, b);
+    }
+
+    @Override
+    public Color read(int x, int y) {
+        MappedByteBuffer segment = _segments[y / _rowsInSegment];
+        int i = ((y % _rowsInSegment) * _nX + x) * PIXEL_SIZE;
+        return new Color(segment.getFloat(i), segment.getFloat(i + 4), segment.getFloat(i + 8));
+    }
+
+    @Override
+    public void readRow(int x, int y, int count, float[] target) {
+        MappedByteBuffer segment = _segments[y / _rowsInSegment];
+        int i = ((y % _rowsInSegment) * _nX + x) * PIXEL_SIZE;
+        // a view of its own, so other threads may read and write the segment
+        segment.duplicate().position(i).asFloatBuffer().get(target, 0, 3 * count);
+    }
+
+    @Override
+    public int getTileSize() {
+        return _tileSize;
+    }
+
+    @Override
+    public boolean isTileDone(int tile) {
+        return _header.get(HEADER_SIZE + tile) != 0;
+    }
+
+    @Override
+    public void setTileDone(int tile) {
+        _header.put(HEADER_SIZE + tile, (byte) 1);
+    }
+
+    /**
+     * Write the image to a PNG file by bands of rows, so the image is never
+     * loaded to the heap. The mapped file is flushed to the disk first.
+     *
+     * @param file        the file
+     * @param toneMapping the tone mapping of the colors
+     * @throws IOException on a write error
+     */
+    @Override
+    public void writeToImage(File file, ToneMapping toneMapping) throws IOException {
+        for (MappedByteBuffer segment : _segments)
+            segment.force();
+        _header.force();
+        try (PngEncoder encoder = new PngEncoder(new FileOutputStream(file), _nX, _nY)) {
+            int[] rgb = new int[BAND_HEIGHT * _nX];
+            for (int first = 0; first < _nY; first += BAND_HEIGHT) {
+                int band = first;
+                int rows = Math.min(BAND_HEIGHT, _nY - first);
+                IntStream.range(0, rows).parallel().forEach(row -> {
+                    for (int x = 0; x < _nX; ++x) {
+                        Color color = read(x, band + row);
+                        rgb[row * _nX + x] = toneMapping.rgb((float) color.getRed(), (float) color.getGreen(),
+                                (float) color.getBlue());
+                    }
+                });
+                encoder.writeRows(rgb, 0, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package renderer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming PNG encoder of 8 bit RGB images. The rows are given in order in
+ * bands, and each band is written to the stream right away, so only the band
+ * is kept in memory and not the whole image.<br/>
+ * The rows of a band are split to chunks that are filtered and compressed in
+ * parallel, each by its own raw deflater ending with a sync flush. The
+ * compressed chunks are concatenated to the single zlib stream of the image,
+ * one IDAT chunk each.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class PngEncoder implements Closeable {
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C}; // deflate, 32K window, default level
+    private static final byte[] FINAL_BLOCK = {3, 0}; // empty final block with fixed Huffman codes
+    private static final int ROWS_PER_CHUNK = 16;
+    private static final byte FILTER_SUB = 1; // each byte is stored as the difference from the byte of the left pixel
+
+    private final DataOutputStream _out;
+    private final int _width;
+    private final int _height;
+    private final Adler32 _adler = new Adler32();
+    private int _rows = 0;
+    private boolean _headerWritten = false;
+
+    // ***************** Constructors ********************** //
+
+    /**
+     * Constructor - writes the PNG signature and header to the stream
+     *
+     * @param out    the output stream - it is closed with the encoder
+     * @param width  image width in pixels
+     * @param height image height in pixels
+     * @throws IOException on a write error
+     */
+    public PngEncoder(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Image size must be positive");
+        _out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        _width = width;
+        _height = height;
+
+        _out.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream data = new DataOutputStream(header);
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeByte(8); // bit depth
+        data.writeByte(2); // color type RGB
+        data.writeByte(0); // compression method
+        data.writeByte(0); // filter method
+        data.writeByte(0); // no interlace
+        writeChunk("IHDR", header.toByteArray());
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Encode the next rows of the image
+     *
+     * @param rgb    pixels packed as 0xRRGGBB, row after row
+     * @param offset index of the first pixel in the array
+     * @param rows   amount of rows
+     * @throws IOException on a write error
+     */
+    public void writeRows(int[] rgb, int offset, int rows) throws IOException {
+        if (_rows + rows > _height)
+            throw new IllegalArgumentException("More rows than the image height");
+        int chunks = (rows + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK;
+        byte[][] raw = new byte[chunks][];
+        byte[][] compressed = new byte[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int first = c * ROWS_PER_CHUNK;
+            raw[c] = filter(rgb, offset + first * _width, Math.min(ROWS_PER_CHUNK, rows - first));
+            compressed[c] = deflate(raw[c]);
+        });
+
+        for (int c = 0; c < chunks; ++c) {
+            _adler.update(raw[c], 0, raw[c].length);
+            if (_headerWritten)
+                writeChunk("IDAT", compressed[c]);
+            else {
+                // the zlib header opens the first IDAT chunk
+                byte[] data = new byte[ZLIB_HEADER.length + compressed[c].length];
+                System.arraycopy(ZLIB_HEADER, 0, data, 0, ZLIB_HEADER.length);
+                System.arraycopy(compressed[c], 0, data, ZLIB_HEADER.length, compressed[c].length);
+                writeChunk("IDAT", data);
+                _headerWritten = true;
+            }
+        }
+        _rows += rows;
+    }
+
+    /**
+     * Finish the zlib stream and the image and close the stream. Missing rows
+     * are written black.
+     *
+     * @throws IOException on a write error
+     */
+    @Override
+    public void close() throws IOException {
+        if (_rows < _height)
+            writeRows(new int[_width * (_height - _rows)], 0, _height - _rows);
+        long adler = _adler.getValue();
+        writeChunk("IDAT", new byte[]{FINAL_BLOCK[0], FINAL_BLOCK[1],
+                (byte) (adler >>> 24), (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler});
+        writeChunk("IEND", new byte[0]);
+        _out.close();
+    }
+
+    /**
+     * Build the raw (filtered) bytes of rows - each row starts with its filter type
+     *
+     * @param rgb    pixels packed as 0xRRGGBB
+     * @param offset index of the first pixel of the rows
+     * @param rows   amount of rows
+     * @return the bytes
+     */
+    private byte[] filter(int[] rgb, int offset, int rows) {
+        int rowBytes = 1 + 3 * _width;
+        byte[] raw = new byte[rows * rowBytes];
+        for (int row = 0; row < rows; ++row) {
+            int i = row * rowBytes;
+            raw[i++] = FILTER_SUB;
+            int left = 0;
+            for (int p = offset + row * _width, end = p + _width; p < end; ++p) {
+                int pixel = rgb[p];
+                raw[i++] = (byte) ((pixel >>> 16) - (left >>> 16));
+                raw[i++] = (byte) ((pixel >>> 8) - (left >>> 8));
+                raw[i++] = (byte) (pixel - left);
+                left = pixel;
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * Compress bytes to a raw deflate sequence ending at a byte boundary, so the
+     * sequences of the chunks may be concatenated
+     *
+     * @param raw the bytes
+     * @return the compressed bytes
+     */
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(raw);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] buffer = new byte[1 << 16];
+        int length;
+        do {
+            length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            out.write(buffer, 0, length);
+        } while (length == buffer.length);
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a PNG chunk - length, type, data and CRC
+     *
+     * @param type chunk type
+     * @param data chunk data
+     * @throws IOException on a write error
+     */
+    private void writeChunk(String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        _out.writeInt(data.length);
+        _out.write(typeBytes);
+        _out.write(data);
+        _out.writeInt((int) crc.getValue());
+    }
+}
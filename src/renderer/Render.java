@@ -2,14 +2,31 @@ package renderer;
 
 
 import elements.Camera;
+import geometries.Geometries;
 import elements.LightSource;
 import primitives.*;
 import scene.Scene;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static geometries.Intersectables.GeoPoint;
 import static primitives.Util.alignZero;
+import static renderer.RenderStats.RayType;
 
 /**
  * The renderer
@@ -23,10 +40,45 @@ public class Render {
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
     private static final int SPARE_THREADS = 2; // Spare threads if trying to use all the cores
+    private static final int DEFAULT_TILE_SIZE = 16;
+    private static final int MIN_ADAPTIVE_BEAM = 8; // rays traced before checking the beam convergence
+    private static final double BEAM_TOLERANCE = 0.5; // color intensity error that is not seen in the image
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 5; // seconds
+    // preview passes of a progressive render - pixel block size and recursion level,
+    // level 2 is the local lighting only
+    private static final int[] PREVIEW_BLOCKS = {8, 1};
+    private static final int[] PREVIEW_LEVELS = {2, MAX_CALC_COLOR_LEVEL / 2};
+    private static final int BUDGET_MIN_SAMPLES = 4; // samples of a pixel in a time budget without super sampling
+    private static final double PIXEL_TOLERANCE = 0.5; // pixel intensity error that is not seen in the image
+    private static final int BUDGET_CHUNK = 64; // pixels handed out to a thread at a time
+    private static final long DEFAULT_PROGRESS_INTERVAL = 100; // milliseconds
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    // CPU permits shared by the renders on virtual threads, fair so the renders share the cores
+    private static final Semaphore CPU_PERMITS = new Semaphore(PROCESSORS, true);
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
     private int _numOfGlossBlurRays = 0;
     private int _numOfSampleRays = 0;
     private int _threads = 1;
+    private int _tileSize = DEFAULT_TILE_SIZE;
+    private double _adaptiveThreshold = 0; // adaptive super sampling is off when 0
+    private boolean _adaptiveGlossBlur = false;
+    private Sampler _sampler = null; // regular super sampling grid and random beams when null
     private boolean _print = false; // printing progress percentage
+    private Path _checkpointFile = null;
+    private long _checkpointInterval = 0; // milliseconds
+    private BitSet _resumedTiles = null; // tiles of a checkpoint that are not rendered again
+    private RenderListener _renderListener = null; // progressive render when set
+    private long _timeBudget = 0; // nanoseconds, no time budget when 0
+    private Executor _executor = null; // render threads of the thread factory when null
+    private ThreadFactory _threadFactory = Thread::new;
+    private RenderTask _task = null; // handle of the current render
+    private Semaphore _cpuPermits = null; // render threads are virtual threads when set
+    private Consumer<RenderProgress> _progressListener = null;
+    private long _progressInterval = DEFAULT_PROGRESS_INTERVAL; // milliseconds
+    private RenderProgress _progress = new RenderProgress(); // progress of the current (or last) render
+    private boolean _collectStats = false;
+    private RenderStats _stats = null; // statistics of the current (or last) render, null if not collected
+    private Geometries _geometries = null; // geometries of the current render - counting with statistics
 
     /**
      * Instantiates a new Render.
@@ -40,9 +92,121 @@ public class Render {
     }
 
     /**
-     * Renders the image.
+     * Renders the image. A failure of a render thread is thrown after all the
+     * threads ended; if the calling thread is interrupted, the render is
+     * cancelled and the interrupt status is kept.
      */
     public void renderImage() {
+        render(new RenderTask(_imageWriter));
+    }
+
+    /**
+     * Start rendering the image in the background, on a thread of the thread
+     * factory which waits for the render threads
+     *
+     * @return the handle of the render, to wait for it or to cancel it
+     */
+    public RenderTask renderImageAsync() {
+        RenderTask task = new RenderTask(_imageWriter);
+        _threadFactory.newThread(() -> {
+            Throwable failure = null;
+            try {
+                render(task);
+            } catch (Throwable e) {
+                failure = e;
+            }
+            task.terminate(failure);
+        }).start();
+        return task;
+    }
+
+    /**
+     * Render the image in the modes that were set
+     *
+     * @param task the handle of the render
+     */
+    private void render(RenderTask task) {
+        if (_checkpointFile != null)
+            checkNotStreaming("Checkpoints");
+        if (_renderListener != null)
+            checkNotStreaming("Progressive rendering");
+        if (_timeBudget > 0)
+            checkNotStreaming("A time budget");
+        _task = task;
+        _progress = task.getProgress();
+        RenderStats stats = _collectStats ? new RenderStats() : null;
+        _stats = stats;
+        _geometries = stats == null ? _scene.getGeometries()
+                : _scene.getGeometries().map(geometry -> new CountingIntersectables(geometry, stats));
+        try {
+            renderMonitored();
+        } finally {
+            _geometries = null;
+        }
+    }
+
+    /**
+     * Render the image with the progress monitor, if it is needed
+     */
+    private void renderMonitored() {
+        if (_print || _progressListener != null) {
+            CountDownLatch finished = new CountDownLatch(1);
+            Thread monitor = createProgressMonitor(finished);
+            monitor.start();
+            try {
+                renderPasses();
+            } finally {
+                finished.countDown();
+                try {
+                    monitor.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } else
+            renderPasses();
+    }
+
+    /**
+     * Render the passes of the image in the modes that were set
+     */
+    private void renderPasses() {
+        if (_timeBudget > 0) {
+            renderWithBudget();
+            return;
+        }
+        long pixels = (long) _imageWriter.getNx() * _imageWriter.getNy();
+        Pass full = new Pass(MAX_CALC_COLOR_LEVEL, _numOfGlossBlurRays);
+        if (_renderListener == null) {
+            _progress.addTotalPixels(pixels);
+            renderPass(1, _numOfSampleRays, full, true);
+            return;
+        }
+        int passes = PREVIEW_BLOCKS.length + 1;
+        _progress.addTotalPixels(passes * pixels);
+        for (int pass = 0; pass < PREVIEW_BLOCKS.length; ++pass) {
+            renderPass(PREVIEW_BLOCKS[pass], 1, new Pass(PREVIEW_LEVELS[pass], full.numOfGlossBlurRays), false);
+            if (_task.isStopped() || !_renderListener.passDone(pass + 1, passes, _imageWriter)) {
+                _resumedTiles = null;
+                return;
+            }
+        }
+        renderPass(1, _numOfSampleRays, full, true);
+        if (!_task.isStopped())
+            _renderListener.passDone(passes, passes, _imageWriter);
+    }
+
+    /**
+     * Render a pass of the image. A preview pass renders a single pixel of each
+     * block of pixels and fills the block with its color; it does not mark the
+     * tiles complete in the frame buffer, and it does not write checkpoints.
+     *
+     * @param block           block width and height in pixels
+     * @param numOfSampleRays super sampling rays of the pass
+     * @param pass            recursion level and gloss/blur rays of the pass
+     * @param finalPass       true for the final pass, false for a preview
+     */
+    private void renderPass(int block, int numOfSampleRays, Pass pass, boolean finalPass) {
         final Camera camera = _scene.getCamera();
         final double distance = _scene.getDistance();
         // Number of pixels in the row of View Plane
@@ -52,35 +216,333 @@ public class Render {
         final double width = _imageWriter.getWidth();
         final double height = _imageWriter.getHeight();
 
-        // Multi-threading option 1
-        final Pixel thePixel = new Pixel(nY, nX);
-        // Generate threads
-        Thread[] threads = new Thread[_threads];
-        for (int i = _threads - 1; i >= 0; --i) {
-            threads[i] = new Thread(() -> {
-                Pixel pixel = new Pixel();
-                while (thePixel.nextPixel(pixel)) {
-                    List<Ray> rays = camera.constructRaysThroughPixel(nX, nY, pixel.col, pixel.row, distance, width, height, _numOfSampleRays);
-                    _imageWriter.writePixel(pixel.col, pixel.row, calcColor(rays).getColor());
+        // The image is split to tiles which are handed out to the threads one by one.
+        // A frame buffer that keeps track of the complete tiles has its own tile size.
+        final int tileSize = _imageWriter.getTileSize() == 0 ? _tileSize : _imageWriter.getTileSize();
+        final Tile theTile = new Tile(nY, nX, tileSize);
+        Workers workers = new Workers(() -> {
+            Tile tile = new Tile();
+            AdaptiveSampler sampler = _adaptiveThreshold > 0 && numOfSampleRays > 1
+                    ? new AdaptiveSampler(camera, nX, nY, distance, width, height, pass) : null;
+            while (theTile.nextTile(tile)) {
+                if (!acquireCpu())
+                    break;
+                try {
+                    // first pixel of a block in the tile
+                    for (int row = tile.firstRow + (block - tile.firstRow % block) % block; row < tile.lastRow; row += block)
+                        for (int col = tile.firstCol + (block - tile.firstCol % block) % block; col < tile.lastCol; col += block) {
+                            Color color;
+                            if (sampler != null)
+                                color = sampler.calcPixelColor(col, row);
+                            else
+                                color = calcColor(_sampler == null
+                                        ? camera.constructRaysThroughPixel(nX, nY, col, row, distance, width, height, numOfSampleRays)
+                                        : camera.constructRaysThroughPixel(nX, nY, col, row, distance, width, height, numOfSampleRays, _sampler),
+                                        pass);
+                            for (int y = row; y < Math.min(row + block, nY); ++y)
+                                for (int x = col; x < Math.min(col + block, nX); ++x)
+                                    _imageWriter.writePixel(x, y, color);
+                        }
+                } finally {
+                    releaseCpu();
+                }
+                if (sampler != null)
+                    sampler.tileDone();
+                if (finalPass)
+                    _imageWriter.setTileDone(tile.index);
+                theTile.tileDone(tile);
+            }
+        });
+
+        // The checkpoints are written by a background thread - the render threads
+        // only mark the complete tiles
+        Checkpoint checkpoint = null;
+        Thread checkpointer = null;
+        CountDownLatch finished = new CountDownLatch(1);
+        if (finalPass && _checkpointFile != null) {
+            checkpoint = new Checkpoint(tileSize, _numOfSampleRays, _numOfGlossBlurRays, _adaptiveThreshold,
+                    _adaptiveGlossBlur, _sampler);
+            checkpointer = createCheckpointThread(checkpoint, theTile, finished);
+            checkpointer.start();
+        }
+
+        try {
+            // Ensure all threads have finished
+            workers.join();
+        } finally {
+            finished.countDown();
+        }
+        if (checkpointer != null) {
+            try {
+                checkpointer.join();
+                checkpoint.write(_checkpointFile, _imageWriter, theTile::isDone);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                checkpoint.close();
+            }
+        }
+        if (finalPass)
+            _resumedTiles = null;
+    }
+
+    /**
+     * Render the image in a time budget. A baseline of a single ray through the
+     * center of each pixel with single ray gloss/blur beams is rendered first,
+     * and then the pixels are refined pass after pass: each pass doubles the
+     * samples of the pixels whose standard error is above
+     * {@link #PIXEL_TOLERANCE}, the noisiest first, and doubles the gloss/blur
+     * rays. The samples are jittered in the pixel, and the super sampling and
+     * the gloss/blur rays that were set are the limits of the refinement. At the
+     * deadline the threads stop after their current sample, and each pixel keeps
+     * the average of the samples it got. The baseline is always complete, even if
+     * it takes longer than the budget.
+     */
+    private void renderWithBudget() {
+        final long deadline = System.nanoTime() + _timeBudget;
+        _progress.setDeadline(deadline);
+        final int nX = _imageWriter.getNx();
+        final int nY = _imageWriter.getNy();
+        final int maxSamples = Math.max(BUDGET_MIN_SAMPLES, _numOfSampleRays * _numOfSampleRays);
+        final int numOfGlossBlurRays = _numOfGlossBlurRays;
+        PixelStatistics statistics = new PixelStatistics(nX * nY);
+        int[] pixels = new int[nX * nY];
+        Arrays.setAll(pixels, pixel -> pixel);
+        for (int pass = 0; pixels.length > 0; ++pass) {
+            _progress.addTotalPixels(pixels.length);
+            Pass settings = new Pass(MAX_CALC_COLOR_LEVEL, Math.min(numOfGlossBlurRays, 1 << Math.min(pass, 30)));
+            if (!renderBudgetPass(pixels, statistics, maxSamples, deadline, settings, pass > 0))
+                break;
+            pixels = statistics.select(maxSamples);
+        }
+    }
+
+    /**
+     * Render a pass of a time budgeted render - add samples to the given pixels
+     * and write their average colors
+     *
+     * @param pixels     the pixels (row after row indices), in the order of rendering
+     * @param statistics the samples of the pixels
+     * @param maxSamples maximal amount of samples of a pixel
+     * @param deadline   the deadline ({@link System#nanoTime()})
+     * @param pass       recursion level and gloss/blur rays of the pass
+     * @param stoppable  false if the pass is complete even after the deadline
+     * @return true if the pass is complete, false if it was stopped at the deadline
+     */
+    private boolean renderBudgetPass(int[] pixels, PixelStatistics statistics, int maxSamples, long deadline,
+                                     Pass pass, boolean stoppable) {
+        final Camera camera = _scene.getCamera();
+        final double distance = _scene.getDistance();
+        final int nX = _imageWriter.getNx();
+        final int nY = _imageWriter.getNy();
+        final double width = _imageWriter.getWidth();
+        final double height = _imageWriter.getHeight();
+        final Sampler sampler = _sampler == null ? new RandomSampler() : _sampler;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean stopped = new AtomicBoolean();
+
+        new Workers(() -> {
+            int first;
+            while (!stopped.get() && !_task.isStopped() && (first = next.getAndAdd(BUDGET_CHUNK)) < pixels.length) {
+                if (!acquireCpu())
+                    break;
+                try {
+                    int i;
+                    for (i = first; i < Math.min(first + BUDGET_CHUNK, pixels.length) && !stopped.get(); ++i) {
+                        int pixel = pixels[i];
+                        int col = pixel % nX;
+                        int row = pixel / nX;
+                        int count = statistics.getCount(pixel);
+                        // the baseline is the pixel center, then the samples are doubled
+                        int samples = count == 0 ? 1 : Math.min(count, maxSamples - count);
+                        long sequence = Util.hash(pixel);
+                        MutableColor color = new MutableColor();
+                        for (int s = count; s < count + samples; ++s) {
+                            if (stoppable && System.nanoTime() - deadline >= 0) {
+                                stopped.set(true);
+                                break;
+                            }
+                            double x = s == 0 ? col + 0.5 : col + sampler.get(sequence, s - 1, 0);
+                            double y = s == 0 ? row + 0.5 : row + sampler.get(sequence, s - 1, 1);
+                            calcColor(camera.constructRayThroughPoint(nX, nY, x, y, distance, width, height),
+                                    pass, color.setBlack());
+                            statistics.add(pixel, color);
+                        }
+                        _imageWriter.writePixel(col, row, statistics.getColor(pixel));
+                    }
+                    _progress.addPixels(i - first);
+                } finally {
+                    releaseCpu();
+                }
+            }
+        }).join();
+        return !stopped.get() && !_task.isStopped();
+    }
+
+    /**
+     * Create the thread that samples the progress of the render periodically,
+     * and gives it to the listener and prints it if debug printing is on, until
+     * the render is finished
+     *
+     * @param finished released when the render is finished
+     * @return the thread
+     */
+    private Thread createProgressMonitor(CountDownLatch finished) {
+        Thread thread = _threadFactory.newThread(() -> {
+            int printed = -1;
+            boolean done = false;
+            while (!done) {
+                try {
+                    done = finished.await(_progressInterval, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    done = true;
+                }
+                _progress.sample();
+                if (_progressListener != null)
+                    _progressListener.accept(_progress);
+                int percents = (int) (_progress.getFraction() * 100);
+                if (_print && percents != printed) {
+                    printed = percents;
+                    System.out.printf("\r %02d%%", percents);
                 }
-            });
+            }
+            if (_print)
+                System.out.println();
+        });
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Take a CPU permit before rendering a part of the image on a virtual thread.
+     * The wait is interrupted when the render is stopped, and a permit that was
+     * taken after the render was stopped is returned right away, so a stopped
+     * render does not take the cores from the other renders.
+     *
+     * @return true if the part may be rendered, false if the render was stopped
+     */
+    private boolean acquireCpu() {
+        if (_cpuPermits == null)
+            return true;
+        try {
+            _cpuPermits.acquire();
+        } catch (InterruptedException e) {
+            // only a stopped render interrupts its virtual threads, which end now
+            return false;
         }
-        // Start threads
-        for (Thread thread : threads)
-            thread.start();
+        if (_task.isStopped()) {
+            _cpuPermits.release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return the CPU permit after rendering a part of the image on a virtual thread
+     */
+    private void releaseCpu() {
+        if (_cpuPermits != null)
+            _cpuPermits.release();
+    }
 
-        // Print percents on the console
-        thePixel.print();
+    /**
+     * Create the factory of virtual threads. The virtual threads are looked up by
+     * reflection, so the renderer runs on older Java versions, where daemon
+     * platform threads are created instead.
+     *
+     * @return the thread factory
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
 
-        // Ensure all threads have finished
-        for (Thread thread : threads)
+    /**
+     * Resume a render from a checkpoint file. The configuration of the render
+     * (sample rays, gloss/blur rays, adaptive modes, sampler and tile size) and
+     * the pixels of the complete tiles are restored, and the rest of the tiles
+     * are rendered. Checkpoints go on to the same file, unless another one was
+     * set.
+     *
+     * @param fileName the checkpoint file
+     * @throws IllegalArgumentException if the image writer is in streaming mode
+     */
+    public void resume(String fileName) {
+        checkNotStreaming("Checkpoints");
+        Checkpoint checkpoint;
+        try {
+            checkpoint = Checkpoint.read(Paths.get(fileName), _imageWriter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int tileSize = _imageWriter.getTileSize();
+        if (tileSize != 0 && tileSize != checkpoint.tileSize)
+            throw new IllegalArgumentException("The checkpoint tile size differs from the frame buffer file");
+        _tileSize = checkpoint.tileSize;
+        _numOfSampleRays = checkpoint.numOfSampleRays;
+        _numOfGlossBlurRays = checkpoint.numOfGlossBlurRays;
+        _adaptiveThreshold = checkpoint.adaptiveThreshold;
+        _adaptiveGlossBlur = checkpoint.adaptiveGlossBlur;
+        if (checkpoint.sampler != null)
+            _sampler = checkpoint.sampler;
+        _resumedTiles = checkpoint.tiles;
+        if (_checkpointFile == null)
+            setCheckpoint(fileName, DEFAULT_CHECKPOINT_INTERVAL);
+        renderImage();
+    }
+
+    /**
+     * Check that the image writer is not in streaming mode, in which a pixel is
+     * written to the image file once and the pixels of the complete bands read
+     * black
+     *
+     * @param mode the render mode that needs the pixels, for the message
+     * @throws IllegalArgumentException if the image writer is in streaming mode
+     */
+    private void checkNotStreaming(String mode) {
+        if (_imageWriter.isStreaming())
+            throw new IllegalArgumentException(mode + " can't be combined with a streaming image writer");
+    }
+
+    /**
+     * Create the thread that writes a checkpoint periodically, if more tiles
+     * were complete since the last one, until the render is finished
+     *
+     * @param checkpoint the configuration of the render
+     * @param theTile    the main follow up Tile object of the render
+     * @param finished   released when the render is finished
+     * @return the thread
+     */
+    private Thread createCheckpointThread(Checkpoint checkpoint, Tile theTile, CountDownLatch finished) {
+        Thread thread = _threadFactory.newThread(() -> {
+            int written = theTile.getDoneCount();
             try {
-                thread.join();
-            } catch (Exception e) {
-                System.out.println("failure");
+                while (!finished.await(_checkpointInterval, TimeUnit.MILLISECONDS)) {
+                    int done = theTile.getDoneCount();
+                    if (done != written)
+                        try {
+                            checkpoint.write(_checkpointFile, _imageWriter, theTile::isDone);
+                            written = done;
+                        } catch (IOException e) {
+                            // the previous checkpoint is still valid - try again next time
+                        }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        if (_print)
-            System.out.println("\r100%");
+        });
+        thread.setDaemon(true);
+        return thread;
     }
 
     /**
@@ -103,19 +565,34 @@ public class Render {
      * Calculate the color intensity for a list of rays
      *
      * @param rays the list
+     * @param pass recursion level and gloss/blur rays of the render pass
      * @return color intensity
      */
-    private Color calcColor(List<Ray> rays) {
-        Color bkg = _scene.getBackground();
-        Color color = Color.BLACK;
-        for (Ray ray : rays) {
-            GeoPoint intersectionPoint = findClosestIntersection(ray);
-            color = color.add(intersectionPoint == null ? bkg : calcColor(intersectionPoint, ray));
-        }
+    private Color calcColor(List<Ray> rays, Pass pass) {
+        MutableColor color = new MutableColor();
+        for (Ray ray : rays)
+            calcColor(ray, pass, color);
         int size = rays.size();
         if (size > 1)
-            color = color.reduce(size);
-        return color;
+            color.reduce(size);
+        return color.toColor();
+    }
+
+    /**
+     * Add the color intensity of a ray from the camera to an accumulated color
+     *
+     * @param ray    the ray
+     * @param pass   recursion level and gloss/blur rays of the render pass
+     * @param target the accumulated color
+     */
+    private void calcColor(Ray ray, Pass pass, MutableColor target) {
+        if (_stats != null)
+            _stats.addRay(RayType.CAMERA);
+        GeoPoint intersectionPoint = findClosestIntersection(ray);
+        if (intersectionPoint == null)
+            target.add(_scene.getBackground());
+        else
+            calcColor(intersectionPoint, ray, pass, target);
     }
 
     /**
@@ -126,40 +603,49 @@ public class Render {
     }
 
     /**
-     * Calculate the color intensity in a point
+     * Add the color intensity in a point to an accumulated color
      *
      * @param geopoint the point for which the color is required
      * @param inRay    the ray of the color
-     * @return ray tracing color result
+     * @param pass     recursion level and gloss/blur rays of the render pass
+     * @param target   the accumulated color to add the ray tracing color result to
      */
-    private Color calcColor(GeoPoint geopoint, Ray inRay) {
-        Color color = calcColor(geopoint, inRay, MAX_CALC_COLOR_LEVEL, 1.0);
-        color = color.add(_scene.getAmbientLight().getIntensity());
-        return color;
+    private void calcColor(GeoPoint geopoint, Ray inRay, Pass pass, MutableColor target) {
+        calcColor(geopoint, inRay, pass.maxLevel, 1.0, 1.0, pass, target);
+        target.add(_scene.getAmbientLight().getIntensity());
     }
 
     /**
-     * Calculate the color intensity in a point
+     * Add the color intensity in a point, multiplied by a weight, to an accumulated color
      *
      * @param geoPoint the point for which the color is required
      * @param inRay    the ray of the color
      * @param level    current recursion level
      * @param k        accumulated color attenuation factor
-     * @return the color
+     * @param weight   the factor of the color in the target
+     * @param pass     recursion level and gloss/blur rays of the render pass
+     * @param target   the accumulated color
      */
-    private Color calcColor(GeoPoint geoPoint, Ray inRay, int level, double k) {
-        Color result = geoPoint.geometry.getEmission();
+    private void calcColor(GeoPoint geoPoint, Ray inRay, int level, double k, double weight, Pass pass,
+                           MutableColor target) {
+        if (_stats != null)
+            _stats.addDepth(pass.maxLevel - level + 1);
+        Color emission = geoPoint.geometry.getEmission();
         Vector v = inRay.getVector();
-        Vector n = geoPoint.geometry.getNormal(geoPoint.point);
+        Vector n = geoPoint.normal != null ? geoPoint.normal : geoPoint.geometry.getNormal(geoPoint.point);
         double nv = alignZero(n.dotProduct(v));
-        if (nv == 0)
-            return result;
-
-        result = result.add(getLightSourcesColors(geoPoint, k, v, n, nv));
+        if (nv == 0) {
+            target.addScaled(emission, weight);
+            return;
+        }
 
         // Reflection and Refraction (transparency) recursive calculation
         if (level == 1)
-            return Color.BLACK;
+            return;
+
+        target.addScaled(emission, weight);
+        addLightSourcesColors(geoPoint, k, v, n, nv, weight, target);
+
         Material material = geoPoint.geometry.getMaterial();
         double kr = material.getkR();
         double kt = material.getKT();
@@ -168,27 +654,125 @@ public class Render {
         double kkt = k * kt;
         //if the refraction is bigger than the minimum of calc color
         if (kkt > MIN_CALC_COLOR_K)
-            result = result.add(calcColorRecursion(constructRefractedRay(geoPoint.point, inRay, n), n, gb, level, kt, kkt));
+            calcColorRecursion(constructRefractedRay(geoPoint.point, inRay, n), RayType.REFRACTED, n, gb, level, kt,
+                    kkt, weight, pass, target);
+        else if (kt > 0 && _stats != null)
+            _stats.addEarlyOut();
         //if the reflection is bigger than the minimum of calc color
         if (kkr > MIN_CALC_COLOR_K)
-            result = result.add(calcColorRecursion(constructReflectedRay(geoPoint.point, inRay, n, nv), n, gb, level, kr, kkr));
-
-        return result;
+            calcColorRecursion(constructReflectedRay(geoPoint.point, inRay, n, nv), RayType.REFLECTED, n, gb, level,
+                    kr, kkr, weight, pass, target);
+        else if (kr > 0 && _stats != null)
+            _stats.addEarlyOut();
     }
 
-    private Color calcColorRecursion(Ray ray, Vector n, double radius, int level, double k, double kk) {
-        List<Ray> beam = ray.createBeamOfRays(n, GLOSS_BLUR_DISTANCE, this._numOfGlossBlurRays, radius);
-        Color tempColor = primitives.Color.BLACK;
+    /**
+     * Add the average color of a beam of secondary (reflected or refracted) rays
+     * to an accumulated color
+     *
+     * @param ray    the main secondary ray
+     * @param type   reflected or refracted
+     * @param n      normal to the surface at the ray head
+     * @param radius gloss/blur radius
+     * @param level  current recursion level
+     * @param k      reflection or transparency coefficient of the surface
+     * @param kk     accumulated color attenuation factor including k
+     * @param weight the factor of the color in the target
+     * @param pass   recursion level and gloss/blur rays of the render pass
+     * @param target the accumulated color
+     */
+    private void calcColorRecursion(Ray ray, RayType type, Vector n, double radius, int level, double k, double kk,
+                                    double weight, Pass pass, MutableColor target) {
+        if (_adaptiveGlossBlur) {
+            calcAdaptiveColorRecursion(ray, type, n, radius, level, k, kk, weight, pass, target);
+            return;
+        }
+        List<Ray> beam = createBeamOfRays(ray, n, pass.numOfGlossBlurRays, radius);
+        if (_stats != null) {
+            _stats.addRays(type, beam.size());
+            if (beam.size() > 1)
+                _stats.addBeam(beam.size());
+        }
         Color bkg = _scene.getBackground();
+        // each ray of the beam gets an equal part of the weight
+        double rayWeight = weight / beam.size();
         for (Ray r : beam) {
             GeoPoint geoPoint = findClosestIntersection(r);//find the closest point to the reflection ray's p0
             //calls the recursion th find the rest of the color and then scales it with the reflection
-            tempColor = tempColor.add((geoPoint == null ? bkg : calcColor(geoPoint, r, level - 1, kk).scale(k)));
+            if (geoPoint == null)
+                target.addScaled(bkg, rayWeight);
+            else
+                calcColor(geoPoint, r, level - 1, kk, rayWeight * k, pass, target);
         }
-        double size = beam.size();
-        if (size > 1)
-            tempColor = tempColor.reduce(size);
-        return tempColor;
+    }
+
+    /**
+     * Add the average color of an adaptive beam of secondary rays to an
+     * accumulated color. The beam size is reduced by the accumulated attenuation
+     * and the recursion depth, and the tracing stops once the standard error of
+     * the beam color, as seen in the pixel, is below {@link #BEAM_TOLERANCE}.
+     *
+     * @param ray    the main secondary ray
+     * @param type   reflected or refracted
+     * @param n      normal to the surface at the ray head
+     * @param radius gloss/blur radius
+     * @param level  current recursion level
+     * @param k      reflection or transparency coefficient of the surface
+     * @param kk     accumulated color attenuation factor including k
+     * @param weight the factor of the color in the target
+     * @param pass   recursion level and gloss/blur rays of the render pass
+     * @param target the accumulated color
+     */
+    private void calcAdaptiveColorRecursion(Ray ray, RayType type, Vector n, double radius, int level, double k, double kk,
+                                            double weight, Pass pass, MutableColor target) {
+        int depth = pass.maxLevel - level + 1;
+        int numOfRays = (int) Math.ceil(pass.numOfGlossBlurRays * Math.sqrt(kk) / depth);
+        List<Ray> beam = createBeamOfRays(ray, n, numOfRays, radius);
+        Color bkg = _scene.getBackground();
+        MutableColor sum = new MutableColor();
+        MutableColor sample = new MutableColor();
+        // running mean and variance of the ray color intensities (Welford)
+        double mean = 0, m2 = 0;
+        int count = 0;
+        for (Ray r : beam) {
+            sample.setBlack();
+            GeoPoint geoPoint = findClosestIntersection(r);
+            if (geoPoint == null)
+                sample.add(bkg);
+            else
+                calcColor(geoPoint, r, level - 1, kk, k, pass, sample);
+            sum.add(sample);
+
+            double intensity = sample.getIntensity();
+            double delta = intensity - mean;
+            mean += delta / ++count;
+            m2 += delta * (intensity - mean);
+            // standard error of the mean, scaled by the factor of the beam in the pixel
+            if (count >= MIN_ADAPTIVE_BEAM && weight * Math.sqrt(m2 / (count - 1) / count) < BEAM_TOLERANCE)
+                break;
+        }
+        target.addScaled(sum, weight / count);
+        if (_stats != null) {
+            _stats.addRays(type, count);
+            if (beam.size() > 1)
+                _stats.addBeam(count);
+        }
+    }
+
+    /**
+     * Creates gloss/blur beam of rays around a secondary ray, by the sampler of
+     * the renderer if it was set
+     *
+     * @param ray       the main secondary ray
+     * @param n         normal to the surface at the ray head
+     * @param numOfRays amount of rays
+     * @param radius    gloss/blur radius
+     * @return the beam
+     */
+    private List<Ray> createBeamOfRays(Ray ray, Vector n, int numOfRays, double radius) {
+        return _sampler == null
+                ? ray.createBeamOfRays(n, GLOSS_BLUR_DISTANCE, numOfRays, radius)
+                : ray.createBeamOfRays(n, GLOSS_BLUR_DISTANCE, numOfRays, radius, _sampler);
     }
 
     /**
@@ -213,23 +797,23 @@ public class Render {
      * @return the ray
      */
     private Ray constructReflectedRay(Point3D pointGeo, Ray inRay, Vector n, double vn) {
-        Vector v = inRay.getVector();
-        Vector r = v.subtract(n.scale(2 * vn));
+        Vector r = new MutableVector(inRay.getVector()).addScaled(n, -2 * vn).toVector();
         return new Ray(pointGeo, r, n);
     }
 
     /**
-     * return the light source effect - diffusive and specular components from all light sources accumlated
+     * Add the light source effect - diffusive and specular components from all light sources accumlated
      *
      * @param geoPoint geometry and point to calculate light effects
      * @param k        accumulated attenuation factor
      * @param v        direction of original ray from point of view
      * @param n        normal to the surface at the point
      * @param nv       dot-product of v and n
-     * @return the resulting color
+     * @param weight   the factor of the light effect in the target
+     * @param target   the accumulated color
      */
-    private Color getLightSourcesColors(GeoPoint geoPoint, double k, Vector v, Vector n, double nv) {
-        Color result = Color.BLACK;
+    private void addLightSourcesColors(GeoPoint geoPoint, double k, Vector v, Vector n, double nv,
+                                       double weight, MutableColor target) {
         Material material = geoPoint.geometry.getMaterial();
         double ks = material.getKS();
         double kd = material.getKD();
@@ -242,12 +826,12 @@ public class Render {
             if (ln * nv > 0) {
                 double transparency = transparency(lightSource, l, n, geoPoint);
                 if (transparency * k > MIN_CALC_COLOR_K) {
-                    Color il = lightSource.getIntensity(geoPoint.point).scale(transparency);
-                    result = result.add(calcDiffusive(kd, ln, il), calcSpecular(ks, l, n, ln, v, nsh, il));
-                }
+                    double factor = calcDiffusive(kd, ln) + calcSpecular(ks, l, n, ln, v, nsh);
+                    target.addScaled(lightSource.getIntensity(geoPoint.point), weight * transparency * factor);
+                } else if (transparency > 0 && _stats != null)
+                    _stats.addEarlyOut();
             }
         }
-        return result;
     }
 
     /**
@@ -255,12 +839,11 @@ public class Render {
      *
      * @param kd diffusion factor
      * @param nl dot-product of normal and light vectors
-     * @param ip light source intensity at the point
-     * @return the color
+     * @return the factor of the light source intensity
      */
-    private Color calcDiffusive(double kd, double nl, Color ip) {
+    private double calcDiffusive(double kd, double nl) {
         if (nl < 0) nl = -1 * nl;
-        return ip.scale(nl * kd);
+        return nl * kd;
     }
 
     /**
@@ -272,15 +855,14 @@ public class Render {
      * @param nl         dot-product of normal and light vectors
      * @param v          original ray direction (from point of view)
      * @param nShininess shininess factor
-     * @param ip         light intensity at the point
-     * @return the color
+     * @return the factor of the light source intensity
      */
-    private Color calcSpecular(double ks, Vector l, Vector n, double nl, Vector v, int nShininess, Color ip) {
-        Vector r = l.add(n.scale(-2 * nl));
-        double minusVr = -alignZero(r.dotProduct(v));
+    private double calcSpecular(double ks, Vector l, Vector n, double nl, Vector v, int nShininess) {
+        // r = l - 2 * nl * n
+        double minusVr = -alignZero(new MutableVector(l).addScaled(n, -2 * nl).dotProduct(v));
         if (minusVr <= 0)
-            return Color.BLACK;
-        return ip.scale(ks * Math.pow(minusVr, nShininess));
+            return 0;
+        return ks * Math.pow(minusVr, nShininess);
     }
 
     /**
@@ -295,20 +877,11 @@ public class Render {
     private double transparency(LightSource light, Vector l, Vector n, GeoPoint geopoint) {
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray shadowRay = new Ray(geopoint.point, lightDirection, n);
-
-        List<GeoPoint> intersections = _scene.getGeometries().findIntersections(shadowRay);
-        if (intersections == null)
-            return 1d;
-
         double lightDistance = light.getDistance(geopoint.point);
-        double ktr = 1d;
-        for (GeoPoint gp : intersections)
-            if (alignZero(gp.point.distance(geopoint.point) - lightDistance) <= 0) {
-                ktr *= gp.geometry.getMaterial().getKT();
-                if (ktr < MIN_CALC_COLOR_K)
-                    return 0.0;
-            }
-        return ktr;
+        _progress.addRay();
+        if (_stats != null)
+            _stats.addRay(RayType.SHADOW);
+        return getGeometries().findTransparency(shadowRay, lightDistance, MIN_CALC_COLOR_K);
     }
 
     /**
@@ -320,20 +893,16 @@ public class Render {
      * @return the closest point
      */
     public GeoPoint findClosestIntersection(Ray ray) {
-        GeoPoint closestPoint = null;
-        double closestDistance = Double.MAX_VALUE;
-        Point3D ray_p0 = ray.getPoint();
-        List<GeoPoint> intersections = _scene.getGeometries().findIntersections(ray);
-        if (intersections == null)
-            return null;
-        for (GeoPoint geoPoint : intersections) {
-            double distance = ray_p0.distance(geoPoint.point);
-            if (distance < closestDistance) {
-                closestDistance = distance;
-                closestPoint = geoPoint;
-            }
-        }
-        return closestPoint;
+        _progress.addRay();
+        return getGeometries().findClosestIntersection(ray);
+    }
+
+    /**
+     * @return the geometries of the current render, or of the scene out of a render
+     */
+    private Geometries getGeometries() {
+        Geometries geometries = _geometries;
+        return geometries == null ? _scene.getGeometries() : geometries;
     }
 
     /**
@@ -347,6 +916,32 @@ public class Render {
         return this;
     }
 
+    /**
+     * Set adaptive gloss/blur on. The beams get fewer rays as the accumulated
+     * attenuation gets smaller and the recursion gets deeper, and a beam is
+     * stopped as soon as its average color converges.
+     *
+     * @return renderer itself
+     */
+    public Render setAdaptiveGlossBlur() {
+        _adaptiveGlossBlur = true;
+        return this;
+    }
+
+    /**
+     * Set the sampler of the gloss/blur beams and of the super sampling - the
+     * super sampling rays are jittered inside the cells of the grid instead of
+     * going through their centers. A seeded sampler makes the render
+     * reproducible.
+     *
+     * @param sampler the sampler, e.g. {@link RandomSampler}, {@link HaltonSampler} or {@link SobolSampler}
+     * @return renderer itself
+     */
+    public Render setSampler(Sampler sampler) {
+        _sampler = sampler;
+        return this;
+    }
+
     /**
      * Set number of sample rays for super sampling - rays in each direction of grid
      *
@@ -358,6 +953,24 @@ public class Render {
         return this;
     }
 
+    /**
+     * Set adaptive super sampling on. Instead of the whole grid of sample rays,
+     * each pixel is sampled at its corners and center, and it is split to four
+     * sub-squares recursively only where the samples differ. The subdivision
+     * stops at the resolution of the grid set by {@link #setNumOfSampleRays(int)},
+     * so the result is close to the full grid at a fraction of the rays.
+     *
+     * @param threshold maximal difference of a color component (0-255) between
+     *                  the corners and the center of a square that is not split
+     * @return the Render object itself
+     */
+    public Render setAdaptiveSuperSampling(double threshold) {
+        if (threshold <= 0)
+            throw new IllegalArgumentException("Adaptive super sampling threshold must be positive");
+        _adaptiveThreshold = threshold;
+        return this;
+    }
+
     /**
      * Set multithreading <br>
      * - if the parameter is 0 - number of coress less 2 is taken
@@ -371,12 +984,183 @@ public class Render {
         if (threads != 0)
             _threads = threads;
         else {
-            int cores = Runtime.getRuntime().availableProcessors() - SPARE_THREADS;
+            int cores = PROCESSORS - SPARE_THREADS;
             _threads = cores <= 2 ? 1 : cores;
         }
         return this;
     }
 
+    /**
+     * Set the size of the square tiles the image is split to. Each thread renders
+     * a whole tile at a time, so close pixels are rendered by the same core.
+     *
+     * @param tileSize tile width and height in pixels
+     * @return the Render object itself
+     */
+    public Render setTileSize(int tileSize) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        _tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Set checkpoints - the render configuration and the complete tiles are
+     * written to a file periodically, and at the end of the render. A render
+     * that was stopped is continued by {@link #resume(String)}. The pixels of
+     * the complete tiles are read back from the image writer, so checkpoints
+     * can't be combined with its streaming mode.
+     *
+     * @param fileName the checkpoint file
+     * @param seconds  the interval between checkpoints
+     * @return the Render object itself
+     * @throws IllegalArgumentException if the image writer is in streaming mode
+     */
+    public Render setCheckpoint(String fileName, int seconds) {
+        if (seconds <= 0)
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        checkNotStreaming("Checkpoints");
+        _checkpointFile = Paths.get(fileName);
+        _checkpointInterval = seconds * 1000L;
+        return this;
+    }
+
+    /**
+     * Set progressive render - the image is rendered first by preview passes, a
+     * single ray for a block of pixels without reflections and refractions, then a
+     * ray for each pixel with a part of the recursion levels, and finally by the
+     * full render. The listener gets the image after each pass and may stop the
+     * render. Not for a streaming image writer, where a pixel is written once -
+     * the render throws an exception before any pixel is written.
+     *
+     * @param listener the listener of the passes
+     * @return the Render object itself
+     */
+    public Render setProgressive(RenderListener listener) {
+        _renderListener = listener;
+        return this;
+    }
+
+    /**
+     * Set a time budget - the image is rendered from a cheap baseline, and the
+     * rest of the budget is spent on more super sampling rays and gloss/blur rays
+     * for the noisiest pixels, up to the amounts that were set. The render stops
+     * at the deadline with every pixel rendered. Checkpoints, progressive passes
+     * and adaptive super sampling are not used; not for a streaming image writer,
+     * where a pixel is written once - the render throws an exception before any
+     * pixel is written.
+     *
+     * @param seconds the time budget
+     * @return the Render object itself
+     */
+    public Render setTimeBudget(double seconds) {
+        if (seconds <= 0)
+            throw new IllegalArgumentException("Time budget must be positive");
+        _timeBudget = (long) (seconds * 1e9);
+        return this;
+    }
+
+    /**
+     * Set the executor of the render threads, e.g. a thread pool of the
+     * application. Each render thread is a task of the executor; the tasks share
+     * the tiles, so the render ends even if the executor runs fewer tasks at a
+     * time.
+     *
+     * @param executor the executor, null for threads of the thread factory
+     * @return the Render object itself
+     */
+    public Render setExecutor(Executor executor) {
+        _executor = executor;
+        return this;
+    }
+
+    /**
+     * Set the factory of the threads of the renderer - the render threads
+     * (unless an executor was set), the checkpoint thread and the background
+     * thread of {@link #renderImageAsync()}
+     *
+     * @param threadFactory the thread factory
+     * @return the Render object itself
+     */
+    public Render setThreadFactory(ThreadFactory threadFactory) {
+        if (threadFactory == null)
+            throw new IllegalArgumentException("Thread factory must not be null");
+        _threadFactory = threadFactory;
+        return this;
+    }
+
+    /**
+     * Set virtual threads - the render threads are virtual threads (on Java 21
+     * and later), at least a thread for each core, and each tile is rendered
+     * under a permit of the CPU permits that are shared by all the renders on
+     * virtual threads. Many concurrent renders share the cores fairly and do not
+     * run more tiles at a time than the cores. The executor and the thread
+     * factory are not used for the render threads.
+     *
+     * @return the Render object itself
+     */
+    public Render setVirtualThreads() {
+        return setVirtualThreads(CPU_PERMITS);
+    }
+
+    /**
+     * Set virtual threads, like {@link #setVirtualThreads()}, with CPU permits
+     * of a group of renders
+     *
+     * @param cpuPermits the CPU permits of the renders
+     * @return the Render object itself
+     */
+    public Render setVirtualThreads(Semaphore cpuPermits) {
+        if (cpuPermits == null)
+            throw new IllegalArgumentException("CPU permits must not be null");
+        _cpuPermits = cpuPermits;
+        return this;
+    }
+
+    /**
+     * Set the listener of the progress of the render - a monitor thread samples
+     * the progress periodically and gives it to the listener, and once more when
+     * the render is finished
+     *
+     * @param listener the listener, null for none
+     * @param seconds  the interval between the samples
+     * @return the Render object itself
+     */
+    public Render setProgressListener(Consumer<RenderProgress> listener, double seconds) {
+        if (seconds <= 0)
+            throw new IllegalArgumentException("Progress interval must be positive");
+        _progressListener = listener;
+        _progressInterval = Math.max(1, (long) (seconds * 1000));
+        return this;
+    }
+
+    /**
+     * @return progress of the current render, or of the last one
+     */
+    public RenderProgress getProgress() {
+        return _progress;
+    }
+
+    /**
+     * Set collecting statistics of the renders - rays by type, intersection
+     * tests by geometry class, recursion depth, beam sizes and cut offs by the
+     * attenuation threshold. Without it, the statistics cost a single check of
+     * each counted event.
+     *
+     * @return the Render object itself
+     */
+    public Render setStats() {
+        _collectStats = true;
+        return this;
+    }
+
+    /**
+     * @return statistics of the current render, or of the last one, null if they are not collected
+     */
+    public RenderStats getStats() {
+        return _stats;
+    }
+
     /**
      * Set debug printing on
      *
@@ -388,123 +1172,441 @@ public class Render {
     }
 
     /**
-     * Pixel is an internal helper class whose objects are associated with a Render
+     * AdaptiveSampler is an internal helper class for adaptive super sampling -
+     * one object in each thread. The sample points are on a lattice of
+     * 2^(level+1) points along a pixel side, so the corners shared by
+     * neighbouring squares (and pixels) of the same tile are traced only once.
+     */
+    private class AdaptiveSampler {
+        private final Camera _camera;
+        private final int _nX;
+        private final int _nY;
+        private final double _distance;
+        private final double _width;
+        private final double _height;
+        private final int _side; // lattice points along a pixel side
+        private final Pass _pass;
+        private final Map<Long, Color> _samples = new HashMap<>();
+
+        /**
+         * Constructor for the sampler of a thread
+         *
+         * @param camera   the camera
+         * @param nX       number of pixels in a row
+         * @param nY       number of pixels in a column
+         * @param distance distance from the camera to the view plane
+         * @param width    view plane width
+         * @param height   view plane height
+         * @param pass     recursion level and gloss/blur rays of the render pass
+         */
+        public AdaptiveSampler(Camera camera, int nX, int nY, double distance, double width, double height,
+                               Pass pass) {
+            _camera = camera;
+            _nX = nX;
+            _nY = nY;
+            _distance = distance;
+            _width = width;
+            _height = height;
+            _pass = pass;
+            // smallest square is 2 lattice units, so the lattice step is at most
+            // the step of the full grid of sample rays
+            int side = 2;
+            while (side < _numOfSampleRays)
+                side *= 2;
+            _side = side;
+        }
+
+        /**
+         * Calculate the color of a pixel
+         *
+         * @param col pixel column
+         * @param row pixel row
+         * @return the color
+         */
+        public Color calcPixelColor(int col, int row) {
+            MutableColor color = new MutableColor();
+            calcSquareColor((long) col * _side, (long) row * _side, _side, 1, color);
+            return color.toColor();
+        }
+
+        /**
+         * Forget the samples of the tile that was rendered
+         */
+        public void tileDone() {
+            _samples.clear();
+        }
+
+        /**
+         * Add the color of a square of the view plane to an accumulated color
+         *
+         * @param x      left edge of the square on the lattice
+         * @param y      upper edge of the square on the lattice
+         * @param size   square side on the lattice
+         * @param weight the factor of the square color in the target
+         * @param target the accumulated color
+         */
+        private void calcSquareColor(long x, long y, long size, double weight, MutableColor target) {
+            long half = size / 2;
+            Color center = sample(x + half, y + half);
+            Color c00 = sample(x, y);
+            Color c10 = sample(x + size, y);
+            Color c01 = sample(x, y + size);
+            Color c11 = sample(x + size, y + size);
+            if (size == 2 || (center.isSimilar(c00, _adaptiveThreshold) && center.isSimilar(c10, _adaptiveThreshold)
+                    && center.isSimilar(c01, _adaptiveThreshold) && center.isSimilar(c11, _adaptiveThreshold))) {
+                // the center stands for the inner half of the square
+                double cornerWeight = weight / 8;
+                target.addScaled(center, weight / 2)
+                        .addScaled(c00, cornerWeight).addScaled(c10, cornerWeight)
+                        .addScaled(c01, cornerWeight).addScaled(c11, cornerWeight);
+                return;
+            }
+            double quarter = weight / 4;
+            calcSquareColor(x, y, half, quarter, target);
+            calcSquareColor(x + half, y, half, quarter, target);
+            calcSquareColor(x, y + half, half, quarter, target);
+            calcSquareColor(x + half, y + half, half, quarter, target);
+        }
+
+        /**
+         * Get the color of a lattice point - trace it if it was not traced yet
+         *
+         * @param x horizontal lattice position
+         * @param y vertical lattice position
+         * @return the color
+         */
+        private Color sample(long x, long y) {
+            Long key = x << 32 | y;
+            Color color = _samples.get(key);
+            if (color == null) {
+                Ray ray = _camera.constructRayThroughPoint(_nX, _nY, (double) x / _side, (double) y / _side,
+                        _distance, _width, _height);
+                MutableColor sample = new MutableColor();
+                calcColor(ray, _pass, sample);
+                color = sample.toColor();
+                _samples.put(key, color);
+            }
+            return color;
+        }
+    }
+
+    /**
+     * Pass is an internal helper class of the settings of a render pass that may
+     * differ from the settings of the renderer - a preview pass has fewer
+     * recursion levels and a time budgeted pass has fewer gloss/blur rays. The
+     * settings are given to the calculations of the pass, so the settings of the
+     * renderer are not changed during a render.
+     */
+    private static class Pass {
+        final int maxLevel;
+        final int numOfGlossBlurRays;
+
+        /**
+         * Constructor
+         *
+         * @param maxLevel           recursion level
+         * @param numOfGlossBlurRays gloss/blur rays
+         */
+        Pass(int maxLevel, int numOfGlossBlurRays) {
+            this.maxLevel = maxLevel;
+            this.numOfGlossBlurRays = numOfGlossBlurRays;
+        }
+    }
+
+    /**
+     * Workers is an internal helper class that runs a task in each of the render
+     * threads. A failure of a thread stops the render, and it is thrown when all
+     * the threads ended.
+     */
+    private class Workers {
+        private final int _count = _cpuPermits == null ? _threads : Math.max(_threads, PROCESSORS);
+        private final CountDownLatch _finished = new CountDownLatch(_count);
+        private final AtomicReference<Throwable> _failure = new AtomicReference<>();
+        private final List<Thread> _virtualThreads = new ArrayList<>(); // interrupted when the render stops
+
+        /**
+         * Constructor - starts the threads
+         *
+         * @param task the task of each thread
+         */
+        public Workers(Runnable task) {
+            Runnable worker = () -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    fail(e);
+                } finally {
+                    _finished.countDown();
+                }
+            };
+            for (int i = 0; i < _count; ++i)
+                try {
+                    if (_cpuPermits != null) {
+                        Thread thread = VIRTUAL_THREAD_FACTORY.newThread(worker);
+                        thread.start();
+                        _virtualThreads.add(thread);
+                    } else if (_executor == null)
+                        _threadFactory.newThread(worker).start();
+                    else
+                        _executor.execute(worker);
+                } catch (RuntimeException e) {
+                    fail(e);
+                    _finished.countDown();
+                }
+            // the threads that wait for a CPU permit are woken up by a stop
+            if (!_virtualThreads.isEmpty())
+                _task.setStopAction(() -> _virtualThreads.forEach(Thread::interrupt));
+        }
+
+        /**
+         * Keep the first failure and stop the render
+         *
+         * @param e the failure
+         */
+        private void fail(Throwable e) {
+            _failure.compareAndSet(null, e);
+            _task.stop();
+        }
+
+        /**
+         * Wait until all the threads ended. If the waiting thread is interrupted,
+         * the render is cancelled, the threads are still waited for, and the
+         * interrupt status is kept.
+         */
+        public void join() {
+            boolean interrupted = false;
+            while (true)
+                try {
+                    _finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    _task.cancel(true);
+                }
+            _task.setStopAction(null);
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            Throwable failure = _failure.get();
+            if (failure instanceof RuntimeException)
+                throw (RuntimeException) failure;
+            if (failure instanceof Error)
+                throw (Error) failure;
+            if (failure != null)
+                throw new IllegalStateException("Render thread failed", failure);
+        }
+    }
+
+    /**
+     * PixelStatistics is an internal helper class of the time budgeted render -
+     * the running sums of the samples of each pixel. A pixel is sampled by a
+     * single thread in a pass and the passes are separated by the joins of the
+     * threads, so the sums are not synchronized.
+     */
+    private static class PixelStatistics {
+        private final float[] _r;
+        private final float[] _g;
+        private final float[] _b;
+        private final double[] _intensitySquares; // sum of the squares of the sample intensities
+        private final int[] _count;
+
+        /**
+         * Constructor for the statistics of an image
+         *
+         * @param pixels amount of pixels
+         */
+        public PixelStatistics(int pixels) {
+            _r = new float[pixels];
+            _g = new float[pixels];
+            _b = new float[pixels];
+            _intensitySquares = new double[pixels];
+            _count = new int[pixels];
+        }
+
+        /**
+         * Add a sample to a pixel
+         *
+         * @param pixel the pixel
+         * @param color the color of the sample
+         */
+        public void add(int pixel, Color color) {
+            add(pixel, color.getRed(), color.getGreen(), color.getBlue());
+        }
+
+        /**
+         * Add a sample to a pixel, without creating a Color for it
+         *
+         * @param pixel the pixel
+         * @param color the accumulated color of the sample
+         */
+        public void add(int pixel, MutableColor color) {
+            add(pixel, color.getRed(), color.getGreen(), color.getBlue());
+        }
+
+        /**
+         * Add a sample to a pixel
+         *
+         * @param pixel the pixel
+         * @param r     red component of the sample
+         * @param g     green component of the sample
+         * @param b     blue component of the sample
+         */
+        private void add(int pixel, double r, double g, double b) {
+            double intensity = (r + g + b) / 3;
+            _r[pixel] += r;
+            _g[pixel] += g;
+            _b[pixel] += b;
+            _intensitySquares[pixel] += intensity * intensity;
+            ++_count[pixel];
+        }
+
+        /**
+         * @param pixel the pixel
+         * @return amount of samples of the pixel
+         */
+        public int getCount(int pixel) {
+            return _count[pixel];
+        }
+
+        /**
+         * @param pixel the pixel
+         * @return average color of the samples of the pixel
+         */
+        public Color getColor(int pixel) {
+            int count = _count[pixel];
+            return new Color(_r[pixel] / count, _g[pixel] / count, _b[pixel] / count);
+        }
+
+        /**
+         * Select the pixels to refine - the pixels with less than the maximal
+         * amount of samples whose standard error is above the tolerance (or that
+         * have a single sample), by the error from the highest
+         *
+         * @param maxSamples maximal amount of samples of a pixel
+         * @return the selected pixels
+         */
+        public int[] select(int maxSamples) {
+            long[] keys = new long[_count.length];
+            int selected = 0;
+            for (int pixel = 0; pixel < _count.length; ++pixel) {
+                int count = _count[pixel];
+                if (count >= maxSamples)
+                    continue;
+                float error = Float.MAX_VALUE;
+                if (count > 1) {
+                    double mean = (_r[pixel] + _g[pixel] + _b[pixel]) / 3 / count;
+                    double variance = Math.max(0, (_intensitySquares[pixel] - count * mean * mean) / (count - 1));
+                    error = (float) Math.sqrt(variance / count);
+                    if (error <= PIXEL_TOLERANCE)
+                        continue;
+                }
+                // the bits of a non negative float are ordered as the float
+                keys[selected++] = (long) Float.floatToIntBits(error) << 32 | pixel;
+            }
+            Arrays.sort(keys, 0, selected);
+            int[] pixels = new int[selected];
+            for (int i = 0; i < selected; ++i)
+                pixels[i] = (int) keys[selected - 1 - i];
+            return pixels;
+        }
+    }
+
+    /**
+     * Tile is an internal helper class whose objects are associated with a Render
      * object that they are generated in scope of. It is used for multithreading in
      * the Renderer and for follow up its progress.<br/>
      * There is a main follow up object and several secondary objects - one in each
-     * thread.
-     *
-     * @author Dan
+     * thread. The main object hands out the tiles by an atomic counter, so getting
+     * the next tile does not lock, and the progress is updated once per tile.
+     * Tiles that are complete in the frame buffer of the image writer (of a
+     * previous render) are skipped.
      */
-    private class Pixel {
-        public volatile int row = 0;
-        public volatile int col = -1;
-        private long _maxRows = 0;
-        private long _maxCols = 0;
-        private long _pixels = 0;
-        private long _counter = 0;
-        private int _percents = 0;
-        private long _nextCounter = 0;
+    private class Tile {
+        public int firstRow = 0;
+        public int firstCol = 0;
+        public int lastRow = 0; // exclusive
+        public int lastCol = 0; // exclusive
+        public int index = 0; // row after row of tiles
+        private int _maxRows = 0;
+        private int _maxCols = 0;
+        private int _tileSize = 0;
+        private int _tilesInRow = 0;
+        private int _tiles = 0;
+        private final AtomicInteger _nextTile = new AtomicInteger();
+        private AtomicIntegerArray _done = null; // complete tiles, kept for checkpoints
+        private final AtomicInteger _doneCount = new AtomicInteger();
 
         /**
-         * The constructor for initializing the main follow up Pixel object
+         * The constructor for initializing the main follow up Tile object
          *
-         * @param maxRows the amount of pixel rows
-         * @param maxCols the amount of pixel columns
+         * @param maxRows  the amount of pixel rows
+         * @param maxCols  the amount of pixel columns
+         * @param tileSize the width and height of a tile
          */
-        public Pixel(int maxRows, int maxCols) {
+        public Tile(int maxRows, int maxCols, int tileSize) {
             _maxRows = maxRows;
             _maxCols = maxCols;
-            _pixels = maxRows * maxCols;
-            _nextCounter = _pixels / 100;
-            if (Render.this._print)
-                System.out.printf("\r %02d%%", _percents);
+            _tileSize = tileSize;
+            _tilesInRow = (maxCols + tileSize - 1) / tileSize;
+            _tiles = _tilesInRow * ((maxRows + tileSize - 1) / tileSize);
+            if (_checkpointFile != null)
+                _done = new AtomicIntegerArray(_tiles);
         }
 
         /**
-         * Default constructor for secondary Pixel objects
+         * Default constructor for secondary Tile objects
          */
-        public Pixel() {
+        public Tile() {
         }
 
         /**
-         * Internal function for thread-safe manipulating of main follow up Pixel object
-         * - this function is critical section for all the threads, and main Pixel
-         * object data is the shared data of this critical section.<br/>
-         * The function provides next pixel number each call.
+         * Function for getting the next tile into secondary Tile object. It may be
+         * called by all the threads at the same time without locking.
          *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return the progress percentage for follow up: if it is 0 - nothing to print,
-         * if it is -1 - the task is finished, any other value - the progress
-         * percentage (only when it changes)
+         * @param target target secondary Tile object to copy the bounds of the next tile
+         * @return true if the work still in progress, false if there are no more tiles
          */
-        private synchronized int nextP(Pixel target) {
-            ++col;
-            ++_counter;
-            if (col < _maxCols) {
-                target.row = this.row;
-                target.col = this.col;
-                if (_print && _counter == _nextCounter) {
-                    ++_percents;
-                    _nextCounter = _pixels * (_percents + 1) / 100;
-                    return _percents;
-                }
-                return 0;
-            }
-            ++row;
-            if (row < _maxRows) {
-                col = 0;
-                target.row = this.row;
-                target.col = this.col;
-                if (_print && _counter == _nextCounter) {
-                    ++_percents;
-                    _nextCounter = _pixels * (_percents + 1) / 100;
-                    return _percents;
-                }
-                return 0;
+        public boolean nextTile(Tile target) {
+            int tile;
+            while (!_task.isStopped() && (tile = _nextTile.getAndIncrement()) < _tiles) {
+                target.index = tile;
+                target.firstRow = tile / _tilesInRow * _tileSize;
+                target.firstCol = tile % _tilesInRow * _tileSize;
+                target.lastRow = Math.min(target.firstRow + _tileSize, _maxRows);
+                target.lastCol = Math.min(target.firstCol + _tileSize, _maxCols);
+                if (!_imageWriter.isTileDone(tile) && (_resumedTiles == null || !_resumedTiles.get(tile)))
+                    return true;
+                tileDone(target); // complete from a previous render
             }
-            return -1;
+            return false;
         }
 
         /**
-         * Public function for getting next pixel number into secondary Pixel object.
-         * The function prints also progress percentage in the console window.
+         * Update the progress after a secondary Tile object was rendered
          *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return true if the work still in progress, -1 if it's done
+         * @param target the rendered tile
          */
-        public boolean nextPixel(Pixel target) {
-            int percents = nextP(target);
-            if (_print && percents > 0)
-                synchronized (this) {
-                    notifyAll();
-                }
-            if (percents >= 0)
-                return true;
-            if (_print)
-                synchronized (this) {
-                    notifyAll();
-                }
-            return false;
+        public void tileDone(Tile target) {
+            if (_done != null)
+                _done.set(target.index, 1);
+            _doneCount.incrementAndGet();
+            _progress.addPixels((long) (target.lastRow - target.firstRow) * (target.lastCol - target.firstCol));
         }
 
         /**
-         * Debug print of progress percentage - must be run from the main thread
+         * Check whether a tile is complete - kept only with checkpoints
+         *
+         * @param tile tile index
+         * @return true if the tile is complete
          */
-        public void print() {
-            if (_print)
-                while (_percents < 100)
-                    try {
-                        synchronized (this) {
-                            wait();
-                        }
-                        System.out.println();
-                        System.out.printf("\r %02d%%", _percents);
-                    } catch (Exception e) {
-                        System.out.println("failure");
-                    }
+        public boolean isDone(int tile) {
+            return _done != null && _done.get(tile) != 0;
+        }
+
+        /**
+         * @return amount of complete tiles
+         */
+        public int getDoneCount() {
+            return _doneCount.get();
         }
     }
 }
@@ -0,0 +1,20 @@
+package renderer;
+
+/**
+ * Listener of a progressive render - gets the image after each pass
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+@FunctionalInterface
+public interface RenderListener {
+    /**
+     * Called after each pass of a progressive render, from the thread that
+     * called the render
+     *
+     * @param pass        the pass number, from 1
+     * @param passes      amount of passes
+     * @param imageWriter the image writer with the image of the pass
+     * @return false to stop the render after this pass
+     */
+    boolean passDone(int pass, int passes, ImageWriter imageWriter);
+}
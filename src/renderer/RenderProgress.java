@@ -0,0 +1,161 @@
+package renderer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a render. The render threads add the rendered pixels (a tile at
+ * a time) and the traced rays to striped counters, so they do not contend on
+ * the progress; the rates are measured by a monitor thread that samples the
+ * counters periodically, see {@link Render#setProgressListener}.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class RenderProgress {
+    private final LongAdder _pixels = new LongAdder();
+    private final LongAdder _rays = new LongAdder();
+    private final AtomicLong _totalPixels = new AtomicLong();
+    private final long _start = System.nanoTime();
+    private volatile long _deadline = 0; // System.nanoTime() of the time budget, 0 if none
+    // rates of the last sample
+    private volatile double _pixelsPerSecond = 0;
+    private volatile double _raysPerSecond = 0;
+    // counters at the last sample - used only by the monitor thread
+    private long _sampleTime = _start;
+    private long _samplePixels = 0;
+    private long _sampleRays = 0;
+
+    // ***************** Constructors ********************** //
+
+    /**
+     * Constructor of the progress of a render that did not start
+     */
+    RenderProgress() {
+    }
+
+    // ***************** Getters ********************** //
+
+    /**
+     * @return amount of rendered pixels (a pixel that is rendered again by
+     * another pass is counted again)
+     */
+    public long getPixels() {
+        return _pixels.sum();
+    }
+
+    /**
+     * @return amount of pixels of the known passes of the render
+     */
+    public long getTotalPixels() {
+        return _totalPixels.get();
+    }
+
+    /**
+     * @return amount of traced rays - camera, secondary and shadow rays
+     */
+    public long getRays() {
+        return _rays.sum();
+    }
+
+    /**
+     * @return part of the pixels that were rendered (0-1)
+     */
+    public double getFraction() {
+        long total = _totalPixels.get();
+        return total == 0 ? 0 : Math.min(1, (double) _pixels.sum() / total);
+    }
+
+    /**
+     * @return rendered pixels per second at the last sample
+     */
+    public double getPixelsPerSecond() {
+        return _pixelsPerSecond;
+    }
+
+    /**
+     * @return traced rays per second at the last sample
+     */
+    public double getRaysPerSecond() {
+        return _raysPerSecond;
+    }
+
+    /**
+     * @return time since the render started
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(System.nanoTime() - _start);
+    }
+
+    /**
+     * Estimated time to the end of the render, by the rate of the last sample -
+     * it is not more than the time left of a time budget
+     *
+     * @return the estimated time, null if it is not known yet
+     */
+    public Duration getEta() {
+        long left = Math.max(0, _totalPixels.get() - _pixels.sum());
+        double rate = _pixelsPerSecond;
+        Duration eta = rate == 0 ? null : Duration.ofNanos((long) (left / rate * 1e9));
+        long deadline = _deadline;
+        if (deadline != 0) {
+            Duration budget = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+            if (eta == null || budget.compareTo(eta) < 0)
+                eta = budget;
+        }
+        return eta;
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Add pixels to the work of the render, as a pass starts
+     *
+     * @param pixels amount of pixels
+     */
+    void addTotalPixels(long pixels) {
+        _totalPixels.addAndGet(pixels);
+    }
+
+    /**
+     * Set the deadline of a time budget
+     *
+     * @param deadline the deadline ({@link System#nanoTime()})
+     */
+    void setDeadline(long deadline) {
+        _deadline = deadline;
+    }
+
+    /**
+     * Add rendered pixels
+     *
+     * @param pixels amount of pixels
+     */
+    void addPixels(long pixels) {
+        _pixels.add(pixels);
+    }
+
+    /**
+     * Count a traced ray
+     */
+    void addRay() {
+        _rays.increment();
+    }
+
+    /**
+     * Measure the rates since the last sample - called by the monitor thread
+     */
+    void sample() {
+        long time = System.nanoTime();
+        long pixels = _pixels.sum();
+        long rays = _rays.sum();
+        double seconds = (time - _sampleTime) / 1e9;
+        if (seconds > 0) {
+            _pixelsPerSecond = (pixels - _samplePixels) / seconds;
+            _raysPerSecond = (rays - _sampleRays) / seconds;
+        }
+        _sampleTime = time;
+        _samplePixels = pixels;
+        _sampleRays = rays;
+    }
+}
@@ -0,0 +1,207 @@
+package renderer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a render, see {@link Render#setStats()} - the traced rays by
+ * type, the intersection tests by geometry class, the recursion depth, the
+ * gloss/blur beam sizes and the recursion cut offs by the attenuation
+ * threshold. The counters are striped by thread ({@link LongAdder}), so the
+ * render threads do not contend on them.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class RenderStats {
+    /**
+     * Type of a traced ray
+     */
+    public enum RayType {
+        /**
+         * Ray from the camera
+         */
+        CAMERA,
+        /**
+         * Reflected ray, including the rays of a gloss beam
+         */
+        REFLECTED,
+        /**
+         * Refracted ray, including the rays of a blur beam
+         */
+        REFRACTED,
+        /**
+         * Shadow ray from a point to a light source
+         */
+        SHADOW
+    }
+
+    private final LongAdder[] _rays = new LongAdder[RayType.values().length];
+    private final Map<Class<?>, LongAdder> _intersectionTests = new ConcurrentHashMap<>();
+    private final LongAdder _points = new LongAdder(); // intersection points that were shaded
+    private final LongAdder _depths = new LongAdder();
+    private final LongAccumulator _maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder _beams = new LongAdder();
+    private final LongAdder _beamRays = new LongAdder();
+    private final LongAdder _earlyOuts = new LongAdder();
+
+    // ***************** Constructors ********************** //
+
+    /**
+     * Constructor of empty statistics
+     */
+    RenderStats() {
+        for (int i = 0; i < _rays.length; ++i)
+            _rays[i] = new LongAdder();
+    }
+
+    // ***************** Getters ********************** //
+
+    /**
+     * @param type type of rays
+     * @return amount of traced rays of the type
+     */
+    public long getRays(RayType type) {
+        return _rays[type.ordinal()].sum();
+    }
+
+    /**
+     * @return amount of traced rays of all the types
+     */
+    public long getRays() {
+        long rays = 0;
+        for (LongAdder adder : _rays)
+            rays += adder.sum();
+        return rays;
+    }
+
+    /**
+     * @param geometryClass class of geometries
+     * @return amount of intersection tests of the geometries of the class
+     */
+    public long getIntersectionTests(Class<?> geometryClass) {
+        LongAdder tests = _intersectionTests.get(geometryClass);
+        return tests == null ? 0 : tests.sum();
+    }
+
+    /**
+     * @return amount of intersection tests by the simple names of the geometry classes
+     */
+    public Map<String, Long> getIntersectionTests() {
+        Map<String, Long> tests = new TreeMap<>();
+        _intersectionTests.forEach((c, adder) -> tests.merge(c.getSimpleName(), adder.sum(), Long::sum));
+        return tests;
+    }
+
+    /**
+     * @return average recursion depth of the shaded intersection points - 1 for
+     * the points of the camera rays
+     */
+    public double getAverageDepth() {
+        long points = _points.sum();
+        return points == 0 ? 0 : (double) _depths.sum() / points;
+    }
+
+    /**
+     * @return maximal recursion depth
+     */
+    public int getMaxDepth() {
+        return (int) _maxDepth.get();
+    }
+
+    /**
+     * @return amount of gloss/blur beams of more than a single ray
+     */
+    public long getBeams() {
+        return _beams.sum();
+    }
+
+    /**
+     * @return average amount of rays that were traced in a gloss/blur beam
+     */
+    public double getAverageBeamSize() {
+        long beams = _beams.sum();
+        return beams == 0 ? 0 : (double) _beamRays.sum() / beams;
+    }
+
+    /**
+     * @return amount of reflections, refractions and light sources that were
+     * cut off since the accumulated attenuation was below the threshold
+     */
+    public long getEarlyOuts() {
+        return _earlyOuts.sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("rays:");
+        for (RayType type : RayType.values())
+            text.append(' ').append(type.name().toLowerCase()).append('=').append(getRays(type));
+        text.append("\nintersection tests: ").append(getIntersectionTests());
+        text.append(String.format("%ndepth: average=%.3f max=%d", getAverageDepth(), getMaxDepth()));
+        text.append(String.format("%nbeams: %d average size=%.2f", getBeams(), getAverageBeamSize()));
+        text.append("\nearly outs: ").append(getEarlyOuts());
+        return text.toString();
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Count a traced ray
+     *
+     * @param type type of the ray
+     */
+    void addRay(RayType type) {
+        _rays[type.ordinal()].increment();
+    }
+
+    /**
+     * Count traced rays
+     *
+     * @param type type of the rays
+     * @param rays amount of rays
+     */
+    void addRays(RayType type, int rays) {
+        _rays[type.ordinal()].add(rays);
+    }
+
+    /**
+     * Get the counter of the intersection tests of a geometry class
+     *
+     * @param geometryClass class of geometries
+     * @return the counter
+     */
+    LongAdder getIntersectionCounter(Class<?> geometryClass) {
+        return _intersectionTests.computeIfAbsent(geometryClass, c -> new LongAdder());
+    }
+
+    /**
+     * Count a shaded intersection point
+     *
+     * @param depth recursion depth of the point
+     */
+    void addDepth(int depth) {
+        _points.increment();
+        _depths.add(depth);
+        _maxDepth.accumulate(depth);
+    }
+
+    /**
+     * Count a gloss/blur beam
+     *
+     * @param rays amount of traced rays of the beam
+     */
+    void addBeam(int rays) {
+        _beams.increment();
+        _beamRays.add(rays);
+    }
+
+    /**
+     * Count a cut off by the attenuation threshold
+     */
+    void addEarlyOut() {
+        _earlyOuts.increment();
+    }
+}
@@ -0,0 +1,144 @@
+package renderer;
+
+import java.util.concurrent.*;
+
+/**
+ * Handle of a render that runs in the background, see
+ * {@link Render#renderImageAsync()}. Cancelling the render is cooperative - the
+ * render threads check it before each tile, so they finish the tiles they are
+ * rendering and stop; virtual render threads that wait for a CPU permit are
+ * interrupted. A failure of a render thread stops the other threads and
+ * is thrown by {@link #get()}.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class RenderTask implements Future<ImageWriter> {
+    private final ImageWriter _imageWriter;
+    private final CompletableFuture<ImageWriter> _result = new CompletableFuture<>();
+    private final CountDownLatch _terminated = new CountDownLatch(1);
+    private final RenderProgress _progress = new RenderProgress();
+    private volatile boolean _stopped = false;
+    private volatile Runnable _stopAction = null; // wakes up the render threads that wait when stopped
+
+    // ***************** Constructors ********************** //
+
+    /**
+     * Constructor of the handle of a render
+     *
+     * @param imageWriter the image writer of the render
+     */
+    RenderTask(ImageWriter imageWriter) {
+        _imageWriter = imageWriter;
+    }
+
+    // ***************** Operations ******************** //
+
+    /**
+     * Cancel the render - the render threads stop at the next tile, whether
+     * they may be interrupted or not. Checkpoints (if set) are written as usual,
+     * so a cancelled render may be resumed.
+     *
+     * @param mayInterruptIfRunning ignored
+     * @return false if the render was already done
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = _result.cancel(mayInterruptIfRunning);
+        if (cancelled)
+            stop();
+        return cancelled;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return _result.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return _result.isDone();
+    }
+
+    /**
+     * Wait for the render
+     *
+     * @return the image writer with the image
+     * @throws InterruptedException  if the waiting thread was interrupted
+     * @throws ExecutionException    if a render thread failed, with its exception as the cause
+     * @throws CancellationException if the render was cancelled
+     */
+    @Override
+    public ImageWriter get() throws InterruptedException, ExecutionException {
+        return _result.get();
+    }
+
+    @Override
+    public ImageWriter get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+            TimeoutException {
+        return _result.get(timeout, unit);
+    }
+
+    /**
+     * @return progress of the render
+     */
+    public RenderProgress getProgress() {
+        return _progress;
+    }
+
+    /**
+     * Wait until all the threads of the render ended - unlike {@link #get()},
+     * it waits also for a cancelled render
+     *
+     * @param timeout maximal time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the render ended, false if the timeout elapsed
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return _terminated.await(timeout, unit);
+    }
+
+    /**
+     * @return true if the render threads must stop - the render was cancelled or failed
+     */
+    boolean isStopped() {
+        return _stopped;
+    }
+
+    /**
+     * Stop the render threads - the render was cancelled, or one of the threads
+     * failed
+     */
+    void stop() {
+        _stopped = true;
+        Runnable action = _stopAction;
+        if (action != null)
+            action.run();
+    }
+
+    /**
+     * Set the action that wakes up the render threads that wait, e.g. for a
+     * CPU permit, when the render is stopped. It is run right away if the
+     * render was already stopped.
+     *
+     * @param action the action, null for none
+     */
+    void setStopAction(Runnable action) {
+        _stopAction = action;
+        if (action != null && _stopped)
+            action.run();
+    }
+
+    /**
+     * The render ended
+     *
+     * @param failure the failure of the render, null if it succeeded
+     */
+    void terminate(Throwable failure) {
+        if (failure == null)
+            _result.complete(_imageWriter);
+        else
+            _result.completeExceptionally(failure);
+        _terminated.countDown();
+    }
+}
@@ -0,0 +1,138 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Frame buffer that streams the image to a PNG file by bands of rows. A band
+ * is allocated when its first pixel is written, and it is encoded and freed as
+ * soon as all its pixels were written and all the bands above it were encoded,
+ * so the memory is bounded by the bands in progress and not by the image size.
+ * <br/>
+ * Each pixel must be written exactly once, and a pixel reads black after its
+ * band was encoded. The file and the tone mapping are fixed when the buffer is
+ * created.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+class StreamingFrameBuffer implements FrameBuffer {
+    private final int _nX;
+    private final int _nY;
+    private final int _bandHeight;
+    private final ToneMapping _toneMapping;
+    private final PngEncoder _encoder;
+    private final AtomicReferenceArray<Band> _bands;
+    private int _nextBand = 0; // first band that was not encoded yet, guarded by this
+
+    /**
+     * Band of rows in progress
+     */
+    private static class Band {
+        final float[] pixels;
+        final AtomicInteger remaining; // pixels that were not written yet
+
+        /**
+         * Constructor
+         *
+         * @param size amount of pixels in the band
+         */
+        Band(int size) {
+            pixels = new float[3 * size];
+            remaining = new AtomicInteger(size);
+        }
+    }
+
+    /**
+     * Constructor - opens the file and writes the PNG header
+     *
+     * @param file        the image file
+     * @param nX          amount of pixels by width
+     * @param nY          amount of pixels by height
+     * @param bandHeight  amount of rows in a band
+     * @param toneMapping the tone mapping of the colors
+     * @throws IOException on a file error
+     */
+    StreamingFrameBuffer(File file, int nX, int nY, int bandHeight, ToneMapping toneMapping) throws IOException {
+        _nX = nX;
+        _nY = nY;
+        _bandHeight = bandHeight;
+        _toneMapping = toneMapping;
+        _encoder = new PngEncoder(new FileOutputStream(file), nX, nY);
+        _bands = new AtomicReferenceArray<>((nY + bandHeight - 1) / bandHeight);
+    }
+
+    @Override
+    public void write(int x, int y, float r, float g, float b) {
+        int index = y / _bandHeight;
+        Band band = _bands.get(index);
+        if (band == null) {
+            synchronized (this) {
+                if (index < _nextBand)
+                    throw new IllegalArgumentException("The pixel row was already written to the image file");
+            }
+            _bands.compareAndSet(index, null, new Band(_nX * bandRows(index)));
+            band = _bands.get(index);
+        }
+        int i = 3 * ((y - index * _bandHeight) * _nX + x);
+        band.pixels[i] = r;
+        band.pixels[i + 1] = g;
+        band.pixels[i + 2] = b;
+        if (band.remaining.decrementAndGet() == 0)
+            try {
+                encodeCompleteBands();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+    }
+
+    @Override
+    public Color read(int x, int y) {
+        Band band = _bands.get(y / _bandHeight);
+        if (band == null)
+            return new Color(0, 0, 0);
+        int i = 3 * ((y % _bandHeight) * _nX + x);
+        return new Color(band.pixels[i], band.pixels[i + 1], band.pixels[i + 2]);
+    }
+
+    @Override
+    public synchronized void writeToImage(File file, ToneMapping toneMapping) throws IOException {
+        // the missing pixels are left black
+        while (_nextBand < _bands.length()) {
+            _bands.compareAndSet(_nextBand, null, new Band(_nX * bandRows(_nextBand)));
+            _bands.get(_nextBand).remaining.set(0);
+            encodeCompleteBands();
+        }
+        _encoder.close();
+    }
+
+    /**
+     * Encode the complete bands that are next in order
+     *
+     * @throws IOException on a write error
+     */
+    private synchronized void encodeCompleteBands() throws IOException {
+        Band band;
+        while (_nextBand < _bands.length() && (band = _bands.get(_nextBand)) != null && band.remaining.get() == 0) {
+            int size = band.pixels.length / 3;
+            int[] rgb = new int[size];
+            for (int p = 0; p < size; ++p)
+                rgb[p] = _toneMapping.rgb(band.pixels[3 * p], band.pixels[3 * p + 1], band.pixels[3 * p + 2]);
+            _encoder.writeRows(rgb, 0, size / _nX);
+            _bands.set(_nextBand++, null);
+        }
+    }
+
+    /**
+     * @param index band index
+     * @return amount of rows in the band
+     */
+    private int bandRows(int index) {
+        return Math.min(_bandHeight, _nY - index * _bandHeight);
+    }
+}
@@ -0,0 +1,49 @@
+package renderer;
+
+/**
+ * Tone mapping of the high dynamic range color components of the frame buffer
+ * to the 0..255 range of the image file
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public enum ToneMapping {
+    /**
+     * Cut the fraction and any value above 255 (same as primitives.Color#getColor())
+     */
+    CLAMP {
+        @Override
+        public int map(float value) {
+            return Math.min((int) value, 255);
+        }
+    },
+    /**
+     * Reinhard operator c / (1 + c) on the component in units of 255 - keeps
+     * the details of the bright areas, 255 becomes half
+     */
+    REINHARD {
+        @Override
+        public int map(float value) {
+            return (int) (255 * value / (255 + value));
+        }
+    };
+
+    /**
+     * Map the components of a color to a packed RGB integer
+     *
+     * @param r red component
+     * @param g green component
+     * @param b blue component
+     * @return the color as 0xRRGGBB
+     */
+    public int rgb(float r, float g, float b) {
+        return map(r) << 16 | map(g) << 8 | map(b);
+    }
+
+    /**
+     * Map a color component
+     *
+     * @param value non negative color component
+     * @return the component in 0..255
+     */
+    public abstract int map(float value);
+}
@@ -35,6 +35,15 @@ public class Scene {
         this._lights = new LinkedList<LightSource>();
     }
 
+    /**
+     * Get the name of the scene
+     *
+     * @return the name
+     */
+    public String getName() {
+        return _name;
+    }
+
     /**
      * Add Light sources to the scene
      *
@@ -55,4 +55,31 @@ public class CameraTest {
 
     }
 
+    /**
+     * Test method for
+     * {@link elements.Camera#constructRayThroughPoint(int, int, double, double, double, double, double)}.
+     */
+    @Test
+    public void testConstructRayThroughPoint() {
+        Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 4X4 Inside point of pixel (1,1)
+        assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(-1.5, -0.5, 10)),
+                camera.constructRayThroughPoint(4, 4, 1.25, 1.75, 10, 8, 8));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: 4X4 Pixel center is the same as the ray through the pixel (1,1)
+        assertEquals("Bad ray", camera.constructRayThroughPixel(4, 4, 1, 1, 10, 8, 8),
+                camera.constructRayThroughPoint(4, 4, 1.5, 1.5, 10, 8, 8));
+
+        // TC12: 4X4 Corner of the screen
+        assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(-4, -4, 10)),
+                camera.constructRayThroughPoint(4, 4, 0, 0, 10, 8, 8));
+
+        // TC13: 4X4 Center of the screen
+        assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(0, 0, 10)),
+                camera.constructRayThroughPoint(4, 4, 2, 2, 10, 8, 8));
+    }
+
 }
@@ -0,0 +1,164 @@
+package test.geometries;
+
+import geometries.*;
+import org.junit.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Bounding volume hierarchy Tester - through the geometries that use it.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class BoundingVolumeHierarchyTest {
+
+    /**
+     * Grid of 10x10 spheres of radius 1 with centers at (x*3, y*3, 10), and a
+     * triangle above each one
+     *
+     * @return the geometries
+     */
+    private Geometries grid() {
+        Geometries geometries = new Geometries();
+        for (int x = 0; x < 10; ++x)
+            for (int y = 0; y < 10; ++y) {
+                geometries.add(new Sphere(new Point3D(x * 3, y * 3, 10), 1));
+                geometries.add(new Triangle(new Point3D(x * 3 - 1, y * 3 - 1, 5), new Point3D(x * 3 + 1, y * 3 - 1, 5),
+                        new Point3D(x * 3, y * 3 + 1, 5)));
+            }
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link Geometries#getBoundingBox()}
+     */
+    @Test
+    public void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Only bounded geometries
+        BoundingBox box = grid().getBoundingBox();
+        assertEquals("Wrong min corner", new Point3D(-1, -1, 5), box.getMin());
+        assertEquals("Wrong max corner", new Point3D(28, 28, 11), box.getMax());
+
+        // TC02: A plane makes the geometries unbounded
+        Geometries geometries = grid();
+        geometries.add(new Plane(new Point3D(0, 0, 20), new Vector(0, 0, 1)));
+        assertNull("Plane is unbounded", geometries.getBoundingBox());
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: Empty geometries
+        assertNull("Empty geometries are unbounded", new Geometries().getBoundingBox());
+    }
+
+    /**
+     * Test method for {@link Geometries#findIntersections(Ray)} with a hierarchy
+     */
+    @Test
+    public void testFindIntersections() {
+        Geometries geometries = grid();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray along z through a sphere center and its triangle (3 points)
+        List<Intersectables.GeoPoint> result = geometries.findIntersections(new Ray(new Point3D(6, 9, 0), new Vector(0, 0, 1)));
+        assertEquals("Wrong number of points", 3, result.size());
+
+        // TC02: Ray between the spheres (0 points)
+        assertNull("Ray between the spheres", geometries.findIntersections(new Ray(new Point3D(1.5, 1.5, 0), new Vector(0, 0, 1))));
+
+        // TC03: Ray along a row of spheres (20 points)
+        result = geometries.findIntersections(new Ray(new Point3D(-5, 3, 10), new Vector(1, 0, 0)));
+        assertEquals("Wrong number of points", 20, result.size());
+
+        // TC04: Ray ending between the spheres of a row (6 points)
+        result = geometries.findIntersections(new Ray(new Point3D(-5, 3, 10), new Vector(1, 0, 0)), 12.5);
+        assertEquals("Wrong number of points", 6, result.size());
+
+        // TC05: Unbounded plane is intersected besides the hierarchy (4 points)
+        geometries.add(new Plane(new Point3D(0, 0, 20), new Vector(0, 0, 1)));
+        result = geometries.findIntersections(new Ray(new Point3D(6, 9, 0), new Vector(0, 0, 1)));
+        assertEquals("Wrong number of points", 4, result.size());
+
+        // =============== Boundary Values Tests ==================
+
+        // TC06: Ray starts inside the hierarchy box going away (0 points)
+        assertNull("Ray leaving the spheres", geometries.findIntersections(new Ray(new Point3D(1.5, 1.5, 8), new Vector(0, 0, -1))));
+
+        // TC07: Ray parallel to the triangles' plane inside it (0 points)
+        assertNull("Ray in the triangles plane", grid().findIntersections(new Ray(new Point3D(-5, 1.5, 5), new Vector(1, 0, 0))));
+    }
+
+    /**
+     * Test method for {@link Geometries#findClosestIntersection(Ray)} with a hierarchy
+     */
+    @Test
+    public void testFindClosestIntersection() {
+        Geometries geometries = grid();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray along a row of spheres from the positive side
+        Intersectables.GeoPoint closest = geometries.findClosestIntersection(new Ray(new Point3D(40, 3, 10), new Vector(-1, 0, 0)));
+        assertEquals("Wrong closest point", new Point3D(28, 3, 10), closest.point);
+        assertEquals("Wrong distance", 12, closest.t, 1e-10);
+
+        // TC02: Ray along z hits the triangle before the sphere
+        closest = geometries.findClosestIntersection(new Ray(new Point3D(6, 9, 0), new Vector(0, 0, 1)));
+        assertTrue("Closest geometry should be a triangle", closest.geometry instanceof Triangle);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: Ray ending right before a sphere (0 points)
+        assertNull("Ray ending before the sphere",
+                geometries.findClosestIntersection(new Ray(new Point3D(40, 3, 10), new Vector(-1, 0, 0)), 11.5));
+    }
+
+    /**
+     * Test method for {@link Geometries#setTree(BoundingVolumeHierarchy.Tree)}
+     */
+    @Test
+    public void testSetTree() {
+        BoundingVolumeHierarchy.Tree tree = grid().getTree();
+        Geometries geometries = grid();
+        geometries.setTree(tree);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The restored hierarchy is the same hierarchy
+        assertSame("The tree is not shared", tree.bounds, geometries.getTree().bounds);
+        assertEquals("Wrong number of points", 20,
+                geometries.findIntersections(new Ray(new Point3D(-5, 3, 10), new Vector(1, 0, 0))).size());
+        assertEquals("Wrong closest point", new Point3D(6, 9, 5),
+                geometries.findClosestIntersection(new Ray(new Point3D(6, 9, 0), new Vector(0, 0, 1))).point);
+
+        // TC02: A tree of other geometries
+        Geometries other = grid();
+        other.add(new Sphere(new Point3D(100, 100, 100), 1));
+        try {
+            other.setTree(tree);
+            fail("Set a tree of another amount of geometries");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC03: A node out of range
+        int[] offsets = tree.offsets.clone();
+        offsets[0] = offsets.length;
+        try {
+            new BoundingVolumeHierarchy.Tree(tree.bounds, offsets, tree.counts, tree.axes, tree.order);
+            fail("Created a tree with a node out of range");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Too few geometries for a hierarchy
+        assertNull("A tree of a single geometry", new Geometries(new Sphere(Point3D.ZERO, 1)).getTree());
+    }
+}
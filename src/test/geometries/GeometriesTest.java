@@ -1,16 +1,23 @@
 package test.geometries;
 
 import geometries.*;
+import geometries.Intersectables.GeoPoint;
 import geometries.Plane;
 import geometries.Sphere;
 import geometries.Triangle;
 import org.junit.Test;
+import primitives.Color;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * Geometries Tester.
@@ -56,5 +63,103 @@ public class GeometriesTest {
         assertEquals("Wrong number of intersections - expected 2", 2, geometriesListOne.findIntersections(new Ray(new Point3D(1.0, 0.0, -1.0), new Vector(0.0, 0.0, 1.0))).size());
 
     }
-}
 
+    /**
+     * Test method for {@link Geometries#findClosestIntersection(Ray)}
+     */
+    @Test
+    public void testFindClosestIntersection() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point3D(0.0, 5.0, 1.0), 1.0),
+                new Plane(new Point3D(0.0, 1.0, 2.0), new Vector(0.0, -1.0, 0.0)),
+                new Triangle(new Point3D(0.4, 3.0, 1.0), new Point3D(0.0, 3.0, 1.0), new Point3D(2.0, 3.0, 5.0)));
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0.0, 5.0, 1.0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Intersections with all geometries - the plane is the closest
+        GeoPoint closest = geometries.findClosestIntersection(ray);
+        assertEquals("Wrong closest point", new Point3D(0, 1, 0.2), closest.point);
+        assertEquals("Wrong distance of the closest point", Math.sqrt(1.04), closest.t, 1e-10);
+
+        // TC02: No intersections (0 points)
+        assertNull("No intersections - should return null",
+                geometries.findClosestIntersection(new Ray(new Point3D(0.0, 0.0, 2.0), new Vector(0.0, -1.0, 0.0))));
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: Max distance before the closest intersection (0 points)
+        assertNull("Intersections beyond max distance", geometries.findClosestIntersection(ray, 1));
+
+        // TC04: Empty geometry list (0 points)
+        assertNull("Empty geometries - should return null", new Geometries().findClosestIntersection(ray));
+    }
+
+    /**
+     * Test method for {@link Geometries#findTransparency(Ray, double, double)}
+     */
+    @Test
+    public void testFindTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(Color.BLACK, new Material(0, 0, 0, 0.5, 0), new Point3D(0, 0, 5), 1),
+                new Plane(Color.BLACK, new Material(0, 0, 0, 0.5, 0), new Point3D(0, 0, 10), new Vector(0, 0, 1)),
+                new Sphere(new Point3D(0, 0, 15), 1));
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Light before all the geometries
+        assertEquals("Nothing between the point and the light", 1, geometries.findTransparency(ray, 3, 0.001), 1e-10);
+
+        // TC02: Light behind the transparent sphere (two intersections)
+        assertEquals("Wrong transparency", 0.25, geometries.findTransparency(ray, 8, 0.001), 1e-10);
+
+        // TC03: Light behind the transparent plane
+        assertEquals("Wrong transparency", 0.125, geometries.findTransparency(ray, 12, 0.001), 1e-10);
+
+        // TC04: Light behind the opaque sphere
+        assertEquals("Opaque sphere blocks the light", 0, geometries.findTransparency(ray, 20, 0.001), 1e-10);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC05: Transparency below the threshold blocks the light
+        assertEquals("Transparency below threshold", 0, geometries.findTransparency(ray, 12, 0.2), 1e-10);
+    }
+
+    /**
+     * Test method for {@link Geometries#map(java.util.function.UnaryOperator)}
+     */
+    @Test
+    public void testMap() {
+        Sphere sphere = new Sphere(new Point3D(0.0, 5.0, 1.0), 1.0);
+        Plane plane = new Plane(new Point3D(0.0, 1.0, 2.0), new Vector(0.0, -1.0, 0.0));
+        Geometries geometries = new Geometries(sphere, new Geometries(plane));
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0.0, 5.0, 1.0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The function gets the geometries of the nested Geometries, and the copy finds the same points
+        List<Intersectables> mapped = new ArrayList<>();
+        Geometries copy = geometries.map(geometry -> {
+            mapped.add(geometry);
+            return geometry;
+        });
+        assertEquals("Wrong mapped geometries", List.of(sphere, plane), mapped);
+        assertEquals("Wrong closest point", geometries.findClosestIntersection(ray).point,
+                copy.findClosestIntersection(ray).point);
+
+        // TC02: The copy shares the hierarchy tree, which is not built again
+        Geometries many = new Geometries(plane);
+        for (int i = 0; i < 10; ++i)
+            many.add(new Sphere(new Point3D(3 * i, 5, 1), 1));
+        copy = many.map(geometry -> geometry);
+        assertSame("The hierarchy was built again", many.getTree().order, copy.getTree().order);
+        assertEquals("Wrong closest point", many.findClosestIntersection(ray).point,
+                copy.findClosestIntersection(ray).point);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Empty geometries
+        assertNull("Empty geometries - should return null", new Geometries().map(g -> g).findClosestIntersection(ray));
+    }
+}
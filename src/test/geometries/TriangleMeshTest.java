@@ -0,0 +1,175 @@
+package test.geometries;
+
+import geometries.Intersectables.GeoPoint;
+import geometries.TriangleMesh;
+import org.junit.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TriangleMesh Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class TriangleMeshTest {
+
+    // a unit square in the plane z=0 made of two triangles
+    TriangleMesh square = new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0}, new int[]{0, 1, 2, 0, 2, 3});
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(double[], int[])}
+     */
+    @Test
+    public void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Correct mesh
+        assertEquals("Wrong amount of faces", 2, square.getFaceCount());
+        assertEquals("Wrong amount of vertices", 4, square.getVertexCount());
+
+        // TC02: A face refers a missing vertex
+        try {
+            new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0}, new int[]{0, 1, 3});
+            fail("Constructed a mesh with a missing vertex");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC03: Vertex coordinates that are not triples
+        try {
+            new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 1, 1}, new int[]{0, 1, 2});
+            fail("Constructed a mesh with a partial vertex");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC04: A mesh with the hierarchy tree of another mesh of the same faces
+        TriangleMesh copy = new TriangleMesh(Color.BLACK, Material.DEFAULT, square.getVertices(), square.getFaces(),
+                square.getTree());
+        assertSame("The tree is not shared", square.getTree().order, copy.getTree().order);
+        assertEquals("Wrong point", new Point3D(0.25, 0.75, 0),
+                copy.findClosestIntersection(new Ray(new Point3D(0.25, 0.75, 1), new Vector(0, 0, -1))).point);
+
+        // TC05: A tree of another amount of faces
+        try {
+            new TriangleMesh(Color.BLACK, Material.DEFAULT, new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0},
+                    new int[]{0, 1, 2}, square.getTree());
+            fail("Constructed a mesh with a tree of another amount of faces");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Empty mesh
+        assertNull("Empty mesh - should return null",
+                new TriangleMesh(new double[0], new int[0]).findIntersections(new Ray(Point3D.ZERO, new Vector(0, 0, 1))));
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#getNormal(Point3D)}
+     */
+    @Test
+    public void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Point inside a face
+        assertEquals("Wrong normal", new Vector(0, 0, 1), square.getNormal(new Point3D(0.7, 0.2, 0)));
+
+        // TC02: Point out of the mesh
+        assertNull("Normal of a point out of the mesh", square.getNormal(new Point3D(0.5, 0.5, 1)));
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findIntersections(Ray)}
+     */
+    @Test
+    public void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray through a face (1 point) with the face normal
+        List<GeoPoint> result = square.findIntersections(new Ray(new Point3D(0.7, 0.2, 1), new Vector(0, 0, -1)));
+        assertEquals("Wrong number of points", 1, result.size());
+        assertEquals("Wrong point", new Point3D(0.7, 0.2, 0), result.get(0).point);
+        assertEquals("Wrong distance", 1, result.get(0).t, 1e-10);
+        assertEquals("Wrong normal", new Vector(0, 0, 1), result.get(0).normal);
+
+        // TC02: Ray out of the mesh (0 points)
+        assertNull("Ray out of the mesh", square.findIntersections(new Ray(new Point3D(2, 2, 1), new Vector(0, 0, -1))));
+
+        // TC03: Ray starts after the mesh (0 points)
+        assertNull("Ray after the mesh", square.findIntersections(new Ray(new Point3D(0.5, 0.2, -1), new Vector(0, 0, -1))));
+
+        // TC04: Ray through a closed tetrahedron (2 points)
+        TriangleMesh tetrahedron = new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
+                new int[]{0, 2, 1, 0, 1, 3, 0, 3, 2, 1, 2, 3});
+        assertEquals("Wrong number of points", 2,
+                tetrahedron.findIntersections(new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1))).size());
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray through the edge between the faces - no crack (1 point)
+        assertEquals("Ray through the shared edge", new Point3D(0.5, 0.5, 0),
+                square.findClosestIntersection(new Ray(new Point3D(0.5, 0.5, 1), new Vector(0, 0, -1))).point);
+
+        // TC12: Ray through a vertex
+        assertNotNull("Ray through a vertex",
+                square.findClosestIntersection(new Ray(new Point3D(1, 1, 1), new Vector(0, 0, -1))));
+
+        // TC13: Ray parallel to the mesh (0 points)
+        assertNull("Ray parallel to the mesh",
+                square.findIntersections(new Ray(new Point3D(-1, 0.5, 0), new Vector(1, 0, 0))));
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findClosestIntersection(Ray, double)}
+     */
+    @Test
+    public void testFindClosestIntersection() {
+        // a grid of 20x20 squares in the plane z=0 and the same grid in z=1
+        int n = 20;
+        double[] vertices = new double[3 * 2 * (n + 1) * (n + 1)];
+        int[] faces = new int[2 * 2 * 3 * n * n];
+        int v = 0, f = 0;
+        for (int z = 0; z < 2; ++z) {
+            int first = v / 3;
+            for (int y = 0; y <= n; ++y)
+                for (int x = 0; x <= n; ++x) {
+                    vertices[v++] = x;
+                    vertices[v++] = y;
+                    vertices[v++] = z;
+                }
+            for (int y = 0; y < n; ++y)
+                for (int x = 0; x < n; ++x) {
+                    int corner = first + y * (n + 1) + x;
+                    faces[f++] = corner;
+                    faces[f++] = corner + 1;
+                    faces[f++] = corner + n + 2;
+                    faces[f++] = corner;
+                    faces[f++] = corner + n + 2;
+                    faces[f++] = corner + n + 1;
+                }
+        }
+        TriangleMesh grid = new TriangleMesh(new Color(10, 20, 30), new Material(0, 0, 0, 0.5, 0), vertices, faces);
+        Ray ray = new Ray(new Point3D(13.3, 7.6, 5), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The upper grid is the closest
+        assertEquals("Wrong closest point", new Point3D(13.3, 7.6, 1), grid.findClosestIntersection(ray).point);
+        assertEquals("Wrong number of points", 2, grid.findIntersections(ray).size());
+
+        // TC02: Transparency through both grids
+        assertEquals("Wrong transparency", 0.25, grid.findTransparency(ray, 10, 0.001), 1e-10);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Max distance between the grids
+        assertEquals("Wrong closest point", new Point3D(13.3, 7.6, 1), grid.findIntersections(ray, 4.5).get(0).point);
+        assertEquals("Wrong number of points", 1, grid.findIntersections(ray, 4.5).size());
+    }
+}
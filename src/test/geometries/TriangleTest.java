@@ -1,6 +1,7 @@
 package test.geometries;
 
 import geometries.Intersectables.GeoPoint;
+import geometries.Polygon;
 import geometries.Triangle;
 import org.junit.Test;
 import primitives.Point3D;
@@ -62,6 +63,20 @@ public class TriangleTest {
 
         // TC06: Ray's line intersects Triangle's edge outside Triangle  (0 points)
         assertEquals("Ray's line intersects Triangle's outside Triangle - should return null", null, tri.findIntersections((new Ray(new Point3D(2, -2, 0), new Vector(0, 1, 0)))));
+
+        // TC07: Ray's line is in Triangle's plane (0 points)
+        assertEquals("Ray's line is in Triangle's plane - should return null", null, tri.findIntersections((new Ray(new Point3D(-2, 0, 0.5), new Vector(1, 0, 0)))));
+
+        // TC08: Ray's line intersects Triangle beyond the maximum distance (0 points)
+        assertEquals("Ray's line intersects Triangle beyond the maximum distance - should return null", null, tri.findIntersections((new Ray(new Point3D(0, 2, 0.5), new Vector(0, -1, 0))), 1.5));
+
+        // TC09: Ray's line intersects Triangle's edges up to a floating point error (0 points, like a polygon)
+        Polygon polygon = new Polygon(new Point3D(0, 0, 1), new Point3D(1, 0, 0), new Point3D(-1, 0, 0));
+        for (Ray ray : List.of(new Ray(new Point3D(-0.5 + 1e-14, -2, 0.5), new Vector(0, 1, 0)),
+                new Ray(new Point3D(0.5 - 1e-14, -2, 0.5), new Vector(0, 1, 0)))) {
+            assertEquals("Ray's line intersects Triangle's edge up to an error - should return null", null, tri.findIntersections(ray));
+            assertEquals("Ray's line intersects Triangle's edge up to an error - should be like a polygon", polygon.findIntersections(ray), tri.findIntersections(ray));
+        }
     }
 
 } 
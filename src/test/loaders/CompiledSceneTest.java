@@ -0,0 +1,202 @@
+package test.loaders;
+
+import elements.*;
+import geometries.*;
+import geometries.Intersectables.GeoPoint;
+import loaders.CompiledScene;
+import org.junit.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * CompiledScene Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class CompiledSceneTest {
+
+    /**
+     * @return a scene with all the kinds of geometries and lights
+     */
+    private static Scene scene() {
+        Scene scene = new Scene("Compiled scene");
+        scene.setBackground(new Color(1, 2, 3));
+        scene.setDistance(1000);
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.setCamera(new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, -1, 0)));
+        scene.addLights(new DirectionalLight(new Color(100, 100, 100), new Vector(0, 0, 1)),
+                new PointLight(new Color(500, 300, 0), new Point3D(-50, 50, -50), 1, 0.00001, 0.000005),
+                new SpotLight(new Color(500, 300, 0), new Vector(1, -1, 2), new Point3D(-50, 50, -50), 1, 0.0001, 0));
+
+        Material glass = new Material(0.2, 0.2, 30, 0.6, 0).setGlossBlur(2);
+        Geometries spheres = new Geometries();
+        for (int i = 0; i < 20; ++i)
+            spheres.add(new Sphere(new Color(i, 0, 0), glass, new Point3D(10 * i, 100, 50), 4));
+        scene.addGeometries(spheres,
+                new Plane(Color.BLACK, new Material(0.5, 0.5, 20), new Point3D(0, 0, 1000), new Vector(0, 0, -1)),
+                new Triangle(new Color(0, 20, 0), new Material(0.5, 0.5, 60), new Point3D(100, 0, 0),
+                        new Point3D(110, 0, 0), new Point3D(100, 10, 0)),
+                new Polygon(new Color(0, 0, 20), glass, new Point3D(200, 0, 0), new Point3D(210, 0, 0),
+                        new Point3D(210, 10, 0), new Point3D(200, 10, 0)),
+                new Tube(new Ray(new Point3D(-200, 0, 0), new Vector(0, 1, 0)), 5));
+        int n = 30;
+        double[] vertices = new double[3 * (n + 1) * (n + 1)];
+        int[] faces = new int[6 * n * n];
+        for (int y = 0, v = 0; y <= n; ++y)
+            for (int x = 0; x <= n; ++x, v += 3) {
+                vertices[v] = x - 300;
+                vertices[v + 1] = y;
+                vertices[v + 2] = (x * y) % 7;
+            }
+        for (int y = 0, f = 0; y < n; ++y)
+            for (int x = 0; x < n; ++x, f += 6) {
+                int corner = y * (n + 1) + x;
+                faces[f] = faces[f + 3] = corner;
+                faces[f + 1] = corner + 1;
+                faces[f + 2] = faces[f + 4] = corner + n + 2;
+                faces[f + 5] = corner + n + 1;
+            }
+        scene.addGeometries(new TriangleMesh(new Color(5, 5, 5), Material.DEFAULT, vertices, faces));
+        for (int i = 0; i < 10; ++i)
+            scene.addGeometries(new Sphere(new Point3D(10 * i, -100, 50), 3));
+        return scene;
+    }
+
+    /**
+     * @return a temporary file
+     * @throws IOException on a file error
+     */
+    private static Path tempFile() throws IOException {
+        File file = File.createTempFile("scene", ".bin");
+        file.deleteOnExit();
+        return file.toPath();
+    }
+
+    /**
+     * Assert two geometry intersections are the same
+     *
+     * @param expected the intersection in the original scene
+     * @param actual   the intersection in the loaded scene
+     */
+    private static void assertSameIntersection(GeoPoint expected, GeoPoint actual) {
+        if (expected == null) {
+            assertNull("Wrong intersection", actual);
+            return;
+        }
+        assertNotNull("Missing intersection", actual);
+        assertEquals("Wrong point", expected.point, actual.point);
+        assertEquals("Wrong geometry", expected.geometry.getClass(), actual.geometry.getClass());
+        assertEquals("Wrong emission", expected.geometry.getEmission().getColor(),
+                actual.geometry.getEmission().getColor());
+        Material material = expected.geometry.getMaterial();
+        Material loaded = actual.geometry.getMaterial();
+        assertEquals("Wrong material", material.getKD(), loaded.getKD(), 0);
+        assertEquals("Wrong material", material.getNShininess(), loaded.getNShininess());
+        assertEquals("Wrong material", material.getKT(), loaded.getKT(), 0);
+        assertEquals("Wrong material", material.getGlossBlur(), loaded.getGlossBlur(), 0);
+    }
+
+    /**
+     * Test method for {@link CompiledScene#read(Path)}
+     */
+    @Test
+    public void testRead() throws IOException {
+        Scene scene = scene();
+        Path file = tempFile();
+        CompiledScene.write(scene, file);
+        Scene loaded = CompiledScene.read(file);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The scene settings
+        assertEquals("Wrong name", "Compiled scene", loaded.getName());
+        assertEquals("Wrong background", scene.getBackground().getColor(), loaded.getBackground().getColor());
+        assertEquals("Wrong distance", 1000, loaded.getDistance(), 0);
+        assertEquals("Wrong ambient light", scene.getAmbientLight().getIntensity().getColor(),
+                loaded.getAmbientLight().getIntensity().getColor());
+        assertEquals("Wrong camera", scene.getCamera().getP0(), loaded.getCamera().getP0());
+        assertEquals("Wrong camera", scene.getCamera().getVectorRight(), loaded.getCamera().getVectorRight());
+
+        // TC02: The lights
+        assertEquals("Wrong amount of lights", 3, loaded.getLights().size());
+        Point3D p = new Point3D(30, 20, 10);
+        for (int i = 0; i < 3; ++i) {
+            LightSource light = scene.getLights().get(i);
+            assertEquals("Wrong light", light.getClass(), loaded.getLights().get(i).getClass());
+            assertEquals("Wrong intensity", light.getIntensity(p).getColor(),
+                    loaded.getLights().get(i).getIntensity(p).getColor());
+            assertEquals("Wrong direction", light.getL(p), loaded.getLights().get(i).getL(p));
+        }
+
+        // TC03: The geometries - rays over the whole scene
+        for (int x = -310; x <= 250; x += 7)
+            for (int y = -110; y <= 110; y += 3) {
+                Ray ray = new Ray(new Point3D(x + 0.5, y + 0.25, -100), new Vector(0.01, 0.02, 1));
+                assertSameIntersection(scene.getGeometries().findClosestIntersection(ray),
+                        loaded.getGeometries().findClosestIntersection(ray));
+            }
+
+        // TC04: The hierarchies are restored and not built again
+        assertArrayEquals("Wrong scene tree", scene.getGeometries().getTree().order,
+                loaded.getGeometries().getTree().order);
+        TriangleMesh mesh = (TriangleMesh) scene.getGeometries().getGeometries().get(5);
+        TriangleMesh loadedMesh = (TriangleMesh) loaded.getGeometries().getGeometries().get(5);
+        assertArrayEquals("Wrong mesh vertices", mesh.getVertices(), loadedMesh.getVertices(), 0);
+        assertArrayEquals("Wrong mesh faces", mesh.getFaces(), loadedMesh.getFaces());
+        assertArrayEquals("Wrong mesh tree", mesh.getTree().bounds, loadedMesh.getTree().bounds, 0);
+
+        // TC05: A shared material stays shared
+        Geometries spheres = (Geometries) loaded.getGeometries().getGeometries().get(0);
+        assertSame("The material is not shared", ((Geometry) spheres.getGeometries().get(0)).getMaterial(),
+                ((Geometry) loaded.getGeometries().getGeometries().get(3)).getMaterial());
+
+        // TC06: A geometry that can't be compiled
+        Scene other = new Scene("Other");
+        other.addGeometries(new Sphere(Point3D.ZERO, 1) {
+        });
+        Path otherFile = tempFile();
+        try {
+            CompiledScene.write(other, otherFile);
+            fail("Compiled an unknown geometry");
+        } catch (IllegalArgumentException e) {
+        }
+        assertFalse("The temporary file was left", Files.exists(Paths.get(otherFile + ".tmp")));
+
+        // TC07: Not a compiled scene
+        Files.write(file, "not a scene".getBytes());
+        try {
+            CompiledScene.read(file);
+            fail("Read a file that is not a compiled scene");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Truncated file
+        CompiledScene.write(scene, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 100));
+        try {
+            CompiledScene.read(file);
+            fail("Read a truncated file");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC12: An empty scene
+        CompiledScene.write(new Scene("Empty"), file);
+        loaded = CompiledScene.read(file);
+        assertNull("Wrong camera", loaded.getCamera());
+        assertEquals("Wrong amount of lights", 0, loaded.getLights().size());
+        assertNull("Wrong geometries", loaded.getGeometries().findClosestIntersection(
+                new Ray(Point3D.ZERO, new Vector(0, 0, 1))));
+    }
+}
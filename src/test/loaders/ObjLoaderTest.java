@@ -0,0 +1,142 @@
+package test.loaders;
+
+import geometries.TriangleMesh;
+import loaders.MeshLoader;
+import loaders.ObjLoader;
+import org.junit.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * ObjLoader Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class ObjLoaderTest {
+
+    /**
+     * Write a text to a temporary file
+     *
+     * @param text   the text
+     * @param suffix the file suffix
+     * @return the file
+     * @throws IOException on a write error
+     */
+    static Path write(String text, String suffix) throws IOException {
+        File file = File.createTempFile("mesh", suffix);
+        file.deleteOnExit();
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.US_ASCII));
+        return file.toPath();
+    }
+
+    /**
+     * Tell whether a ray down to the plane z=0 from above a point hits the mesh
+     *
+     * @param mesh the mesh
+     * @param x    x of the point
+     * @param y    y of the point
+     * @return true if the ray hits the mesh
+     */
+    static boolean hits(TriangleMesh mesh, double x, double y) {
+        return mesh.findClosestIntersection(new Ray(new Point3D(x, y, 1), new Vector(0, 0, -1))) != null;
+    }
+
+    /**
+     * Test method for {@link ObjLoader#load()}
+     */
+    @Test
+    public void testLoad() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A quad that is split to two triangles
+        TriangleMesh mesh = new ObjLoader(write("# a unit square\nv 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nf 1 2 3 4\n",
+                ".obj")).load();
+        assertEquals("Wrong amount of vertices", 4, mesh.getVertexCount());
+        assertEquals("Wrong amount of faces", 2, mesh.getFaceCount());
+        assertEquals("Wrong point", new Point3D(0.25, 0.75, 0),
+                mesh.findClosestIntersection(new Ray(new Point3D(0.25, 0.75, 1), new Vector(0, 0, -1))).point);
+
+        // TC02: Texture and normal indices, negative indices, other lines and CRLF
+        mesh = new ObjLoader(write("o square\r\nv 0 0 0\r\nv 1.0 0 0\r\nv 1 1e0 0.0\r\nvn 0 0 1\r\nvt 0 0\r\n"
+                + "usemtl white\r\nf 1/1/1 2//1 3/1\r\nv -0 +1 -0.0\r\nf -4/1/1 -2 -1\r\n", ".obj")).load();
+        assertEquals("Wrong amount of vertices", 4, mesh.getVertexCount());
+        assertEquals("Wrong amount of faces", 2, mesh.getFaceCount());
+        assertTrue("Missing first face", hits(mesh, 0.75, 0.25));
+        assertTrue("Missing second face", hits(mesh, 0.25, 0.75));
+
+        // TC03: A face of two vertices
+        try {
+            new ObjLoader(write("v 0 0 0\nv 1 0 0\nf 1 2\n", ".obj")).load();
+            fail("Loaded a face of two vertices");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC04: A malformed vertex
+        try {
+            new ObjLoader(write("v 0 0 zero\n", ".obj")).load();
+            fail("Loaded a malformed vertex");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Empty file
+        assertEquals("Wrong amount of faces", 0, new ObjLoader(write("", ".obj")).load().getFaceCount());
+
+        // TC12: Vertex index 0 and a missing vertex
+        try {
+            new ObjLoader(write("v 0 0 0\nv 1 0 0\nv 1 1 0\nf 0 1 2\n", ".obj")).load();
+            fail("Loaded vertex index 0");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new ObjLoader(write("v 0 0 0\nv 1 0 0\nv 1 1 0\nf 1 2 4\n", ".obj")).load();
+            fail("Loaded a missing vertex");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC13: A file that is parsed by chunks, with negative indices across the
+        // chunk boundaries - squares [2i,2i+1]x[0,1]
+        int squares = 50000;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < squares; ++i)
+            text.append("v ").append(2 * i).append(" 0 0\nv ").append(2 * i + 1).append(" 0 0\nv ")
+                    .append(2 * i + 1).append(" 1 0\nv ").append(2 * i).append(" 1 0\nf -4 -3 -2 -1\n");
+        mesh = new ObjLoader(write(text.toString(), ".obj")).load();
+        assertEquals("Wrong amount of vertices", 4 * squares, mesh.getVertexCount());
+        assertEquals("Wrong amount of faces", 2 * squares, mesh.getFaceCount());
+        for (int i = 0; i < squares; i += 97) {
+            assertTrue("Missing square " + i, hits(mesh, 2 * i + 0.3, 0.6));
+            assertFalse("Wrong square " + i, hits(mesh, 2 * i + 1.5, 0.6));
+        }
+    }
+
+    /**
+     * Test method for {@link MeshLoader#load(Scene)}
+     */
+    @Test
+    public void testLoadScene() throws IOException {
+        Scene scene = new Scene("Test scene");
+        MeshLoader loader = MeshLoader.of(write("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n", ".obj"));
+        assertTrue("Wrong loader", loader instanceof ObjLoader);
+        TriangleMesh mesh = loader.load(scene);
+        assertSame("The mesh is not in the scene", mesh, scene.getGeometries()
+                .findClosestIntersection(new Ray(new Point3D(0.2, 0.2, 1), new Vector(0, 0, -1))).geometry);
+
+        try {
+            MeshLoader.of(write("", ".stl"));
+            fail("Created a loader of an unknown type");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package test.loaders;
+
+import geometries.TriangleMesh;
+import loaders.MeshLoader;
+import loaders.PlyLoader;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.*;
+import static test.loaders.ObjLoaderTest.hits;
+import static test.loaders.ObjLoaderTest.write;
+
+/**
+ * PlyLoader Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class PlyLoaderTest {
+    // a header of a unit square as a quad, with properties and an element that are skipped
+    private static final String HEADER = "ply\nformat %s 1.0\ncomment a unit square\nelement vertex 4\n"
+            + "property float x\nproperty uchar red\nproperty double y\nproperty float z\n"
+            + "element face 1\nproperty int flags\nproperty list uchar int vertex_indices\n"
+            + "element edge 1\nproperty int vertex1\nproperty int vertex2\nend_header\n";
+    private static final double[][] SQUARE = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}};
+
+    /**
+     * Write the unit square to a binary PLY file
+     *
+     * @param order the byte order
+     * @param size  the size of the file - the file may be truncated
+     * @return the file
+     * @throws IOException on a write error
+     */
+    private static Path writeBinary(ByteOrder order, int size) throws IOException {
+        byte[] header = String.format(HEADER, order == ByteOrder.LITTLE_ENDIAN ? "binary_little_endian"
+                : "binary_big_endian").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(header.length + 200).order(order);
+        buffer.put(header);
+        for (double[] vertex : SQUARE)
+            buffer.putFloat((float) vertex[0]).put((byte) 200).putDouble(vertex[1]).putFloat((float) vertex[2]);
+        buffer.putInt(7).put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+        buffer.putInt(0).putInt(1);
+        File file = File.createTempFile("mesh", ".ply");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.copyOf(buffer.array(), Math.min(size, buffer.position())));
+        return file.toPath();
+    }
+
+    /**
+     * Write a binary little endian PLY file of a strip of faces over a row of
+     * vertices (i, 0, 0) and (i, 1, 0), with a list of texture coordinates
+     * before the vertex indices of a face if it is asked
+     *
+     * @param faces     amount of faces
+     * @param quads     tells whether a face is a quad, otherwise it is a triangle
+     * @param texCoords true for the list of texture coordinates
+     * @return the file
+     * @throws IOException on a write error
+     */
+    private static Path writeStrip(int faces, IntPredicate quads, boolean texCoords)
+            throws IOException {
+        int vertices = 2 * faces + 2;
+        byte[] header = ("ply\nformat binary_little_endian 1.0\nelement vertex " + vertices
+                + "\nproperty float x\nproperty float y\nproperty float z\nelement face " + faces
+                + (texCoords ? "\nproperty list uchar float texcoord" : "")
+                + "\nproperty list uchar int vertex_indices\nproperty uchar flags\nend_header\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(header.length + 12 * vertices + 30 * faces)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(header);
+        for (int i = 0; i < vertices / 2; ++i)
+            buffer.putFloat(i).putFloat(0).putFloat(0).putFloat(i).putFloat(1).putFloat(0);
+        for (int i = 0; i < faces; ++i) {
+            if (texCoords)
+                buffer.put((byte) 1).putFloat(0.5f);
+            if (quads.test(i))
+                buffer.put((byte) 4).putInt(2 * i).putInt(2 * i + 2).putInt(2 * i + 3).putInt(2 * i + 1);
+            else
+                buffer.put((byte) 3).putInt(2 * i).putInt(2 * i + 2).putInt(2 * i + 1);
+            buffer.put((byte) 9);
+        }
+        File file = File.createTempFile("strip", ".ply");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.copyOf(buffer.array(), buffer.position()));
+        return file.toPath();
+    }
+
+    /**
+     * Test method for {@link PlyLoader#load()}
+     */
+    @Test
+    public void testLoad() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ascii file
+        TriangleMesh mesh = new PlyLoader(write(String.format(HEADER, "ascii")
+                + "0 200 0 0\n1 200 0 0\n1 200 1 0\n0 200 1 0\n7 4 0 1 2 3\n0 1\n", ".ply")).load();
+        assertEquals("Wrong amount of vertices", 4, mesh.getVertexCount());
+        assertEquals("Wrong amount of faces", 2, mesh.getFaceCount());
+        assertTrue("Missing first face", hits(mesh, 0.75, 0.25));
+        assertTrue("Missing second face", hits(mesh, 0.25, 0.75));
+
+        // TC02: Binary little endian file
+        mesh = new PlyLoader(writeBinary(ByteOrder.LITTLE_ENDIAN, Integer.MAX_VALUE)).load();
+        assertEquals("Wrong amount of faces", 2, mesh.getFaceCount());
+        assertTrue("Missing first face", hits(mesh, 0.75, 0.25));
+        assertTrue("Missing second face", hits(mesh, 0.25, 0.75));
+        assertFalse("Wrong face", hits(mesh, 1.25, 0.75));
+
+        // TC03: Binary big endian file
+        mesh = new PlyLoader(writeBinary(ByteOrder.BIG_ENDIAN, Integer.MAX_VALUE)).load();
+        assertEquals("Wrong amount of faces", 2, mesh.getFaceCount());
+        assertTrue("Missing first face", hits(mesh, 0.75, 0.25));
+        assertTrue("Missing second face", hits(mesh, 0.25, 0.75));
+
+        // TC04: Not a PLY file
+        try {
+            new PlyLoader(write("v 0 0 0\n", ".ply")).load();
+            fail("Loaded a file that is not PLY");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC05: Missing vertex coordinate
+        try {
+            new PlyLoader(write("ply\nformat ascii 1.0\nelement vertex 1\nproperty float x\nproperty float y\n"
+                    + "end_header\n0 0\n", ".ply")).load();
+            fail("Loaded vertices without z");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Truncated binary file
+        try {
+            new PlyLoader(writeBinary(ByteOrder.LITTLE_ENDIAN, String.format(HEADER, "binary_little_endian")
+                    .length() + 40)).load();
+            fail("Loaded a truncated file");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC12: Truncated ascii file
+        try {
+            new PlyLoader(write(String.format(HEADER, "ascii") + "0 200 0 0\n1 200 0 0\n", ".ply")).load();
+            fail("Loaded a truncated file");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC13: Vertices without faces
+        mesh = new PlyLoader(write("ply\nformat ascii 1.0\nelement vertex 1\nproperty float x\nproperty float y\n"
+                + "property float z\nend_header\n0 0 0", ".ply")).load();
+        assertEquals("Wrong amount of vertices", 1, mesh.getVertexCount());
+        assertEquals("Wrong amount of faces", 0, mesh.getFaceCount());
+
+        // TC14: An ascii file that is parsed by chunks - squares [2i,2i+1]x[0,1]
+        int squares = 50000;
+        StringBuilder text = new StringBuilder("ply\nformat ascii 1.0\nelement vertex ").append(4 * squares)
+                .append("\nproperty float x\nproperty float y\nproperty float z\nelement face ").append(squares)
+                .append("\nproperty list uchar int vertex_index\nend_header\n");
+        for (int i = 0; i < squares; ++i)
+            text.append(2 * i).append(" 0 0\n").append(2 * i + 1).append(" 0 0\n")
+                    .append(2 * i + 1).append(" 1 0\n").append(2 * i).append(" 1 0\n");
+        for (int i = 0; i < squares; ++i)
+            text.append("4 ").append(4 * i).append(' ').append(4 * i + 1).append(' ').append(4 * i + 2)
+                    .append(' ').append(4 * i + 3).append('\n');
+        MeshLoader loader = MeshLoader.of(write(text.toString(), ".ply"));
+        assertTrue("Wrong loader", loader instanceof PlyLoader);
+        mesh = loader.load();
+        assertEquals("Wrong amount of vertices", 4 * squares, mesh.getVertexCount());
+        assertEquals("Wrong amount of faces", 2 * squares, mesh.getFaceCount());
+        for (int i = 0; i < squares; i += 97) {
+            assertTrue("Missing square " + i, hits(mesh, 2 * i + 0.3, 0.6));
+            assertFalse("Wrong square " + i, hits(mesh, 2 * i + 1.5, 0.6));
+        }
+
+        // TC15: A binary file of triangles that is read by blocks of a fixed record size
+        int faces = 150000;
+        int[] indices = new PlyLoader(writeStrip(faces, i -> false, false)).load().getFaces();
+        assertEquals("Wrong amount of faces", 3 * faces, indices.length);
+        for (int i = 0; i < faces; i += 997)
+            assertArrayEquals("Wrong face " + i, new int[]{2 * i, 2 * i + 2, 2 * i + 1},
+                    Arrays.copyOfRange(indices, 3 * i, 3 * i + 3));
+
+        // TC16: A binary file of triangles and quads, with another list before the indices
+        mesh = new PlyLoader(writeStrip(faces, i -> i % 3 == 0, true)).load();
+        indices = mesh.getFaces();
+        assertEquals("Wrong amount of faces", faces + (faces + 2) / 3, mesh.getFaceCount());
+        for (int i = 0, f = 0; i < faces; f += i % 3 == 0 ? 2 : 1, ++i)
+            if (i % 997 == 0 || i % 997 == 1)
+                assertArrayEquals("Wrong face " + i, new int[]{2 * i, 2 * i + 2, i % 3 == 0 ? 2 * i + 3 : 2 * i + 1},
+                        Arrays.copyOfRange(indices, 3 * f, 3 * f + 3));
+
+        // TC17: A binary file of triangles and a last quad, which is not of the fixed record size
+        mesh = new PlyLoader(writeStrip(faces, i -> i == faces - 1, false)).load();
+        assertEquals("Wrong amount of faces", faces + 1, mesh.getFaceCount());
+        assertTrue("Missing last quad", hits(mesh, faces - 0.25, 0.75));
+    }
+}
@@ -0,0 +1,174 @@
+package test.loaders;
+
+import elements.PointLight;
+import elements.SpotLight;
+import geometries.Intersectables.GeoPoint;
+import geometries.Sphere;
+import geometries.TriangleMesh;
+import loaders.SceneLoader;
+import org.junit.Test;
+import primitives.Color;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static test.loaders.ObjLoaderTest.write;
+
+/**
+ * SceneLoader Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class SceneLoaderTest {
+
+    /**
+     * Find the closest intersection of a ray with the geometries of a scene
+     *
+     * @param scene the scene
+     * @param from  the head of the ray
+     * @param to    a point in the direction of the ray
+     * @return the closest intersection, null if there is none
+     */
+    private static GeoPoint shoot(Scene scene, Point3D from, Point3D to) {
+        return scene.getGeometries().findClosestIntersection(new Ray(from, to.subtract(from)));
+    }
+
+    /**
+     * Test method for {@link SceneLoader#load()}
+     */
+    @Test
+    public void testLoad() throws IOException {
+        Path mesh = write("v 0 0 500\nv 10 0 500\nv 0 10 500\nf 1 2 3\n", ".obj");
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A scene with all kinds of elements
+        Scene scene = new SceneLoader(write("<?xml version=\"1.0\"?>\n"
+                + "<scene name=\"Test scene\" background=\"1 2 3\" distance=\"1000\">\n"
+                + "  <camera p0=\"0 0 -1000\" towards=\"0 0 1\" up=\"0 -1 0\"/>\n"
+                + "  <ambientLight color=\"255 255 255\" k=\"0.1\"/>\n"
+                + "  <materials><material name=\"glass\" kd=\"0.2\" ks=\"0.2\" shininess=\"30\" kt=\"0.6\"/></materials>\n"
+                + "  <geometries>\n"
+                + "    <sphere center=\"0 0 50\" radius=\"50\" emission=\"0 0 100\" material=\"glass\"/>\n"
+                + "    <plane point=\"0 0 1000\" normal=\"0 0 -1\"/>\n"
+                + "    <plane p1=\"0 1000 0\" p2=\"1 1000 0\" p3=\"0 1000 1\"/>\n"
+                + "    <triangle p1=\"100 0 0\" p2=\"110 0 0\" p3=\"100 10 0\" kd=\"0.5\" ks=\"0.5\" shininess=\"60\"/>\n"
+                + "    <polygon vertices=\"200 0 0  210 0 0  210 10 0  200 10 0\" material=\"glass\"/>\n"
+                + "    <tube origin=\"-200 0 0\" direction=\"0 1 0\" radius=\"5\"/>\n"
+                + "    <mesh file=\"" + mesh.getFileName() + "\" emission=\"5 5 5\"/>\n"
+                + "  </geometries>\n"
+                + "  <lights>\n"
+                + "    <directionalLight color=\"100 100 100\" direction=\"0 0 1\"/>\n"
+                + "    <pointLight color=\"500 300 0\" position=\"-50 50 -50\" kl=\"0.00001\" kq=\"0.000005\"/>\n"
+                + "    <spotLight color=\"500 300 0\" position=\"-50 50 -50\" direction=\"1 -1 2\"/>\n"
+                + "  </lights>\n"
+                + "</scene>\n", ".xml")).load();
+        assertEquals("Wrong background", new Color(1, 2, 3).getColor(), scene.getBackground().getColor());
+        assertEquals("Wrong distance", 1000, scene.getDistance(), 0);
+        assertEquals("Wrong camera", new Point3D(0, 0, -1000), scene.getCamera().getP0());
+        assertEquals("Wrong amount of lights", 3, scene.getLights().size());
+        assertTrue("Wrong point light", scene.getLights().get(1) instanceof PointLight);
+        assertTrue("Wrong spot light", scene.getLights().get(2) instanceof SpotLight);
+
+        GeoPoint sphere = shoot(scene, new Point3D(0, 0, -100), Point3D.ZERO);
+        assertTrue("Missing sphere", sphere.geometry instanceof Sphere);
+        assertEquals("Wrong sphere emission", new Color(0, 0, 100).getColor(),
+                sphere.geometry.getEmission().getColor());
+        assertEquals("Wrong sphere material", 0.6, sphere.geometry.getMaterial().getKT(), 0);
+        GeoPoint polygon = shoot(scene, new Point3D(205, 5, -100), new Point3D(205, 5, 0));
+        assertSame("Named material is not shared", sphere.geometry.getMaterial(), polygon.geometry.getMaterial());
+        assertEquals("Wrong triangle material", 60,
+                shoot(scene, new Point3D(102, 2, -100), new Point3D(102, 2, 0)).geometry.getMaterial().getNShininess());
+        assertTrue("Missing mesh", shoot(scene, new Point3D(2, 2, 400), new Point3D(2, 2, 500)).geometry
+                instanceof TriangleMesh);
+        assertEquals("Missing first plane", new Point3D(300, 300, 1000),
+                shoot(scene, new Point3D(300, 300, 0), new Point3D(300, 300, 1)).point);
+        assertEquals("Missing second plane", new Point3D(300, 1000, 300),
+                shoot(scene, new Point3D(300, 0, 300), new Point3D(300, 1, 300)).point);
+
+        // TC02: An unknown element
+        try {
+            new SceneLoader(write("<scene>\n<cube center=\"0 0 0\"/>\n</scene>", ".xml")).load();
+            fail("Loaded an unknown element");
+        } catch (IllegalArgumentException e) {
+            assertTrue("Missing line number", e.getMessage().contains(":2:"));
+        }
+
+        // TC03: An unknown material
+        try {
+            new SceneLoader(write("<scene><sphere center=\"0 0 0\" radius=\"1\" material=\"glass\"/></scene>", ".xml"))
+                    .load();
+            fail("Loaded an unknown material");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC04: Malformed point and malformed XML
+        try {
+            new SceneLoader(write("<scene><sphere center=\"0 0\" radius=\"1\"/></scene>", ".xml")).load();
+            fail("Loaded a malformed point");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new SceneLoader(write("<scene><sphere center=\"0 0 0\" radius=\"1\"></scene>", ".xml")).load();
+            fail("Loaded a malformed XML");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC05: A missing required number
+        try {
+            new SceneLoader(write("<scene>\n<geometries>\n<sphere center=\"0 0 0\"/>\n</geometries>\n</scene>",
+                    ".xml")).load();
+            fail("Loaded a sphere without a radius");
+        } catch (IllegalArgumentException e) {
+            assertTrue("Missing line number", e.getMessage().contains(":3:"));
+        }
+
+        // TC06: Malformed numbers
+        try {
+            new SceneLoader(write("<scene><sphere center=\"0 0 0\" radius=\"1 2\"/></scene>", ".xml")).load();
+            fail("Loaded two numbers for a radius");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new SceneLoader(write("<scene><material name=\"m\" shininess=\"30.5\"/></scene>", ".xml")).load();
+            fail("Loaded a shininess that is not an integer");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC07: Misplaced elements - a sphere in the lights, a camera in a sphere, a scene in the scene and a
+        // second scene
+        String[] misplaced = {"<lights>\n<sphere center=\"0 0 0\" radius=\"1\"/>\n</lights>",
+                "<sphere center=\"0 0 0\" radius=\"1\">\n<camera p0=\"0 0 0\" towards=\"0 0 1\" up=\"0 1 0\"/>\n"
+                        + "</sphere>",
+                "<geometries>\n<scene/>\n</geometries>",
+                "</scene>\n<scene>"};
+        for (String element : misplaced)
+            try {
+                new SceneLoader(write("<scene>\n" + element + "\n</scene>", ".xml")).load();
+                fail("Loaded a misplaced element: " + element);
+            } catch (IllegalArgumentException e) {
+                assertTrue("Missing line number: " + e.getMessage(), e.getMessage().contains(".xml:3:"));
+            }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: An empty scene
+        scene = new SceneLoader(write("<scene/>", ".xml")).load();
+        assertEquals("Wrong amount of lights", 0, scene.getLights().size());
+        assertNull("Wrong geometries", shoot(scene, Point3D.ZERO, new Point3D(0, 0, 1)));
+
+        // TC12: Many geometries - a row of spheres
+        int spheres = 20000;
+        StringBuilder text = new StringBuilder("<scene>\n<material name=\"m\" kd=\"0.5\"/>\n");
+        for (int i = 0; i < spheres; ++i)
+            text.append("<sphere center=\"").append(3 * i).append(" 0 0\" radius=\"1\" material=\"m\"/>\n");
+        scene = new SceneLoader(write(text.append("</scene>").toString(), ".xml")).load();
+        assertEquals("Missing last sphere", new Point3D(3 * spheres - 3, 0, -1),
+                shoot(scene, new Point3D(3 * spheres - 3, 0, -10), new Point3D(3 * spheres - 3, 0, 0)).point);
+    }
+}
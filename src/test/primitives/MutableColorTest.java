@@ -0,0 +1,126 @@
+package test.primitives;
+
+import org.junit.Test;
+import primitives.Color;
+import primitives.MutableColor;
+
+import static org.junit.Assert.*;
+
+/**
+ * MutableColor Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class MutableColorTest {
+
+    Color c1 = new Color(10, 20, 30);
+    Color c2 = new Color(1, 2, 4);
+
+    /**
+     * Assert a color has the expected components
+     *
+     * @param message  the message of the failure
+     * @param expected the expected color
+     * @param actual   the actual color
+     */
+    private static void assertColor(String message, Color expected, Color actual) {
+        assertTrue(message, expected.isSimilar(actual, 1e-10));
+    }
+
+    /**
+     * Test method for {@link MutableColor#add(Color)} and {@link MutableColor#add(MutableColor)}.
+     */
+    @Test
+    public void testAdd() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableColor c = new MutableColor(c1);
+        assertSame("ERROR: add() does not work in place", c, c.add(c2));
+        assertColor("ERROR: add() does not return the correct value", new Color(11, 22, 34), c.toColor());
+        c.add(new MutableColor(c2));
+        assertColor("ERROR: add() of an accumulator does not return the correct value", new Color(12, 24, 38),
+                c.toColor());
+
+        // =============== Boundary Values Tests ==================
+        assertColor("ERROR: add() to black differs from the color", c1, new MutableColor().add(c1).toColor());
+    }
+
+    /**
+     * Test method for {@link MutableColor#addScaled(Color, double)} and
+     * {@link MutableColor#addScaled(MutableColor, double)}.
+     */
+    @Test
+    public void testAddScaled() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableColor c = new MutableColor(c1);
+        assertSame("ERROR: addScaled() does not work in place", c, c.addScaled(c2, 2.5));
+        assertColor("ERROR: addScaled() does not return the correct value", new Color(12.5, 25, 40), c.toColor());
+        c.addScaled(new MutableColor(c2), 0.5);
+        assertColor("ERROR: addScaled() of an accumulator does not return the correct value",
+                new Color(13, 26, 42), c.toColor());
+        assertColor("ERROR: addScaled() differs from Color.add() and Color.scale()", c1.add(c2.scale(3)),
+                new MutableColor(c1).addScaled(c2, 3).toColor());
+
+        // =============== Boundary Values Tests ==================
+        assertColor("ERROR: addScaled() by zero changes the color", c1,
+                new MutableColor(c1).addScaled(c2, 0).toColor());
+    }
+
+    /**
+     * Test method for {@link MutableColor#scale(double)} and {@link MutableColor#reduce(double)}.
+     */
+    @Test
+    public void testScaleReduce() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableColor c = new MutableColor(c1);
+        assertSame("ERROR: scale() does not work in place", c, c.scale(1.5));
+        assertColor("ERROR: scale() differs from Color.scale()", c1.scale(1.5), c.toColor());
+        assertSame("ERROR: reduce() does not work in place", c, c.reduce(3));
+        assertColor("ERROR: reduce() differs from Color.reduce()", c1.scale(1.5).reduce(3), c.toColor());
+
+        // =============== Boundary Values Tests ==================
+        assertColor("ERROR: scale() by zero is not black", Color.BLACK, new MutableColor(c1).scale(0).toColor());
+        assertColor("ERROR: reduce() by one changes the color", c1, new MutableColor(c1).reduce(1).toColor());
+    }
+
+    /**
+     * Test method for {@link MutableColor#toColor()}, {@link MutableColor#set(Color)},
+     * {@link MutableColor#setBlack()}, {@link MutableColor#getIntensity()} and the getters.
+     */
+    @Test
+    public void testToColor() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableColor c = new MutableColor(c1);
+        Color color = c.toColor();
+        assertNotSame("ERROR: toColor() returns the original color", c1, color);
+        assertColor("ERROR: toColor() differs from the initial color", c1, color);
+        assertEquals("ERROR: getIntensity() is not the average of the components", 20, c.getIntensity(), 1e-10);
+        assertEquals("ERROR: getRed() is not the red component", 10, c.getRed(), 0);
+        assertEquals("ERROR: getGreen() is not the green component", 20, c.getGreen(), 0);
+        assertEquals("ERROR: getBlue() is not the blue component", 30, c.getBlue(), 0);
+        c.add(c2);
+        assertColor("ERROR: toColor() changed the color it returned before", c1, color);
+        assertColor("ERROR: set() does not copy the color", c2, c.set(c2).toColor());
+
+        // =============== Boundary Values Tests ==================
+        assertColor("ERROR: setBlack() is not black", Color.BLACK, c.setBlack().toColor());
+        assertColor("ERROR: a new accumulator is not black", Color.BLACK, new MutableColor().toColor());
+    }
+
+    /**
+     * Test method for the negative component guard of {@link MutableColor#toColor()}.
+     */
+    @Test
+    public void testNegativeComponent() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableColor c = new MutableColor(c2).addScaled(c1, -1);
+        try {
+            c.toColor();
+            fail("ERROR: toColor() of a negative component does not throw an exception");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // =============== Boundary Values Tests ==================
+        assertColor("ERROR: toColor() of zero components is not black", Color.BLACK,
+                new MutableColor(c1).addScaled(c1, -1).toColor());
+    }
+}
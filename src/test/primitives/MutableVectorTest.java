@@ -0,0 +1,76 @@
+package test.primitives;
+
+import org.junit.Test;
+import primitives.MutableVector;
+import primitives.Point3D;
+import primitives.Vector;
+
+import static org.junit.Assert.*;
+import static primitives.Util.isZero;
+
+/**
+ * MutableVector Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class MutableVectorTest {
+
+    Vector v1 = new Vector(1, 2, 3);
+    Vector v3 = new Vector(0, 3, -2);
+
+    /**
+     * Test method for {@link MutableVector#add(Vector)} and {@link MutableVector#subtract(Point3D)}.
+     */
+    @Test
+    public void testAddSubtract() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableVector v = new MutableVector(v1);
+        assertSame("ERROR: add() does not work in place", v, v.add(v3));
+        assertEquals("ERROR: add() does not return the correct value", new Vector(1, 5, 1), v.toVector());
+        v.subtract(new Point3D(1, 5, 1));
+
+        // =============== Boundary Values Tests ==================
+        assertTrue("ERROR: subtract() of itself is not zero", v.isZero());
+        try {
+            v.toVector();
+            fail("ERROR: zero vector does not throw an exception");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Test method for {@link MutableVector#addScaled(Vector, double)}.
+     */
+    @Test
+    public void testAddScaled() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableVector v = new MutableVector(v1).addScaled(v3, -2);
+        assertEquals("ERROR: addScaled() does not return the correct value", new Vector(1, -4, 7), v.toVector());
+    }
+
+    /**
+     * Test method for {@link MutableVector#crossProduct(Vector)}.
+     */
+    @Test
+    public void testCrossProduct() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableVector v = new MutableVector(v1).crossProduct(v3);
+        assertEquals("ERROR: crossProduct() differs from Vector.crossProduct()", v1.crossProduct(v3), v.toVector());
+
+        // =============== Boundary Values Tests ==================
+        assertTrue("ERROR: crossProduct() of parallel vectors is not zero",
+                new MutableVector(v1).crossProduct(v1.scale(-2)).isZero());
+    }
+
+    /**
+     * Test method for {@link MutableVector#normalize()}.
+     */
+    @Test
+    public void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+        MutableVector v = new MutableVector(v1);
+        assertSame("ERROR: normalize() does not work in place", v, v.normalize());
+        assertTrue("ERROR: normalize() result is not a unit vector", isZero(v.length() - 1));
+        assertEquals("ERROR: normalize() differs from Vector.normalized()", v1.normalized(), v.toVector());
+    }
+}
@@ -0,0 +1,85 @@
+package test.primitives;
+
+import org.junit.Test;
+import primitives.*;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Samplers Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class SamplerTest {
+
+    /**
+     * Checks that n samples of a dimension are evenly spread over [0, 1) up to a rotation
+     *
+     * @param sampler   the sampler
+     * @param n         number of samples
+     * @param dimension the dimension
+     */
+    private void assertStratified(Sampler sampler, int n, int dimension) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; ++i)
+            values[i] = sampler.get(17, i, dimension);
+        Arrays.sort(values);
+        for (int i = 1; i < n; ++i)
+            assertEquals("Samples are not stratified", 1d / n, values[i] - values[i - 1], 1e-9);
+        assertEquals("Samples are not stratified", 1d / n, values[0] + 1 - values[n - 1], 1e-9);
+    }
+
+    /**
+     * Test method for {@link RandomSampler#get(long, long, int)}.
+     */
+    @Test
+    public void testRandomSampler() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Seeded sampler is reproducible
+        Sampler sampler = new RandomSampler(42);
+        assertEquals("Seeded sampler is not reproducible", sampler.get(1, 2, 0), new RandomSampler(42).get(1, 2, 0), 0);
+        // TC02: Different dimensions and seeds give different values
+        assertNotEquals("Dimensions are not independent", sampler.get(1, 2, 0), sampler.get(1, 2, 1), 0);
+        assertNotEquals("Seeds are not independent", sampler.get(1, 2, 0), new RandomSampler(43).get(1, 2, 0), 0);
+        // TC03: Values are in [0, 1)
+        Sampler unseeded = new RandomSampler();
+        for (int i = 0; i < 1000; ++i) {
+            double value = i % 2 == 0 ? sampler.get(i, i, 0) : unseeded.get(i, i, 0);
+            assertTrue("Value out of range", value >= 0 && value < 1);
+        }
+    }
+
+    /**
+     * Test method for {@link HaltonSampler#get(long, long, int)}.
+     */
+    @Test
+    public void testHaltonSampler() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Base 2 and base 3 dimensions are stratified
+        assertStratified(new HaltonSampler(5), 16, 0);
+        assertStratified(new HaltonSampler(5), 27, 1);
+        // TC02: Sequences are rotated differently
+        Sampler sampler = new HaltonSampler(5);
+        assertNotEquals("Sequences are not rotated", sampler.get(1, 3, 0), sampler.get(2, 3, 0), 0);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Dimension beyond the primes table
+        double value = sampler.get(1, 3, 100);
+        assertTrue("Value out of range", value >= 0 && value < 1);
+    }
+
+    /**
+     * Test method for {@link SobolSampler#get(long, long, int)}.
+     */
+    @Test
+    public void testSobolSampler() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Both dimensions are stratified
+        assertStratified(new SobolSampler(7), 32, 0);
+        assertStratified(new SobolSampler(7), 32, 1);
+        // TC02: Seeded sampler is reproducible
+        assertEquals("Sampler is not reproducible", new SobolSampler(7).get(3, 9, 1), new SobolSampler(7).get(3, 9, 1), 0);
+    }
+}
@@ -1,7 +1,20 @@
 package test.renderer;
 
 import org.junit.Test;
+import primitives.Color;
 import renderer.ImageWriter;
+import renderer.Render;
+import renderer.ToneMapping;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static test.renderer.TestScenes.sphereScene;
 
 /**
  * ImageWriter Tester.
@@ -32,4 +45,108 @@ public class ImageWriterTest {
 
     }
 
-} 
+    /**
+     * Test method for {@link ImageWriter#writePixel(int, int, Color)}
+     */
+    @Test
+    public void testWritePixel() {
+        ImageWriter imageWriter = new ImageWriter("HDR", 10, 10, 10, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Components above 255 are kept
+        imageWriter.writePixel(3, 7, new Color(1000, 20.5, 0));
+        Color color = imageWriter.getPixel(3, 7);
+        assertEquals("Wrong red", 1000, color.getRed(), 0);
+        assertEquals("Wrong green", 20.5, color.getGreen(), 0);
+        assertEquals("Wrong blue", 0, color.getBlue(), 0);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Neighbour pixel is not touched
+        assertEquals("Wrong neighbour", 0, imageWriter.getPixel(4, 7).getRed(), 0);
+    }
+
+    /**
+     * Test method for {@link ToneMapping#map(float)}
+     */
+    @Test
+    public void testToneMapping() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Clamp cuts the fraction and the high values
+        assertEquals("Wrong clamp", 20, ToneMapping.CLAMP.map(20.9f));
+        assertEquals("Wrong clamp", 255, ToneMapping.CLAMP.map(1000));
+        // TC02: Reinhard compresses the high values
+        assertEquals("Wrong Reinhard", 127, ToneMapping.REINHARD.map(255));
+        assertEquals("Wrong Reinhard", 204, ToneMapping.REINHARD.map(1020));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Black stays black
+        assertEquals("Wrong clamp", 0, ToneMapping.CLAMP.map(0));
+        assertEquals("Wrong Reinhard", 0, ToneMapping.REINHARD.map(0));
+    }
+
+    /**
+     * Test method for {@link ImageWriter#setStreaming(int)}
+     */
+    @Test
+    public void testStreaming() throws IOException {
+        int nX = 50, nY = 30;
+        ImageWriter imageWriter = new ImageWriter("streaming", 50, 30, nX, nY).setStreaming(8);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Bands completed out of order, the last band is incomplete
+        for (int y = nY - 1; y >= 0; --y)
+            for (int x = 0; x < nX; ++x)
+                if (y < 24 || x < 10)
+                    imageWriter.writePixel(x, y, new Color(x * 5, y * 8, 1000));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A pixel of a band that was written to the file
+        try {
+            imageWriter.writePixel(0, 0, Color.BLACK);
+            fail("Pixel of a written band does not throw an exception");
+        } catch (IllegalArgumentException e) {
+        }
+
+        imageWriter.writeToImage();
+        BufferedImage image = ImageIO.read(new File(System.getProperty("user.dir") + "/images/streaming.png"));
+        for (int y = 0; y < nY; ++y)
+            for (int x = 0; x < nX; ++x) {
+                int expected = y < 24 || x < 10 ? (x * 5) << 16 | (y * 8) << 8 | 255 : 0;
+                assertEquals("Wrong pixel", expected, image.getRGB(x, y) & 0xFFFFFF);
+            }
+    }
+
+    /**
+     * Test method for {@link ImageWriter#setMappedFile(String, int)}
+     */
+    @Test
+    public void testMappedFile() throws IOException {
+        File file = File.createTempFile("frameBuffer", ".bin");
+        file.deleteOnExit();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The pixels are kept in the file
+        ImageWriter first = new ImageWriter("mapped", 100, 100, 30, 20).setMappedFile(file.getPath(), 8);
+        new Render(sphereScene(Color.BLACK), first).setTileSize(5).renderImage();
+        assertTrue("Wrong center pixel", first.getPixel(15, 10).getBlue() > 0);
+        assertEquals("Wrong corner pixel", 0, first.getPixel(0, 0).getRed(), 0);
+
+        // TC02: Resumed render skips the complete tiles
+        ImageWriter second = new ImageWriter("mapped", 100, 100, 30, 20).setMappedFile(file.getPath(), 8);
+        new Render(sphereScene(new Color(255, 0, 0)), second).renderImage();
+        for (int y = 0; y < 20; ++y)
+            for (int x = 0; x < 30; ++x)
+                assertEquals("Complete tile was rendered again", first.getPixel(x, y).getRed(),
+                        second.getPixel(x, y).getRed(), 0);
+        second.writeToImage();
+
+        // =============== Boundary Values Tests ==================
+        // TC11: File of another resolution
+        try {
+            new ImageWriter("mapped", 100, 100, 20, 20).setMappedFile(file.getPath(), 8).getPixel(0, 0);
+            fail("File of another resolution does not throw an exception");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package test.renderer;
+
+import org.junit.Test;
+import renderer.PngEncoder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * PngEncoder Tester.
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+public class PngEncoderTest {
+
+    /**
+     * Encode an image and decode it back
+     *
+     * @param rgb    pixels packed as 0xRRGGBB
+     * @param width  image width
+     * @param height image height
+     * @param bands  rows of each band that is written
+     * @return the decoded image
+     * @throws IOException on an encoding error
+     */
+    private BufferedImage encode(int[] rgb, int width, int height, int... bands) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PngEncoder encoder = new PngEncoder(out, width, height);
+        int row = 0;
+        for (int rows : bands) {
+            encoder.writeRows(rgb, row * width, rows);
+            row += rows;
+        }
+        encoder.close();
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Test method for {@link PngEncoder#writeRows(int[], int, int)}.
+     */
+    @Test
+    public void testWriteRows() throws IOException {
+        int width = 37, height = 41;
+        int[] rgb = new int[width * height];
+        Random random = new Random(3);
+        for (int i = 0; i < rgb.length; ++i)
+            rgb[i] = i % 5 == 0 ? random.nextInt(1 << 24) : i * 1000;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Bands of several chunks and of a part of a chunk
+        BufferedImage image = encode(rgb, width, height, 5, 33, 3);
+        for (int y = 0; y < height; ++y)
+            for (int x = 0; x < width; ++x)
+                assertEquals("Wrong pixel", rgb[y * width + x], image.getRGB(x, y) & 0xFFFFFF);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Missing rows are black
+        image = encode(rgb, width, height, 10);
+        assertEquals("Wrong pixel", rgb[9 * width + 4], image.getRGB(4, 9) & 0xFFFFFF);
+        assertEquals("Missing row is not black", 0, image.getRGB(4, 10) & 0xFFFFFF);
+
+        // TC12: Single pixel image
+        image = encode(new int[]{0xABCDEF}, 1, 1, 1);
+        assertEquals("Wrong pixel", 0xABCDEF, image.getRGB(0, 0) & 0xFFFFFF);
+    }
+}
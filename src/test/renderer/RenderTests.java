@@ -2,17 +2,36 @@ package test.renderer;
 
 import elements.AmbientLight;
 import elements.Camera;
+import geometries.Intersectables.GeoPoint;
 import geometries.Sphere;
 import geometries.Triangle;
 import org.junit.Test;
 import primitives.Color;
 import primitives.Material;
 import primitives.Point3D;
+import primitives.Ray;
 import primitives.Vector;
 import renderer.ImageWriter;
 import renderer.Render;
+import renderer.RenderProgress;
+import renderer.RenderStats;
+import renderer.RenderTask;
 import scene.Scene;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static test.renderer.TestScenes.sphereScene;
+
 /**
  * Test rendering abasic image
  *
@@ -78,4 +97,277 @@ public class RenderTests {
         render.printGrid(50, java.awt.Color.WHITE);
         render.writeToImage();
     }
+
+    /**
+     * Test method for {@link Render#setCheckpoint(String, int)} and {@link Render#resume(String)}
+     */
+    @Test
+    public void checkpointResumeTest() throws IOException {
+        File file = File.createTempFile("render", ".checkpoint");
+        file.deleteOnExit();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A render that is longer than the interval - the checkpoints append
+        // the new tiles, each of them once
+        Scene scene = sphereScene(Color.BLACK);
+        scene.addGeometries(new Sphere(new Point3D(0, 0, 1000), 1) {
+            @Override
+            public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+                try {
+                    Thread.sleep(2); // about 2.4 seconds for the whole image
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findClosestIntersection(ray, maxDistance);
+            }
+        });
+        ImageWriter first = new ImageWriter("checkpoint", 100, 100, 40, 30);
+        new Render(scene, first).setMultithreading(1).setTileSize(10).setCheckpoint(file.getPath(), 1).renderImage();
+        int header = 50;
+        assertEquals("Wrong checkpoint size", header + 12 * (4 + 12 * 10 * 10), file.length());
+        assertFalse("Temporary file was left", new File(file.getPath() + ".tmp").exists());
+
+        // TC02: A resumed render of a complete checkpoint restores the pixels without rendering them
+        ImageWriter second = new ImageWriter("checkpoint", 100, 100, 40, 30);
+        new Render(sphereScene(new Color(255, 0, 0)), second).resume(file.getPath());
+        for (int y = 0; y < 30; ++y)
+            for (int x = 0; x < 40; ++x) {
+                assertEquals("Wrong restored pixel", first.getPixel(x, y).getRed(), second.getPixel(x, y).getRed(), 0);
+                assertEquals("Wrong restored pixel", first.getPixel(x, y).getBlue(), second.getPixel(x, y).getBlue(), 0);
+            }
+
+        // TC03: Checkpoints of a streaming image writer, which can't read back its pixels
+        try {
+            new Render(sphereScene(Color.BLACK), new ImageWriter("checkpoint", 100, 100, 40, 30).setStreaming(10))
+                    .setCheckpoint(file.getPath(), 1);
+            fail("Checkpoints of a streaming image writer must throw exception");
+        } catch (IllegalArgumentException e) {
+        }
+        ImageWriter streaming = new ImageWriter("checkpoint", 100, 100, 40, 30);
+        Render render = new Render(sphereScene(Color.BLACK), streaming).setCheckpoint(file.getPath(), 1);
+        streaming.setStreaming(10);
+        try {
+            render.renderImage();
+            fail("Checkpoints of a streaming image writer must throw exception");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Test method for {@link Render#setProgressive(renderer.RenderListener)}
+     */
+    @Test
+    public void progressiveTest() {
+        // TC01: All the passes are done, the last one is the full render
+        ImageWriter full = new ImageWriter("progressive", 100, 100, 40, 30);
+        new Render(sphereScene(Color.BLACK), full).renderImage();
+        ImageWriter progressive = new ImageWriter("progressive", 100, 100, 40, 30);
+        int[] passes = {0};
+        new Render(sphereScene(Color.BLACK), progressive).setProgressive((pass, total, imageWriter) -> {
+            assertEquals("Wrong pass number", ++passes[0], pass);
+            assertTrue("Wrong amount of passes", pass <= total);
+            return true;
+        }).renderImage();
+        assertTrue("Too few passes", passes[0] > 1);
+        for (int y = 0; y < 30; ++y)
+            for (int x = 0; x < 40; ++x)
+                assertEquals("Wrong final pixel", full.getPixel(x, y).getRed(), progressive.getPixel(x, y).getRed(), 0);
+
+        // TC02: The render stops when the listener returns false
+        passes[0] = 0;
+        new Render(sphereScene(Color.BLACK), new ImageWriter("progressive", 100, 100, 40, 30))
+                .setProgressive((pass, total, imageWriter) -> {
+                    ++passes[0];
+                    return false;
+                }).renderImage();
+        assertEquals("The render was not stopped", 1, passes[0]);
+
+        // TC03: Progressive render of a streaming image writer, where a pixel is written once
+        ImageWriter streaming = new ImageWriter("progressive", 100, 100, 40, 30);
+        Render render = new Render(sphereScene(Color.BLACK), streaming)
+                .setProgressive((pass, total, imageWriter) -> true);
+        streaming.setStreaming(10);
+        try {
+            render.renderImage();
+            fail("Progressive render of a streaming image writer must throw exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue("The render started: " + e.getMessage(), e.getMessage().startsWith("Progressive"));
+        }
+    }
+
+    /**
+     * Test method for {@link Render#setTimeBudget(double)}
+     */
+    @Test
+    public void timeBudgetTest() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The render ends in the budget, and a flat color pixel is as in a full render
+        ImageWriter full = new ImageWriter("budget", 100, 100, 40, 30);
+        new Render(sphereScene(Color.BLACK), full).renderImage();
+        ImageWriter budget = new ImageWriter("budget", 100, 100, 40, 30);
+        long start = System.nanoTime();
+        new Render(sphereScene(Color.BLACK), budget).setNumOfSampleRays(4).setTimeBudget(0.5).renderImage();
+        assertTrue("The render exceeded the budget", System.nanoTime() - start < 2_000_000_000L);
+        assertEquals("Wrong pixel", full.getPixel(20, 15).getRed(), budget.getPixel(20, 15).getRed(), 1e-3);
+        assertEquals("Wrong pixel", full.getPixel(0, 0).getRed(), budget.getPixel(0, 0).getRed(), 1e-3);
+
+        // TC02: A time budget of a streaming image writer, where a pixel is written once
+        ImageWriter streaming = new ImageWriter("budget", 100, 100, 40, 30);
+        Render render = new Render(sphereScene(Color.BLACK), streaming).setTimeBudget(0.3);
+        streaming.setStreaming(10);
+        try {
+            render.renderImage();
+            fail("A time budget of a streaming image writer must throw exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue("The render started: " + e.getMessage(), e.getMessage().startsWith("A time budget"));
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero budget
+        try {
+            new Render(sphereScene(Color.BLACK), budget).setTimeBudget(0);
+            fail("Zero time budget must throw exception");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Test method for {@link Render#renderImageAsync()}
+     */
+    @Test
+    public void renderImageAsyncTest() throws Exception {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The render ends, in a pool with fewer threads than the renderer
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            ImageWriter imageWriter = new ImageWriter("async", 100, 100, 40, 30);
+            RenderTask task = new Render(sphereScene(Color.BLACK), imageWriter).setMultithreading(4)
+                    .setExecutor(pool).renderImageAsync();
+            assertSame("Wrong image writer", imageWriter, task.get(10, TimeUnit.SECONDS));
+            assertTrue("The render did not end", task.isDone());
+        } finally {
+            pool.shutdown();
+        }
+
+        // TC02: A cancelled render stops
+        RenderTask task = new Render(sphereScene(Color.BLACK), new ImageWriter("async", 100, 100, 400, 300))
+                .setNumOfSampleRays(9).setTileSize(4).renderImageAsync();
+        assertTrue("The render was not cancelled", task.cancel(false));
+        assertTrue("The render did not stop", task.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue("The render was not cancelled", task.isCancelled());
+        try {
+            task.get();
+            fail("A cancelled render must throw CancellationException");
+        } catch (CancellationException e) {
+        }
+
+        // TC03: A failure of a render thread is thrown to the caller
+        task = new Render(sphereScene(Color.BLACK), new ImageWriter("async", 100, 100, 40, 30))
+                .setExecutor(r -> {
+                    throw new RejectedExecutionException("No threads");
+                }).renderImageAsync();
+        try {
+            task.get(10, TimeUnit.SECONDS);
+            fail("A failed render must throw ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue("Wrong failure", e.getCause() instanceof RejectedExecutionException);
+        }
+        try {
+            new Render(sphereScene(Color.BLACK), new ImageWriter("async", 100, 100, 40, 30))
+                    .setExecutor(r -> {
+                        throw new RejectedExecutionException("No threads");
+                    }).renderImage();
+            fail("A failed render must throw the failure");
+        } catch (RejectedExecutionException e) {
+        }
+    }
+
+    /**
+     * Test method for {@link Render#setVirtualThreads(Semaphore)}
+     */
+    @Test
+    public void virtualThreadsTest() throws Exception {
+        // TC01: Concurrent renders do not hold more CPU permits than there are, and render the image
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Semaphore cpuPermits = new Semaphore(2) {
+            @Override
+            public void acquire() throws InterruptedException {
+                super.acquire();
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            }
+
+            @Override
+            public void release() {
+                running.decrementAndGet();
+                super.release();
+            }
+        };
+        ImageWriter full = new ImageWriter("virtual", 100, 100, 40, 30);
+        new Render(sphereScene(Color.BLACK), full).renderImage();
+        RenderTask[] tasks = new RenderTask[4];
+        for (int i = 0; i < tasks.length; ++i)
+            tasks[i] = new Render(sphereScene(Color.BLACK), new ImageWriter("virtual", 100, 100, 40, 30))
+                    .setTileSize(4).setVirtualThreads(cpuPermits).renderImageAsync();
+        for (RenderTask task : tasks) {
+            ImageWriter imageWriter = task.get(10, TimeUnit.SECONDS);
+            for (int y = 0; y < 30; ++y)
+                for (int x = 0; x < 40; ++x)
+                    assertEquals("Wrong pixel", full.getPixel(x, y).getRed(), imageWriter.getPixel(x, y).getRed(), 0);
+        }
+        assertTrue("Too many tiles at a time", maxRunning.get() <= 2);
+        assertTrue("No tiles were counted", maxRunning.get() > 0);
+
+        // TC02: A render that is cancelled while its threads wait for a CPU permit stops without one
+        Semaphore busy = new Semaphore(0);
+        RenderTask task = new Render(sphereScene(Color.BLACK), new ImageWriter("virtual", 100, 100, 40, 30))
+                .setVirtualThreads(busy).renderImageAsync();
+        Thread.sleep(100);
+        assertTrue("The render was not cancelled", task.cancel(false));
+        assertTrue("The waiting threads did not stop", task.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test method for {@link Render#setProgressListener} and {@link Render#getProgress()}
+     */
+    @Test
+    public void progressTest() {
+        // TC01: The listener gets the progress, and the final progress is complete
+        List<Double> fractions = new CopyOnWriteArrayList<>();
+        Render render = new Render(sphereScene(Color.BLACK), new ImageWriter("progress", 100, 100, 40, 30))
+                .setTileSize(7).setProgressListener(progress -> fractions.add(progress.getFraction()), 0.01);
+        render.renderImage();
+        RenderProgress progress = render.getProgress();
+        assertEquals("Wrong amount of pixels", 1200, progress.getPixels());
+        assertEquals("Wrong total pixels", 1200, progress.getTotalPixels());
+        assertEquals("Wrong amount of rays", 1200, progress.getRays());
+        assertEquals("Wrong fraction", 1, progress.getFraction(), 0);
+        assertFalse("The listener was not called", fractions.isEmpty());
+        assertEquals("Wrong last fraction", 1, fractions.get(fractions.size() - 1), 0);
+        for (int i = 1; i < fractions.size(); ++i)
+            assertTrue("The progress went back", fractions.get(i - 1) <= fractions.get(i));
+        assertEquals("Wrong time left", 0, progress.getEta() == null ? 0 : progress.getEta().toNanos());
+    }
+
+    /**
+     * Test method for {@link Render#setStats()}
+     */
+    @Test
+    public void statsTest() {
+        // TC01: Camera rays and the sphere intersection tests of each pixel
+        Render render = new Render(sphereScene(Color.BLACK), new ImageWriter("stats", 100, 100, 40, 30)).setStats();
+        render.renderImage();
+        RenderStats stats = render.getStats();
+        assertEquals("Wrong camera rays", 1200, stats.getRays(RenderStats.RayType.CAMERA));
+        assertEquals("Wrong shadow rays", 0, stats.getRays(RenderStats.RayType.SHADOW));
+        assertEquals("Wrong rays", 1200, stats.getRays());
+        assertEquals("Wrong intersection tests", 1200, stats.getIntersectionTests(Sphere.class));
+        assertEquals("Wrong depth", 1, stats.getAverageDepth(), 0);
+        assertEquals("Wrong beams", 0, stats.getBeams());
+
+        // TC02: No statistics unless they are set
+        render = new Render(sphereScene(Color.BLACK), new ImageWriter("stats", 100, 100, 40, 30));
+        render.renderImage();
+        assertNull("Statistics without setting them", render.getStats());
+    }
 }
@@ -0,0 +1,37 @@
+package test.renderer;
+
+import elements.AmbientLight;
+import elements.Camera;
+import geometries.Sphere;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Scenes shared by the renderer testers
+ *
+ * @author David Zimberknopf and Daniel Grunberger
+ */
+final class TestScenes {
+
+    private TestScenes() {
+    }
+
+    /**
+     * Scene of a sphere in front of a background
+     *
+     * @param background the background color
+     * @return the scene
+     */
+    static Scene sphereScene(Color background) {
+        Scene scene = new Scene("Sphere scene");
+        scene.setCamera(new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)));
+        scene.setDistance(100);
+        scene.setBackground(background);
+        scene.setAmbientLight(new AmbientLight(new Color(255, 191, 191), 1));
+        scene.addGeometries(new Sphere(new Color(0, 0, 100), new Material(0, 0, 0), new Point3D(0, 0, 100), 50));
+        return scene;
+    }
+}